@@ -0,0 +1,110 @@
+package io.github.ved.jsanitizers;
+
+/**
+ * Fast paths for text that is pure ASCII, which is the bulk of what goes
+ * through the sanitizers. Characters are packed four at a time into a
+ * {@code long} (one 16 bits lane per UTF-16 unit) and tested together with
+ * SWAR (SIMD within a register) arithmetic instead of one branch per
+ * character.
+ */
+final class Ascii {
+	
+	private static final long LANES_HIGH_BIT = 0x8000800080008000L;
+	private static final long LANES_NON_ASCII = 0xFF80FF80FF80FF80L;
+	private static final long LANES_ZERO = 0x0030003000300030L;
+	
+	// Adding this to a lane holding an ASCII char overflows into the lane's
+	// high bit only if the char is above '9'
+	private static final long LANES_ABOVE_NINE = 0x7FC67FC67FC67FC6L;
+	
+	private Ascii(){}
+	
+	/**
+	 * @param value
+	 *            The text to test.
+	 * @param start
+	 *            The index of the first char to test.
+	 * @param end
+	 *            The index after the last char to test.
+	 * @return {@code true} if all chars between {@code start} and {@code end}
+	 *         are ASCII, {@code false} otherwise.
+	 */
+	static boolean isAscii(CharSequence value, int start, int end){
+		
+		int i = start;
+		
+		for(; i + 4 <= end; i += 4){
+			if((pack(value, i) & LANES_NON_ASCII) != 0){
+				return false;
+			}
+		}
+		
+		for(; i < end; i++){
+			if(value.charAt(i) >= 0x80){
+				return false;
+			}
+		}
+		
+		return true;
+		
+	}
+	
+	/**
+	 * Finds the first char that is not an ASCII digit.
+	 * 
+	 * @param value
+	 *            The text to scan.
+	 * @param start
+	 *            The index of the first char to scan.
+	 * @param end
+	 *            The index after the last char to scan.
+	 * @return The index of the first char that is not between {@code '0'} and
+	 *         {@code '9'}, or {@code end} if they all are.
+	 */
+	static int indexOfNonDigit(CharSequence value, int start, int end){
+		
+		int i = start;
+		
+		for(; i + 4 <= end; i += 4){
+			if(!areDigits(pack(value, i))){
+				break;
+			}
+		}
+		
+		for(; i < end; i++){
+			
+			char character = value.charAt(i);
+			
+			if(character < '0' || character > '9'){
+				return i;
+			}
+			
+		}
+		
+		return end;
+		
+	}
+	
+	private static boolean areDigits(long lanes){
+		
+		if((lanes & LANES_NON_ASCII) != 0){
+			return false;
+		}
+		
+		// Setting the high bit first keeps the subtraction from borrowing
+		// across lanes : the bit is only cleared for chars below '0'
+		long atLeastZero = ((lanes | LANES_HIGH_BIT) - LANES_ZERO)
+				& LANES_HIGH_BIT;
+		long aboveNine = (lanes + LANES_ABOVE_NINE) & LANES_HIGH_BIT;
+		
+		return atLeastZero == LANES_HIGH_BIT && aboveNine == 0;
+		
+	}
+	
+	private static long pack(CharSequence value, int index){
+		return value.charAt(index) | (long)value.charAt(index + 1) << 16
+				| (long)value.charAt(index + 2) << 32
+				| (long)value.charAt(index + 3) << 48;
+	}
+	
+}
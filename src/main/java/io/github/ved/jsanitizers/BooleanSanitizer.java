@@ -17,6 +17,13 @@ public class BooleanSanitizer extends Sanitizer<Boolean> {
 	 */
 	public static final int FORMAT_NOT_BOOLEAN = 2;
 	
+	/**
+	 * Estimated cost of sanitizing a boolean, which only looks at a few chars.
+	 * Costs are relative to each other, and used to order checks in
+	 * {@link RecordSanitizer} and {@link ComposedSanitizer}.
+	 */
+	public static final int COST = 1;
+	
 	protected BooleanSanitizer(){}
 	
 	/**
@@ -40,16 +47,72 @@ public class BooleanSanitizer extends Sanitizer<Boolean> {
 	 *             </ul>
 	 */
 	public static boolean sanitizeValue(Object value) throws BadFormatException{
+		return BooleanSanitizer.sanitizeValue(value, SanitizeContext.THROWING);
+	}
+	
+	/**
+	 * Sanitizes any object's String value to convert to a boolean, recording
+	 * the error in the given {@code context} instead of throwing it. The value
+	 * is compared in place, without allocating anything.
+	 * 
+	 * @param value
+	 *            Any object to test for it's true or false return value,
+	 *            ignoring cases.
+	 * @param context
+	 *            The context recording the error, if any. Possible codes are
+	 *            the ones of {@link #sanitizeValue(Object)}.
+	 * @return A {@code boolean} representative of the parameter's given value,
+	 *         or {@code false} if an error was recorded.
+	 * @see SanitizeContext
+	 */
+	public static boolean sanitizeValue(Object value, SanitizeContext context){
+		
+		if(value instanceof Boolean){
+			return (Boolean)value;
+		}
+		
+		CharSequence text = context.toCharSequence(value);
+		
+		WhitespacePolicy policy = context.getWhitespacePolicy();
 		
-		String stringValue = TextNotEmptySanitizer.sanitizeValue(value);
+		int start = policy.trimStart(text);
+		int end = policy.trimEnd(text, start);
+		
+		if(start == end){
+			context.fail(FORMAT_EMPTY, "Value cannot be empty!");
+			return false;
+		}
+		
+		if(BooleanSanitizer.equalsIgnoreCase(text, start, end, "true")){
+			return true;
+		}
+		
+		if(!BooleanSanitizer.equalsIgnoreCase(text, start, end, "false")){
+			context.fail(FORMAT_NOT_BOOLEAN,
+					"Value cannot be something else than \"true\" or \"false\"!");
+		}
+		
+		return false;
+		
+	}
+	
+	private static boolean equalsIgnoreCase(CharSequence text, int start,
+			int end, String expected){
+		
+		if(end - start != expected.length()){
+			return false;
+		}
 		
-		if(!stringValue.matches("(?i)^(true|false)$")){
-			throw new BadFormatException(
-					"Value cannot be something else than \"true\" or \"false\"!",
-					FORMAT_NOT_BOOLEAN);
+		for(int i = start; i < end; i++){
+			
+			// Only ASCII letters can match, so folding them is enough
+			if((text.charAt(i) | 0x20) != expected.charAt(i - start)){
+				return false;
+			}
+			
 		}
 		
-		return Boolean.valueOf(stringValue);
+		return true;
 		
 	}
 	
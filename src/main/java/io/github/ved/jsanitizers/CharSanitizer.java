@@ -12,6 +12,12 @@ public class CharSanitizer extends Sanitizer<Character> {
 	 */
 	public static final int FORMAT_LENGTH = 1;
 	
+	/**
+	 * Estimated cost of sanitizing a char, which only looks at a few chars,
+	 * as for {@link BooleanSanitizer#COST}.
+	 */
+	public static final int COST = 1;
+	
 	protected CharSanitizer(){}
 	
 	/**
@@ -20,10 +26,9 @@ public class CharSanitizer extends Sanitizer<Character> {
 	 * object.
 	 * 
 	 * @param value
-	 *            Any object to extract as a single character value. It uses the
-	 *            return of
-	 *            {@link TextLengthSanitizer#sanitizeValue(Object, int)} to
-	 *            parse the value with a length of only one.
+	 *            Any object to extract as a single character value. It is
+	 *            trimmed the same way {@link TextSanitizer#sanitizeValue(Object)}
+	 *            does, without copying the value.
 	 * @return A {@code char} representative of the parameter's given value.
 	 * @throws BadFormatException
 	 *             Thrown if the value's format is not matching this sanitizer's
@@ -32,21 +37,107 @@ public class CharSanitizer extends Sanitizer<Character> {
 	 *             <li>{@link #FORMAT_LENGTH} : if the value's String
 	 *             representation is not of length 1.</li>
 	 *             </ul>
+	 * @see #sanitizeCodePoint(Object)
 	 */
 	public static char sanitizeValue(Object value) throws BadFormatException{
+		return CharSanitizer.sanitizeValue(value, SanitizeContext.THROWING);
+	}
+	
+	/**
+	 * Sanitizes any object's String value to convert to a char, recording the
+	 * error in the given {@code context} instead of throwing it.
+	 * 
+	 * @param value
+	 *            Any object to extract as a single character value.
+	 * @param context
+	 *            The context recording the error, if any. Possible codes are
+	 *            the ones of {@link #sanitizeValue(Object)}.
+	 * @return A {@code char} representative of the parameter's given value, or
+	 *         {@code '\0'} if an error was recorded.
+	 * @see SanitizeContext
+	 */
+	public static char sanitizeValue(Object value, SanitizeContext context){
+		
+		WhitespacePolicy policy = context.getWhitespacePolicy();
+		
+		if(value instanceof Character && !policy.isWhitespace((Character)value)){
+			return (Character)value;
+		}
+		
+		CharSequence text = context.toCharSequence(value);
+		
+		int start = policy.trimStart(text);
+		int end = policy.trimEnd(text, start);
+		
+		if(end - start != 1){
+			context.fail(FORMAT_LENGTH, "Only one character is expected!");
+			return '\0';
+		}
+		
+		return text.charAt(start);
+		
+	}
+	
+	/**
+	 * Sanitizes any object's String value to convert to a Unicode code point,
+	 * which unlike {@link #sanitizeValue(Object)} accepts the characters
+	 * outside of the Basic Multilingual Plane (such as most emojis) that are
+	 * made of two chars.
+	 * 
+	 * @param value
+	 *            Any object to extract as a single code point value. It is
+	 *            trimmed the same way {@link TextSanitizer#sanitizeValue(Object)}
+	 *            does, without copying the value.
+	 * @return The code point representative of the parameter's given value.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_LENGTH} : if the value's String
+	 *             representation is not a single code point.</li>
+	 *             </ul>
+	 * @see Character#toChars(int)
+	 */
+	public static int sanitizeCodePoint(Object value) throws BadFormatException{
+		return CharSanitizer.sanitizeCodePoint(value, SanitizeContext.THROWING);
+	}
+	
+	/**
+	 * Sanitizes any object's String value to convert to a Unicode code point,
+	 * recording the error in the given {@code context} instead of throwing it.
+	 * 
+	 * @param value
+	 *            Any object to extract as a single code point value.
+	 * @param context
+	 *            The context recording the error, if any. Possible codes are
+	 *            the ones of {@link #sanitizeCodePoint(Object)}.
+	 * @return The code point representative of the parameter's given value,
+	 *         or {@code 0} if an error was recorded.
+	 * @see SanitizeContext
+	 */
+	public static int sanitizeCodePoint(Object value, SanitizeContext context){
+		
+		CharSequence text = context.toCharSequence(value);
 		
-		try{
-			
-			String stringValue = TextLengthSanitizer.sanitizeValue(value, 1);
-			
-			return stringValue.charAt(0);
-			
+		WhitespacePolicy policy = context.getWhitespacePolicy();
+		
+		int start = policy.trimStart(text);
+		int end = policy.trimEnd(text, start);
+		
+		if(end - start == 1){
+			return text.charAt(start);
 		}
-		catch(BadFormatException e){
-			throw new BadFormatException("Only one character is expected!",
-					FORMAT_LENGTH);
+		
+		if(end - start == 2 && Character.isHighSurrogate(text.charAt(start))
+				&& Character.isLowSurrogate(text.charAt(start + 1))){
+			return Character.toCodePoint(text.charAt(start),
+					text.charAt(start + 1));
 		}
 		
+		context.fail(FORMAT_LENGTH, "Only one character is expected!");
+		
+		return 0;
+		
 	}
 	
 }
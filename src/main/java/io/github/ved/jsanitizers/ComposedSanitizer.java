@@ -0,0 +1,428 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Sanitizer made of several independent checks of the same value, such as
+ * its length, a regex and its presence in a set of choices, which all have
+ * to pass. Since the first failing check rejects the value, the order of the
+ * checks decides how much a rejection costs : this sanitizer orders them
+ * itself, from the estimated cost of each check and the rate at which it
+ * actually rejects values.
+ * <p>
+ * Checks run by increasing cost per rejection, which is their cost divided
+ * by their reject rate. The reject rate of a check is estimated from the
+ * values it was run on, as {@code (rejections + 1) / (runs + 2)} so that a
+ * check that never ran counts as rejecting half of the values. The order is
+ * planned again once {@code replanInterval} values were sanitized since the
+ * previous planning, by all threads together (or when {@link #replan()} is
+ * called), and ties keep the order the checks were declared in, so the same
+ * statistics always give the same plan. The current plan is given by
+ * {@link #getPlan()}.
+ * <p>
+ * Each thread only looks at the amount of sanitized values every few values
+ * it sanitizes, and a single thread plans at a time : the others keep using
+ * the current plan instead of waiting for it. A planning may then happen a
+ * few values late, but plannings never happen more often than every
+ * {@code replanInterval} values, however many threads sanitize.
+ * <p>
+ * Each planning halves the weight of the runs and rejections counted before
+ * the previous one, so that the plan follows the values currently sanitized
+ * rather than the whole history of the sanitizer : after a change in the
+ * values, the old statistics fade out within a few plannings.
+ * <p>
+ * The costs are compared with each other only, the {@code COST} constants
+ * of the sanitizers (such as {@link TextRegexSanitizer#COST}) giving
+ * estimates for the existing ones. This sanitizer is safe to use from
+ * multiple threads.
+ * 
+ * <pre>
+ * ComposedSanitizer&lt;String&gt; sanitizer = ComposedSanitizer
+ * 		.builder("choice", value -&gt; EnumSanitizer.sanitizeValue(value, codes),
+ * 				EnumSanitizer.COST)
+ * 		.check("length", value -&gt; TextLengthSanitizer.sanitizeValue(value, 6),
+ * 				TextLengthSanitizer.COST)
+ * 		.check("format", value -&gt; TextRegexSanitizer.sanitizeValue(value,
+ * 				pattern), TextRegexSanitizer.COST).build();
+ * </pre>
+ * 
+ * @param <E>
+ *            The type of the sanitized value.
+ */
+public final class ComposedSanitizer<E> {
+	
+	/**
+	 * Amount of sanitized values between two plannings when none is given.
+	 */
+	public static final int DEFAULT_REPLAN_INTERVAL = 1024;
+	
+	// Amount of values a thread sanitizes between two looks at the total
+	private static final int SAMPLE_INTERVAL = 16;
+	
+	private final Check[] checks;
+	private final int replanInterval;
+	private final int sampleInterval;
+	
+	private final LongAdder sanitized = new LongAdder();
+	private final ThreadLocal<int[]> calls = ThreadLocal
+			.withInitial(() -> new int[1]);
+	
+	private final ReentrantLock planning = new ReentrantLock();
+	private volatile long plannedAt;
+	private volatile long planCount;
+	private volatile int[] plan;
+	
+	private ComposedSanitizer(Check[] checks, int replanInterval){
+		this.checks = checks;
+		this.replanInterval = replanInterval;
+		this.sampleInterval = Math.min(replanInterval, SAMPLE_INTERVAL);
+		this.plan = this.computePlan();
+	}
+	
+	/**
+	 * Starts building a composed sanitizer from its main check, which gives
+	 * the sanitized value.
+	 * 
+	 * @param name
+	 *            The name of the check, used in the plan.
+	 * @param check
+	 *            The function sanitizing the value, throwing a
+	 *            {@link BadFormatException} to reject it.
+	 * @param cost
+	 *            The estimated cost of the function.
+	 * @param <E>
+	 *            The type of the sanitized value.
+	 * @return The builder of the sanitizer.
+	 */
+	public static <E> Builder<E> builder(String name,
+			Function<Object, ? extends E> check, int cost){
+		return new Builder<E>().check(name, check, cost);
+	}
+	
+	/**
+	 * Sanitizes any object with every check, in the order of the current
+	 * plan.
+	 * 
+	 * @param value
+	 *            Any object to sanitize.
+	 * @return The value returned by the main check.
+	 * @throws BadFormatException
+	 *             Thrown by the first check rejecting the value, as it was
+	 *             thrown.
+	 */
+	@SuppressWarnings("unchecked")
+	public E sanitize(Object value) throws BadFormatException{
+		
+		if(this.replanInterval != 0){
+			
+			this.sanitized.increment();
+			
+			int[] calls = this.calls.get();
+			
+			if(++calls[0] == this.sampleInterval){
+				
+				calls[0] = 0;
+				
+				if(this.isPlanDue() && this.planning.tryLock()){
+					try{
+						// Checked again, another thread may just have planned
+						if(this.isPlanDue()){
+							this.plan();
+						}
+					}
+					finally{
+						this.planning.unlock();
+					}
+				}
+				
+			}
+			
+		}
+		
+		Object result = null;
+		
+		for(int index : this.plan){
+			
+			Check check = this.checks[index];
+			
+			check.runs.increment();
+			
+			try{
+				
+				Object checked = check.function.apply(value);
+				
+				if(index == 0){
+					result = checked;
+				}
+				
+			}
+			catch(BadFormatException e){
+				check.rejections.increment();
+				throw e;
+			}
+			
+		}
+		
+		return (E)result;
+		
+	}
+	
+	/**
+	 * Plans the order of the checks from the statistics gathered so far, then
+	 * halves their weight for the next plannings.
+	 */
+	public void replan(){
+		
+		this.planning.lock();
+		
+		try{
+			this.plan();
+		}
+		finally{
+			this.planning.unlock();
+		}
+		
+	}
+	
+	/**
+	 * @return The amount of times the checks were planned again, either
+	 *         automatically or by {@link #replan()}, since this sanitizer was
+	 *         built.
+	 */
+	public long getPlanCount(){
+		return this.planCount;
+	}
+	
+	/**
+	 * @return The names of the checks, in the order they currently run.
+	 */
+	public List<String> getPlan(){
+		
+		List<String> plan = new ArrayList<>(this.checks.length);
+		
+		for(int index : this.plan){
+			plan.add(this.checks[index].name);
+		}
+		
+		return plan;
+		
+	}
+	
+	/**
+	 * @param name
+	 *            The name of a check.
+	 * @return The amount of values the check was run on, since this
+	 *         sanitizer was built.
+	 * @throws IllegalArgumentException
+	 *             Thrown if no check has that name.
+	 */
+	public long getRuns(String name) throws IllegalArgumentException{
+		return this.getCheck(name).runs.sum();
+	}
+	
+	/**
+	 * @param name
+	 *            The name of a check.
+	 * @return The amount of values the check rejected, since this sanitizer
+	 *         was built.
+	 * @throws IllegalArgumentException
+	 *             Thrown if no check has that name.
+	 */
+	public long getRejections(String name) throws IllegalArgumentException{
+		return this.getCheck(name).rejections.sum();
+	}
+	
+	private Check getCheck(String name) throws IllegalArgumentException{
+		
+		for(Check check : this.checks){
+			if(check.name.equals(name)){
+				return check;
+			}
+		}
+		
+		throw new IllegalArgumentException("The check " + name
+				+ " does not exist!");
+		
+	}
+	
+	private boolean isPlanDue(){
+		return this.sanitized.sum() - this.plannedAt >= this.replanInterval;
+	}
+	
+	// Only called while holding the planning lock
+	private void plan(){
+		
+		this.plannedAt = this.sanitized.sum();
+		
+		for(Check check : this.checks){
+			check.decay();
+		}
+		
+		this.plan = this.computePlan();
+		this.planCount++;
+		
+	}
+	
+	private int[] computePlan(){
+		
+		int count = this.checks.length;
+		
+		double[] costPerRejection = new double[count];
+		Integer[] order = new Integer[count];
+		
+		for(int i = 0; i < count; i++){
+			
+			Check check = this.checks[i];
+			
+			double rejectRate = (check.weightedRejections + 1.0)
+					/ (check.weightedRuns + 2.0);
+			
+			costPerRejection[i] = check.cost / rejectRate;
+			order[i] = i;
+			
+		}
+		
+		// Stable, so ties keep the declaration order
+		Arrays.sort(order, (first, second) -> Double.compare(
+				costPerRejection[first], costPerRejection[second]));
+		
+		int[] plan = new int[count];
+		
+		for(int i = 0; i < count; i++){
+			plan[i] = order[i];
+		}
+		
+		return plan;
+		
+	}
+	
+	/**
+	 * Builder of {@link ComposedSanitizer}s.
+	 * 
+	 * @param <E>
+	 *            The type of the sanitized value.
+	 */
+	public static final class Builder<E> {
+		
+		private final List<Check> checks = new ArrayList<>();
+		private int replanInterval = DEFAULT_REPLAN_INTERVAL;
+		
+		private Builder(){}
+		
+		/**
+		 * Adds a check that the value has to pass.
+		 * 
+		 * @param name
+		 *            The name of the check, used in the plan.
+		 * @param check
+		 *            The function checking the value, throwing a
+		 *            {@link BadFormatException} to reject it.
+		 * @param cost
+		 *            The estimated cost of the function.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             Thrown if a check already has that name, or if the cost
+		 *             is not positive.
+		 */
+		public Builder<E> check(String name, Function<Object, ?> check,
+				int cost) throws IllegalArgumentException{
+			
+			if(cost <= 0){
+				throw new IllegalArgumentException(
+						"The cost of a check needs to be positive!");
+			}
+			
+			for(Check existing : this.checks){
+				if(existing.name.equals(name)){
+					throw new IllegalArgumentException("The check " + name
+							+ " is already declared!");
+				}
+			}
+			
+			this.checks.add(new Check(name, check, cost));
+			
+			return this;
+			
+		}
+		
+		/**
+		 * Sets how often the checks are ordered again.
+		 * 
+		 * @param replanInterval
+		 *            The amount of sanitized values between two plannings, or
+		 *            {@code 0} to only plan when {@link #replan()} is
+		 *            called.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             Thrown if the interval is negative.
+		 */
+		public Builder<E> replanInterval(int replanInterval)
+				throws IllegalArgumentException{
+			
+			if(replanInterval < 0){
+				throw new IllegalArgumentException(
+						"The replan interval cannot be negative!");
+			}
+			
+			this.replanInterval = replanInterval;
+			
+			return this;
+			
+		}
+		
+		/**
+		 * @return The composed sanitizer, initially planned from the costs
+		 *         only.
+		 */
+		public ComposedSanitizer<E> build(){
+			return new ComposedSanitizer<>(this.checks.toArray(new Check[0]),
+					this.replanInterval);
+		}
+		
+	}
+	
+	private static final class Check {
+		
+		final String name;
+		final Function<Object, ?> function;
+		final int cost;
+		
+		final LongAdder runs = new LongAdder();
+		final LongAdder rejections = new LongAdder();
+		
+		// Statistics used for planning, only changed while replanning
+		double weightedRuns;
+		double weightedRejections;
+		private long plannedRuns;
+		private long plannedRejections;
+		
+		Check(String name, Function<Object, ?> function, int cost){
+			this.name = name;
+			this.function = function;
+			this.cost = cost;
+		}
+		
+		void decay(){
+			
+			long runs = this.runs.sum();
+			long rejections = this.rejections.sum();
+			
+			this.weightedRuns = this.weightedRuns / 2 + (runs - this.plannedRuns);
+			this.weightedRejections = this.weightedRejections / 2
+					+ (rejections - this.plannedRejections);
+			
+			this.plannedRuns = runs;
+			this.plannedRejections = rejections;
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,407 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.choices.ChoiceHashSet;
+import io.github.ved.jsanitizers.choices.ChoiceMatching;
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.Character.UnicodeScript;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Utility that sanitizes identifiers (such as usernames) against spoofing
+ * using lookalike characters, following the Unicode security mechanisms
+ * (UTS #39).
+ * <p>
+ * The <i>skeleton</i> of a text maps each of its characters to the prototype
+ * it can be confused with (for example the Cyrillic {@code '\u0430'} to the
+ * Latin {@code 'a'}), so two texts looking alike have the same skeleton. The
+ * confusables table is bundled as the {@code confusables.txt} resource and
+ * loaded once into sorted arrays, so computing a skeleton never builds any
+ * map.
+ * <p>
+ * A text is of mixed script when it uses letters of scripts that are not
+ * written together : Latin can only be mixed with the Han, Hiragana, Katakana,
+ * Hangul and Bopomofo scripts as used by the Japanese, Korean and Chinese
+ * languages (the <i>Highly Restrictive</i> level of UTS #39).
+ */
+public class ConfusableSanitizer extends TextSanitizer {
+	
+	/**
+	 * Value uses letters of scripts that are not written together
+	 */
+	public static final int FORMAT_MIXED_SCRIPT = 1;
+	
+	/**
+	 * Value looks like a protected value, or entirely looks like Latin text
+	 * while written in another script
+	 */
+	public static final int FORMAT_CONFUSABLE = 2;
+	
+	private static final String TABLE_RESOURCE = "confusables.txt";
+	
+	private static final int JAPANESE = 1;
+	private static final int KOREAN = 2;
+	private static final int CHINESE = 4;
+	private static final int CJK = JAPANESE | KOREAN | CHINESE;
+	
+	// Sorted confusable code points; the prototype of SOURCES[i] is
+	// PROTOTYPES.substring(PROTOTYPE_OFFSETS[i], PROTOTYPE_OFFSETS[i + 1])
+	private static final int[] SOURCES;
+	private static final int[] PROTOTYPE_OFFSETS;
+	private static final String PROTOTYPES;
+	
+	static{
+		
+		List<int[]> entries = new ArrayList<>();
+		
+		try(InputStream stream = ConfusableSanitizer.class
+				.getResourceAsStream(TABLE_RESOURCE)){
+			
+			if(stream == null){
+				throw new IllegalStateException("The resource " + TABLE_RESOURCE
+						+ " is missing!");
+			}
+			
+			BufferedReader reader = new BufferedReader(new InputStreamReader(
+					stream, StandardCharsets.UTF_8));
+			
+			String line;
+			
+			while((line = reader.readLine()) != null){
+				
+				int comment = line.indexOf('#');
+				String[] fields = (comment == -1 ? line : line.substring(0,
+						comment)).split(";");
+				
+				if(fields.length < 2){
+					continue;
+				}
+				
+				String[] target = fields[1].trim().split(" ");
+				int[] entry = new int[target.length + 1];
+				
+				entry[0] = Integer.parseInt(fields[0].trim(), 16);
+				
+				for(int i = 0; i < target.length; i++){
+					entry[i + 1] = Integer.parseInt(target[i], 16);
+				}
+				
+				entries.add(entry);
+				
+			}
+			
+		}
+		catch(IOException e){
+			throw new UncheckedIOException(e);
+		}
+		
+		entries.sort((first, second) -> Integer.compare(first[0], second[0]));
+		
+		SOURCES = new int[entries.size()];
+		PROTOTYPE_OFFSETS = new int[entries.size() + 1];
+		
+		StringBuilder prototypes = new StringBuilder();
+		
+		for(int i = 0; i < entries.size(); i++){
+			
+			int[] entry = entries.get(i);
+			
+			SOURCES[i] = entry[0];
+			
+			for(int j = 1; j < entry.length; j++){
+				prototypes.appendCodePoint(entry[j]);
+			}
+			
+			PROTOTYPE_OFFSETS[i + 1] = prototypes.length();
+			
+		}
+		
+		PROTOTYPES = prototypes.toString();
+		
+	}
+	
+	private final ChoiceHashSet protectedSkeletons;
+	
+	protected ConfusableSanitizer(ChoiceHashSet protectedSkeletons){
+		this.protectedSkeletons = protectedSkeletons;
+	}
+	
+	/**
+	 * Builds a sanitizer rejecting the values looking like one of the given
+	 * protected values, such as existing usernames or reserved names.
+	 * 
+	 * @param protectedValues
+	 *            The values that no other value can look like.
+	 * @return The sanitizer protecting the given values.
+	 * @see #of(Collection, ChoiceMatching)
+	 */
+	public static ConfusableSanitizer of(Collection<String> protectedValues){
+		return ConfusableSanitizer.of(protectedValues, ChoiceMatching.EXACT);
+	}
+	
+	/**
+	 * Builds a sanitizer rejecting the values looking like one of the given
+	 * protected values, their skeletons being compared using the given
+	 * matching mode. Use {@link ChoiceMatching#IGNORE_CASE} when the values
+	 * themselves are compared ignoring case.
+	 * 
+	 * @param protectedValues
+	 *            The values that no other value can look like.
+	 * @param matching
+	 *            The way the skeletons are compared.
+	 * @return The sanitizer protecting the given values.
+	 */
+	public static ConfusableSanitizer of(Collection<String> protectedValues,
+			ChoiceMatching matching){
+		
+		List<String> skeletons = new ArrayList<>(protectedValues.size());
+		
+		for(String protectedValue : protectedValues){
+			skeletons.add(ConfusableSanitizer.skeleton(protectedValue));
+		}
+		
+		return new ConfusableSanitizer(ChoiceHashSet.of(skeletons, matching));
+		
+	}
+	
+	/**
+	 * Sanitizes any object to a String value that is not of mixed script and
+	 * does not look like any of the protected values of this sanitizer.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object)}.
+	 * @return The String object as if the
+	 *         {@link TextSanitizer#sanitizeValue(Object)} method was used.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_MIXED_SCRIPT} : if the String uses letters
+	 *             of scripts that are not written together.</li>
+	 *             <li>{@link #FORMAT_CONFUSABLE} : if the String's skeleton is
+	 *             the skeleton of a protected value.</li>
+	 *             </ul>
+	 */
+	public String sanitize(Object value) throws BadFormatException{
+		
+		String stringValue = TextSanitizer.sanitizeValue(value);
+		
+		Analysis analysis = new Analysis(stringValue);
+		
+		if(analysis.isMixedScript()){
+			throw new BadFormatException("Text " + stringValue
+					+ " mixes characters of different scripts!",
+					FORMAT_MIXED_SCRIPT);
+		}
+		
+		if(this.protectedSkeletons.contains(analysis.getSkeleton())){
+			throw new BadFormatException("Text " + stringValue
+					+ " looks like a protected value!", FORMAT_CONFUSABLE);
+		}
+		
+		return stringValue;
+		
+	}
+	
+	/**
+	 * Sanitizes any object to a String value that is not of mixed script and
+	 * is not entirely made of lookalikes of Latin text written in another
+	 * script (such as the Cyrillic {@code "\u0440\u0430\u0443\u0440\u0430\u04cf"}).
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object)}.
+	 * @return The String object as if the
+	 *         {@link TextSanitizer#sanitizeValue(Object)} method was used.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_MIXED_SCRIPT} : if the String uses letters
+	 *             of scripts that are not written together.</li>
+	 *             <li>{@link #FORMAT_CONFUSABLE} : if the String is written in
+	 *             a script other than Latin but its skeleton is only made of
+	 *             ASCII characters.</li>
+	 *             </ul>
+	 */
+	public static String sanitizeValue(Object value) throws BadFormatException{
+		
+		String stringValue = TextSanitizer.sanitizeValue(value);
+		
+		Analysis analysis = new Analysis(stringValue);
+		
+		if(analysis.isMixedScript()){
+			throw new BadFormatException("Text " + stringValue
+					+ " mixes characters of different scripts!",
+					FORMAT_MIXED_SCRIPT);
+		}
+		
+		String skeleton = analysis.getSkeleton();
+		
+		if(analysis.getScript() != null
+				&& analysis.getScript() != UnicodeScript.LATIN
+				&& Ascii.isAscii(skeleton, 0, skeleton.length())){
+			throw new BadFormatException("Text " + stringValue
+					+ " looks like Latin text!", FORMAT_CONFUSABLE);
+		}
+		
+		return stringValue;
+		
+	}
+	
+	/**
+	 * Computes the skeleton of a text : two texts that can be confused with
+	 * each other have the same skeleton.
+	 * 
+	 * @param text
+	 *            The text to compute the skeleton of.
+	 * @return The skeleton of the text.
+	 */
+	public static String skeleton(CharSequence text){
+		return new Analysis(text).getSkeleton();
+	}
+	
+	/**
+	 * @param text
+	 *            The text to test.
+	 * @return {@code true} if the text uses letters of scripts that are not
+	 *         written together, {@code false} otherwise.
+	 */
+	public static boolean isMixedScript(CharSequence text){
+		return new Analysis(text).isMixedScript();
+	}
+	
+	private static int indexOfSource(int codePoint){
+		return Arrays.binarySearch(SOURCES, codePoint);
+	}
+	
+	/**
+	 * Skeleton and script resolution of a text, both computed in the same
+	 * pass over its code points.
+	 */
+	private static final class Analysis {
+		
+		private final String skeleton;
+		private UnicodeScript script;
+		private boolean hasCjk;
+		private int cjkLanguages = CJK;
+		private boolean hasIncompatibleScripts;
+		
+		private Analysis(CharSequence text){
+			
+			String decomposed = decompose(text);
+			
+			StringBuilder builder = null;
+			
+			for(int i = 0; i < decomposed.length();){
+				
+				int codePoint = decomposed.codePointAt(i);
+				int next = i + Character.charCount(codePoint);
+				
+				this.resolveScript(codePoint);
+				
+				int source = indexOfSource(codePoint);
+				
+				if(source >= 0){
+					
+					if(builder == null){
+						builder = new StringBuilder(decomposed.length());
+						builder.append(decomposed, 0, i);
+					}
+					
+					builder.append(PROTOTYPES, PROTOTYPE_OFFSETS[source],
+							PROTOTYPE_OFFSETS[source + 1]);
+					
+				}
+				else if(builder != null){
+					builder.append(decomposed, i, next);
+				}
+				
+				i = next;
+				
+			}
+			
+			this.skeleton = builder == null ? decomposed : decompose(builder);
+			
+		}
+		
+		private String getSkeleton(){
+			return this.skeleton;
+		}
+		
+		/**
+		 * @return The script of the letters of the text other than the CJK
+		 *         scripts, or {@code null} if it has none.
+		 */
+		private UnicodeScript getScript(){
+			return this.script;
+		}
+		
+		private boolean isMixedScript(){
+			return this.hasIncompatibleScripts || this.cjkLanguages == 0
+					|| (this.hasCjk && this.script != null
+							&& this.script != UnicodeScript.LATIN);
+		}
+		
+		private void resolveScript(int codePoint){
+			
+			UnicodeScript codePointScript = UnicodeScript.of(codePoint);
+			
+			switch(codePointScript){
+			case COMMON:
+			case INHERITED:
+			case UNKNOWN:
+				return;
+			case HAN:
+				this.hasCjk = true;
+				return;
+			case HIRAGANA:
+			case KATAKANA:
+				this.hasCjk = true;
+				this.cjkLanguages &= JAPANESE;
+				return;
+			case HANGUL:
+				this.hasCjk = true;
+				this.cjkLanguages &= KOREAN;
+				return;
+			case BOPOMOFO:
+				this.hasCjk = true;
+				this.cjkLanguages &= CHINESE;
+				return;
+			default:
+				
+				if(this.script == null){
+					this.script = codePointScript;
+				}
+				else if(this.script != codePointScript){
+					this.hasIncompatibleScripts = true;
+				}
+				
+			}
+			
+		}
+		
+		private static String decompose(CharSequence text){
+			
+			if(Normalizer.isNormalized(text, Normalizer.Form.NFD)){
+				return text.toString();
+			}
+			
+			return Normalizer.normalize(text, Normalizer.Form.NFD);
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,335 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * Streaming equivalent of {@link EnumSanitizer#extractEnumFromString(String,
+ * char)}, reading an enum definition one char at a time and emitting each
+ * value as soon as its end is reached. Only the value being read is held in
+ * memory.
+ * <p>
+ * The definition is verified as it is read, with the same rules as the regex
+ * of {@link EnumSanitizer#verifyStringFormat(String, char)} : the text between
+ * separators (the <i>segments</i>) must each hold a non-whitespace char,
+ * except that two segments joined by a protected separator ({@code \|}) only
+ * count as one. Since that can only be known at the end, a
+ * {@link BadFormatException} may be thrown after some values were emitted.
+ */
+final class EnumDefinitionParser {
+	
+	private static final int BUFFER_SIZE = 8192;
+	
+	private final char separator;
+	private final Consumer<String> consumer;
+	
+	// Value being read, with its protected separators already unprotected
+	private final StringBuilder value = new StringBuilder();
+	
+	// Whole definition while it is only made of separators and backslashes,
+	// in which case it is a single value
+	private StringBuilder onlySeparators = new StringBuilder();
+	private boolean hasTrailingWhitespace;
+	
+	private boolean hasStarted;
+	private boolean isSkippingWhitespace;
+	private char previous;
+	
+	// Format verification state : whether the segments read so far (up to
+	// the last or the one before the last separator) can be grouped into
+	// valid words, and what is known of the current segment
+	private boolean isValidBeforePrevious;
+	private boolean isValidBeforeCurrent = true;
+	private boolean previousEndsWithBackslash;
+	private boolean hasWordChar;
+	private boolean endsWithBackslash;
+	private boolean hasLineBreak;
+	private boolean isOnlyBareSeparators = true;
+	private boolean hasPendingLineBreak;
+	private boolean hasPendingWordChar;
+	private boolean hasPending;
+	
+	private EnumDefinitionParser(char separator, Consumer<String> consumer){
+		this.separator = separator;
+		this.consumer = consumer;
+	}
+	
+	/**
+	 * Reads an enum definition, giving its values to the consumer in order.
+	 * Duplicated values are given every time they appear.
+	 * 
+	 * @param reader
+	 *            The reader of the definition. It is not closed.
+	 * @param separator
+	 *            The separator of the values.
+	 * @param consumer
+	 *            The consumer of the values.
+	 * @throws IOException
+	 *             Thrown if the reader fails.
+	 * @throws BadFormatException
+	 *             Thrown if the definition's format is not matching the
+	 *             separation format. The error code will be
+	 *             {@link EnumSanitizer#FORMAT_NOT_ACCEPTED}.
+	 */
+	static void parse(Reader reader, char separator, Consumer<String> consumer)
+			throws IOException, BadFormatException{
+		
+		// The regexes treat these separators specially, which is left to them
+		if(separator == '\\' || separator <= ' '){
+			
+			StringBuilder definition = new StringBuilder();
+			char[] buffer = new char[BUFFER_SIZE];
+			
+			for(int read; (read = reader.read(buffer)) != -1;){
+				definition.append(buffer, 0, read);
+			}
+			
+			EnumSanitizer.extractEnumFromString(definition.toString(),
+					separator).forEach(consumer);
+			
+			return;
+			
+		}
+		
+		EnumDefinitionParser parser = new EnumDefinitionParser(separator,
+				consumer);
+		
+		char[] buffer = new char[BUFFER_SIZE];
+		
+		for(int read; (read = reader.read(buffer)) != -1;){
+			for(int i = 0; i < read; i++){
+				parser.accept(buffer[i]);
+			}
+		}
+		
+		parser.finish();
+		
+	}
+	
+	private void accept(char character){
+		
+		// Leading whitespace is trimmed
+		if(!this.hasStarted){
+			
+			if(character <= ' '){
+				return;
+			}
+			
+			this.hasStarted = true;
+			
+		}
+		
+		this.verify(character);
+		
+		if(this.onlySeparators != null){
+			
+			if(character <= ' '){
+				this.hasTrailingWhitespace = true;
+				this.onlySeparators.append(character);
+				return;
+			}
+			
+			if(!this.hasTrailingWhitespace
+					&& (character == this.separator || character == '\\')){
+				this.onlySeparators.append(character);
+				return;
+			}
+			
+			this.replayOnlySeparators();
+			
+		}
+		
+		this.split(character);
+		
+	}
+	
+	private void replayOnlySeparators(){
+		
+		StringBuilder replayed = this.onlySeparators;
+		
+		this.onlySeparators = null;
+		
+		for(int i = 0; i < replayed.length(); i++){
+			this.split(replayed.charAt(i));
+		}
+		
+	}
+	
+	private void split(char character){
+		
+		if(this.isSkippingWhitespace && isRegexWhitespace(character)){
+			return;
+		}
+		
+		this.isSkippingWhitespace = false;
+		
+		if(character == this.separator){
+			
+			if(this.previous == '\\'){
+				this.value.setCharAt(this.value.length() - 1, character);
+			}
+			else{
+				
+				int end = this.value.length();
+				
+				while(end > 0 && isRegexWhitespace(this.value.charAt(end - 1))){
+					end--;
+				}
+				
+				this.value.setLength(end);
+				this.consumer.accept(this.value.toString());
+				this.value.setLength(0);
+				
+				this.isSkippingWhitespace = true;
+				
+			}
+			
+		}
+		else{
+			this.value.append(character);
+		}
+		
+		this.previous = character;
+		
+	}
+	
+	private void finish() throws BadFormatException{
+		
+		if(!this.isValid()){
+			throw new BadFormatException(
+					"Value does not match the required pattern!",
+					EnumSanitizer.FORMAT_NOT_ACCEPTED);
+		}
+		
+		StringBuilder last = this.value;
+		
+		if(this.onlySeparators != null){
+			
+			int end = this.onlySeparators.length();
+			
+			while(this.onlySeparators.charAt(end - 1) <= ' '){
+				end--;
+			}
+			
+			// A definition only made of separators is a single value
+			if(this.onlySeparators.charAt(end - 1) == this.separator){
+				this.consumer.accept(this.onlySeparators.substring(0, end));
+				return;
+			}
+			
+			this.replayOnlySeparators();
+			
+		}
+		
+		int end = last.length();
+		
+		while(end > 0 && last.charAt(end - 1) <= ' '){
+			end--;
+		}
+		
+		if(end > 0){
+			last.setLength(end);
+			this.consumer.accept(last.toString());
+		}
+		
+	}
+	
+	private void verify(char character){
+		
+		// Whitespace is held until a non-whitespace char shows that it is
+		// not the trailing whitespace removed by trimming
+		if(character <= ' '){
+			
+			this.hasPending = true;
+			this.hasPendingLineBreak |= character == '\n';
+			this.hasPendingWordChar |= this.isWordChar(character);
+			
+			return;
+			
+		}
+		
+		if(this.hasPending){
+			
+			this.hasLineBreak |= this.hasPendingLineBreak;
+			this.hasWordChar |= this.hasPendingWordChar;
+			this.endsWithBackslash = false;
+			this.isOnlyBareSeparators = false;
+			
+			this.hasPending = false;
+			this.hasPendingLineBreak = false;
+			this.hasPendingWordChar = false;
+			
+		}
+		
+		if(character == this.separator){
+			
+			boolean isValid = this.isSegmentValid();
+			
+			this.isValidBeforePrevious = this.isValidBeforeCurrent;
+			this.isValidBeforeCurrent = isValid;
+			this.previousEndsWithBackslash = this.endsWithBackslash;
+			
+			this.hasWordChar = false;
+			this.endsWithBackslash = false;
+			
+		}
+		else{
+			
+			this.hasWordChar |= this.isWordChar(character);
+			this.endsWithBackslash = character == '\\';
+			this.isOnlyBareSeparators = false;
+			
+		}
+		
+	}
+	
+	private boolean isSegmentValid(){
+		
+		// The segment is a word by itself, or is the end of a word made of the
+		// previous segment, a protected separator and this segment
+		return (this.isValidBeforeCurrent && this.hasWordChar)
+				|| (this.isValidBeforePrevious && this.previousEndsWithBackslash);
+		
+	}
+	
+	private boolean isValid(){
+		
+		if(!this.hasStarted){
+			return false;
+		}
+		
+		if(this.isOnlyBareSeparators){
+			return true;
+		}
+		
+		return !this.hasLineBreak && this.isSegmentValid();
+		
+	}
+	
+	private boolean isWordChar(char character){
+		
+		switch(character){
+		case '\r':
+		case '\n':
+		case '\t':
+		case '\f':
+		case ' ':
+		case '\u000B':
+		case '\u0085':
+		case '\u2028':
+		case '\u2029':
+			return false;
+		default:
+			return character != this.separator;
+		}
+		
+	}
+	
+	private static boolean isRegexWhitespace(char character){
+		return character == ' ' || (character >= '\t' && character <= '\r');
+	}
+	
+}
@@ -1,11 +1,19 @@
 package io.github.ved.jsanitizers;
 
+import io.github.ved.jsanitizers.choices.ChoiceHashSet;
+import io.github.ved.jsanitizers.choices.ChoiceMatching;
+import io.github.ved.jsanitizers.choices.ChoiceSet;
+import io.github.ved.jsanitizers.choices.ChoiceSuggester;
 import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import io.github.ved.jsanitizers.exceptions.NotAChoiceException;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Utility that sanitizes enum objects. By enum objects, it is intended that it
@@ -24,7 +32,200 @@ public class EnumSanitizer extends Sanitizer<Enum> {
 	 */
 	public static final int FORMAT_NOT_A_CHOICE = 2;
 	
-	protected EnumSanitizer(){}
+	/**
+	 * Estimated cost of sanitizing a choice, which hashes the value then
+	 * compares it with the matching choices.
+	 */
+	public static final int COST = 4;
+	
+	private final ChoiceSet choices;
+	private final ChoiceSuggester suggester;
+	
+	protected EnumSanitizer(){
+		this(null);
+	}
+	
+	protected EnumSanitizer(ChoiceSet choices){
+		this(choices, null);
+	}
+	
+	protected EnumSanitizer(ChoiceSet choices, ChoiceSuggester suggester){
+		this.choices = choices;
+		this.suggester = suggester;
+	}
+	
+	/**
+	 * Builds a reusable sanitizer that matches values against the given
+	 * prebuilt set of choices.
+	 * 
+	 * @param choices
+	 *            The set of choices accepted by this sanitizer.
+	 * @return The sanitizer accepting the given choices.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the set of choices is empty.
+	 * @see #sanitize(Object)
+	 */
+	public static EnumSanitizer of(ChoiceSet choices)
+			throws IllegalArgumentException{
+		
+		if(choices.size() == 0){
+			throw new IllegalArgumentException(
+					"You need to provide at least one value to the choices set!");
+		}
+		
+		return new EnumSanitizer(choices);
+		
+	}
+	
+	/**
+	 * Builds a reusable sanitizer that matches values against the choices of
+	 * the given suggester, and that suggests the closest choices when
+	 * rejecting a value.
+	 * 
+	 * @param suggester
+	 *            The suggester of the choices accepted by this sanitizer.
+	 * @return The sanitizer accepting the suggester's choices.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the set of choices is empty.
+	 * @see #sanitize(Object)
+	 * @see NotAChoiceException#getSuggestions()
+	 */
+	public static EnumSanitizer of(ChoiceSuggester suggester)
+			throws IllegalArgumentException{
+		
+		if(suggester.getChoices().size() == 0){
+			throw new IllegalArgumentException(
+					"You need to provide at least one value to the choices set!");
+		}
+		
+		return new EnumSanitizer(suggester.getChoices(), suggester);
+		
+	}
+	
+	/**
+	 * Builds a reusable sanitizer that matches values against the given
+	 * choices using the given matching mode. The choices are folded (and
+	 * normalized if needed) only once, here, instead of on every call.
+	 * 
+	 * @param values
+	 *            A list of values accepted by this sanitizer.
+	 * @param matching
+	 *            The way values are matched against the choices.
+	 * @return The sanitizer accepting the given choices.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the values list is empty.
+	 * @see #sanitize(Object)
+	 */
+	public static EnumSanitizer of(List<String> values, ChoiceMatching matching)
+			throws IllegalArgumentException{
+		return EnumSanitizer.of(ChoiceHashSet.of(values, matching));
+	}
+	
+	/**
+	 * @return The set of choices accepted by this sanitizer.
+	 */
+	public ChoiceSet getChoices(){
+		return this.choices;
+	}
+	
+	/**
+	 * Sanitizes any object's String value to verify if it matches one of the
+	 * choices of this sanitizer.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object)}.
+	 * @return The matching choice, as written in the choices of this
+	 *         sanitizer (which may differ from the value, for example when
+	 *         ignoring case).
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_NOT_A_CHOICE} : if the value's String
+	 *             representation does not match any choice of this
+	 *             sanitizer. If this sanitizer was built with a
+	 *             {@link ChoiceSuggester}, the exception is a
+	 *             {@link NotAChoiceException} holding the closest
+	 *             choices.</li>
+	 *             </ul>
+	 */
+	public String sanitize(Object value) throws BadFormatException{
+		return this.choices.get(this.sanitizeOrdinal(value));
+	}
+	
+	/**
+	 * Sanitizes any object's String value to verify if it matches one of the
+	 * choices of this sanitizer, returning the index of the matching choice
+	 * instead of the choice itself.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object)}.
+	 * @return The index of the matching choice in the choices of this
+	 *         sanitizer.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_NOT_A_CHOICE} : if the value's String
+	 *             representation does not match any choice of this
+	 *             sanitizer. If this sanitizer was built with a
+	 *             {@link ChoiceSuggester}, the exception is a
+	 *             {@link NotAChoiceException} holding the closest
+	 *             choices.</li>
+	 *             </ul>
+	 */
+	public int sanitizeOrdinal(Object value) throws BadFormatException{
+		return EnumSanitizer.sanitizeOrdinal(value, this.choices,
+				this.suggester);
+	}
+	
+	/**
+	 * Sanitizes any object's String value to verify if it matches one of the
+	 * choices of this sanitizer, recording the error in the given
+	 * {@code context} instead of throwing it.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}
+	 *            with the policy of the {@code context}.
+	 * @param context
+	 *            The context recording the error, if any. Possible codes are
+	 *            the ones of {@link #sanitize(Object)}, without suggestions.
+	 * @return The matching choice, as written in the choices of this
+	 *         sanitizer, or {@code null} if an error was recorded.
+	 * @see SanitizeContext
+	 */
+	public String sanitize(Object value, SanitizeContext context){
+		
+		int index = this.sanitizeOrdinal(value, context);
+		
+		return index == -1 ? null : this.choices.get(index);
+		
+	}
+	
+	/**
+	 * Sanitizes any object's String value to verify if it matches one of the
+	 * choices of this sanitizer, returning the index of the matching choice
+	 * and recording the error in the given {@code context} instead of
+	 * throwing it.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}
+	 *            with the policy of the {@code context}.
+	 * @param context
+	 *            The context recording the error, if any. Possible codes are
+	 *            the ones of {@link #sanitizeOrdinal(Object)}, without
+	 *            suggestions.
+	 * @return The index of the matching choice in the choices of this
+	 *         sanitizer, or {@code -1} if an error was recorded.
+	 * @see SanitizeContext
+	 */
+	public int sanitizeOrdinal(Object value, SanitizeContext context){
+		return EnumSanitizer.sanitizeOrdinal(value, this.choices, context);
+	}
 	
 	/**
 	 * Sanitizes any object's String value to verify if it is present in the
@@ -35,8 +236,9 @@ public class EnumSanitizer extends Sanitizer<Enum> {
 	 *            the bounds of the Integer primitive object.
 	 * @param values
 	 *            A list of values accepted to sanitize the given {@code value}.
-	 * @return The String object as if the
-	 *         {@link TextSanitizer#sanitizeValue(Object)} method was used.
+	 * @return The instance of the {@code values} array matching the String
+	 *         object as if the {@link TextSanitizer#sanitizeValue(Object)}
+	 *         method was used.
 	 * @throws BadFormatException
 	 *             Thrown if the value's format is not matching this sanitizer's
 	 *             purpose. Possible codes are :
@@ -66,8 +268,11 @@ public class EnumSanitizer extends Sanitizer<Enum> {
 	 *            the bounds of the Integer primitive object.
 	 * @param values
 	 *            A list of values accepted to sanitize the given {@code value}.
-	 * @return The String object as if the
-	 *         {@link TextSanitizer#sanitizeValue(Object)} method was used.
+	 * @return The instance of the {@code values} list matching the String
+	 *         object as if the {@link TextSanitizer#sanitizeValue(Object)}
+	 *         method was used. Returning the list's instance rather than a copy
+	 *         of the value lets every sanitized value share the same few
+	 *         Strings.
 	 * @throws BadFormatException
 	 *             Thrown if the value's format is not matching this sanitizer's
 	 *             purpose. Possible codes are :
@@ -84,6 +289,35 @@ public class EnumSanitizer extends Sanitizer<Enum> {
 	 */
 	public static String sanitizeValue(Object value, List<String> values)
 			throws BadFormatException, IllegalArgumentException{
+		return values.get(EnumSanitizer.sanitizeOrdinal(value, values));
+	}
+	
+	/**
+	 * Sanitizes any object's String value to verify if it is present in the
+	 * values provided in the {@code values} parameter, returning its position
+	 * in the list.
+	 *
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object)}.
+	 * @param values
+	 *            A list of values accepted to sanitize the given {@code value}.
+	 * @return The index of the first occurrence of the value in the
+	 *         {@code values} list.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_NOT_A_CHOICE} : if the value's String
+	 *             representation is not a choice given in the {@code values}'
+	 *             list.</li>
+	 *             </ul>
+	 * @throws IllegalArgumentException
+	 *             Thrown if the values list is empty.
+	 * @see #sanitizeValue(Object, List)
+	 */
+	public static int sanitizeOrdinal(Object value, List<String> values)
+			throws BadFormatException, IllegalArgumentException{
 		
 		if(values.size() == 0){
 			throw new IllegalArgumentException(
@@ -92,12 +326,159 @@ public class EnumSanitizer extends Sanitizer<Enum> {
 		
 		String stringValue = TextSanitizer.sanitizeValue(value);
 		
-		if(!values.contains(stringValue)){
+		int index = values.indexOf(stringValue);
+		
+		if(index == -1){
 			throw new BadFormatException("The value " + stringValue
 					+ " is not a choice in the list!", FORMAT_NOT_A_CHOICE);
 		}
 		
-		return stringValue;
+		return index;
+		
+	}
+	
+	/**
+	 * Sanitizes any object's String value to verify if it is present in the
+	 * prebuilt set of choices provided in the {@code choices} parameter. Use
+	 * this instead of {@link #sanitizeValue(Object, List)} when the same
+	 * choices are tested many times, as the set only has to be built once.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object)}.
+	 * @param choices
+	 *            The set of choices accepted to sanitize the given
+	 *            {@code value}.
+	 * @return The matching choice, as returned by
+	 *         {@link ChoiceSet#get(int)}.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_NOT_A_CHOICE} : if the value's String
+	 *             representation is not a choice of the {@code choices}
+	 *             set.</li>
+	 *             </ul>
+	 * @throws IllegalArgumentException
+	 *             Thrown if the set of choices is empty.
+	 * @see io.github.ved.jsanitizers.choices.ChoiceTrie
+	 */
+	public static String sanitizeValue(Object value, ChoiceSet choices)
+			throws BadFormatException, IllegalArgumentException{
+		return choices.get(EnumSanitizer.sanitizeOrdinal(value, choices));
+	}
+	
+	/**
+	 * Sanitizes any object's String value to verify if it is present in the
+	 * prebuilt set of choices provided in the {@code choices} parameter,
+	 * returning the index of the matching choice.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object)}.
+	 * @param choices
+	 *            The set of choices accepted to sanitize the given
+	 *            {@code value}.
+	 * @return The index of the matching choice in the {@code choices} set.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_NOT_A_CHOICE} : if the value's String
+	 *             representation is not a choice of the {@code choices}
+	 *             set.</li>
+	 *             </ul>
+	 * @throws IllegalArgumentException
+	 *             Thrown if the set of choices is empty.
+	 * @see #sanitizeValue(Object, ChoiceSet)
+	 */
+	public static int sanitizeOrdinal(Object value, ChoiceSet choices)
+			throws BadFormatException, IllegalArgumentException{
+		return EnumSanitizer.sanitizeOrdinal(value, choices,
+				(ChoiceSuggester)null);
+	}
+	
+	/**
+	 * Sanitizes any object's String value to verify if it is present in the
+	 * prebuilt set of choices provided in the {@code choices} parameter,
+	 * returning the index of the matching choice and recording the error in
+	 * the given {@code context} instead of throwing it. The value is trimmed
+	 * and looked up in place, without building any String.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}
+	 *            with the policy of the {@code context}.
+	 * @param choices
+	 *            The set of choices accepted to sanitize the given
+	 *            {@code value}.
+	 * @param context
+	 *            The context recording the error, if any. Possible codes are
+	 *            the ones of {@link #sanitizeOrdinal(Object, ChoiceSet)}.
+	 * @return The index of the matching choice in the {@code choices} set, or
+	 *         {@code -1} if an error was recorded.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the set of choices is empty.
+	 * @see SanitizeContext
+	 */
+	public static int sanitizeOrdinal(Object value, ChoiceSet choices,
+			SanitizeContext context) throws IllegalArgumentException{
+		
+		if(choices.size() == 0){
+			throw new IllegalArgumentException(
+					"You need to provide at least one value to the choices set!");
+		}
+		
+		CharSequence text = context.toCharSequence(value);
+		
+		WhitespacePolicy policy = context.getWhitespacePolicy();
+		
+		int start = policy.trimStart(text);
+		int end = policy.trimEnd(text, start);
+		
+		int index = choices.indexOf(context.slice(text, start, end));
+		
+		context.release();
+		
+		if(index == -1){
+			context.fail(FORMAT_NOT_A_CHOICE,
+					"The value is not a choice in the set!");
+		}
+		
+		return index;
+		
+	}
+	
+	private static int sanitizeOrdinal(Object value, ChoiceSet choices,
+			ChoiceSuggester suggester) throws BadFormatException,
+			IllegalArgumentException{
+		
+		if(choices.size() == 0){
+			throw new IllegalArgumentException(
+					"You need to provide at least one value to the choices set!");
+		}
+		
+		String stringValue = TextSanitizer.sanitizeValue(value);
+		
+		int index = choices.indexOf(stringValue);
+		
+		if(index == -1 && suggester != null){
+			
+			List<String> suggestions = suggester.suggest(stringValue);
+			
+			throw new NotAChoiceException("The value " + stringValue
+					+ " is not a choice in the set!"
+					+ (suggestions.isEmpty() ? "" : " Did you mean "
+							+ String.join(", ", suggestions) + "?"),
+					FORMAT_NOT_A_CHOICE, suggestions);
+			
+		}
+		else if(index == -1){
+			throw new BadFormatException("The value " + stringValue
+					+ " is not a choice in the set!", FORMAT_NOT_A_CHOICE);
+		}
+		
+		return index;
 		
 	}
 	
@@ -177,9 +558,9 @@ public class EnumSanitizer extends Sanitizer<Enum> {
 		// ~ Resetting stringValue here was not necessary, but this will make it future-proof ~
 		stringValue = EnumSanitizer.verifyStringFormat(stringValue, separator);
 		
-		String pSep = Utils.protectRegexChar(separator);
+		SeparatorGrammar grammar = SeparatorGrammar.of(separator);
 		
-		if(stringValue.matches("^\\s*(\\\\*" + pSep + ")+\\s*$")){
+		if(grammar.isOnlySeparators(stringValue)){
 			
 			ArrayList<String> values = new ArrayList<>();
 			values.add(stringValue);
@@ -189,28 +570,12 @@ public class EnumSanitizer extends Sanitizer<Enum> {
 		}
 		else{
 			
-			String expNonProtectedSeparator;
-			
-			if(separator == '\\'){
-				expNonProtectedSeparator = "(?<!\\\\)\\\\(?!\\\\)";
-			}
-			else{
-				expNonProtectedSeparator = "(?<!\\\\)" + pSep;
-			}
-			
-			String[] possibleValues = stringValue.trim().split(
-					"\\s*" + expNonProtectedSeparator + "\\s*");
+			String[] possibleValues = grammar.split(stringValue.trim());
 			
 			ArrayList<String> values = new ArrayList<>();
 			
 			for(String possibleValue : possibleValues){
-				if(separator == '\\'){
-					values.add(possibleValue.replaceAll("(\\\\*)\\\\", "$1"));
-				}
-				else{
-					values.add(possibleValue.replaceAll("\\\\" + pSep,
-							String.valueOf(separator)));
-				}
+				values.add(grammar.unprotect(possibleValue));
 			}
 			
 			// Remove duplicate while keeping the order of the values
@@ -224,6 +589,72 @@ public class EnumSanitizer extends Sanitizer<Enum> {
 		
 	}
 	
+	/**
+	 * Extracts a list of values from an enum definition read from the given
+	 * {@code reader}, following the same format as
+	 * {@link #extractEnumFromString(String, char)}. The definition is parsed
+	 * as it is read, so it is never held in memory as a whole.
+	 * 
+	 * @param reader
+	 *            The reader of the values separated by the separator as
+	 *            declared in the parameter {@code separator}. It is not
+	 *            closed.
+	 * @param separator
+	 *            The separator to use when splitting values.
+	 * @return A list containing all the values separated, without
+	 *         duplicates.
+	 * @throws IOException
+	 *             Thrown if the reader fails.
+	 * @throws BadFormatException
+	 *             Thrown if the definition's format is not matching the
+	 *             separation format. The error code will be
+	 *             {@link #FORMAT_NOT_ACCEPTED}.
+	 * @see #extractEnumFromReader(Reader, char, Consumer)
+	 */
+	public static List<String> extractEnumFromReader(Reader reader,
+			char separator) throws IOException, BadFormatException{
+		
+		// Remove duplicate while keeping the order of the values
+		LinkedHashSet<String> values = new LinkedHashSet<>();
+		
+		EnumSanitizer.extractEnumFromReader(reader, separator, values::add);
+		
+		return new ArrayList<>(values);
+		
+	}
+	
+	/**
+	 * Extracts the values of an enum definition read from the given
+	 * {@code reader} one at a time, following the same format as
+	 * {@link #extractEnumFromString(String, char)}. Only the value being read
+	 * is held in memory, so very long definitions can be fed directly into
+	 * an index such as a {@link ChoiceSet} builder.
+	 * <p>
+	 * Each value is given to the {@code consumer} as soon as it is read, and
+	 * duplicated values are given every time they appear. As the format can
+	 * only be fully verified at the end of the definition, a
+	 * {@link BadFormatException} can be thrown after some values were given.
+	 * 
+	 * @param reader
+	 *            The reader of the values separated by the separator as
+	 *            declared in the parameter {@code separator}. It is not
+	 *            closed.
+	 * @param separator
+	 *            The separator to use when splitting values.
+	 * @param consumer
+	 *            The consumer of the values, in the order they appear.
+	 * @throws IOException
+	 *             Thrown if the reader fails.
+	 * @throws BadFormatException
+	 *             Thrown if the definition's format is not matching the
+	 *             separation format. The error code will be
+	 *             {@link #FORMAT_NOT_ACCEPTED}.
+	 */
+	public static void extractEnumFromReader(Reader reader, char separator,
+			Consumer<String> consumer) throws IOException, BadFormatException{
+		EnumDefinitionParser.parse(reader, separator, consumer);
+	}
+	
 	/**
 	 * Verify the format of a given string to see if it's splittable via
 	 * {@link #extractEnumFromString(String, char)}. <h3>Example of good formats
@@ -258,29 +689,8 @@ public class EnumSanitizer extends Sanitizer<Enum> {
 	 */
 	protected static String verifyStringFormat(String stringValue,
 			char separator) throws BadFormatException{
-		
-		// Please see https://regex101.com/r/FrVwfk for an interactive testing session for this regex.
-		// Make sure to use the latest version on this website (click the v1 button to check).
-		
-		String pSep = Utils.protectRegexChar(separator);
-		
-		String expAnyNonBreakOrSep = "[^\\n" + pSep + "]*";
-		String expAnyNonSpaceOrSep = "([^\\r\\n\\t\\f\\v "
-				+ (separator == '\\' ? "" : pSep) + "]|\\\\+" + pSep + ")";
-		
-		String expOnlySeparators = pSep + "+";
-		
-		String expValidWord = expAnyNonBreakOrSep + expAnyNonSpaceOrSep
-				+ expAnyNonBreakOrSep;
-		String expAdditionalValidWords = pSep + expValidWord;
-		
-		String expValidWordsAsEnum = expValidWord + "("
-				+ expAdditionalValidWords + ")*";
-		
-		String expEnumFormat = expOnlySeparators + "|" + expValidWordsAsEnum;
-		
-		return TextRegexSanitizer.sanitizeValue(stringValue, expEnumFormat);
-		
+		return TextRegexSanitizer.sanitizeValue(stringValue, SeparatorGrammar
+				.of(separator).getFormat());
 	}
 	
 }
@@ -0,0 +1,198 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.choices.ChoiceHashSet;
+import io.github.ved.jsanitizers.choices.ChoiceMatching;
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility that sanitizes objects into the constants of a Java enum type. The
+ * names of the constants (and optional aliases) are indexed once, so a single
+ * lookup both validates the value and converts it to its constant, without
+ * going through {@link Enum#valueOf(Class, String)}.
+ * 
+ * @param <E>
+ *            The enum type to sanitize values into.
+ */
+public class EnumTypeSanitizer<E extends Enum<E>> extends Sanitizer<E> {
+	
+	/**
+	 * Value is not the name or an alias of a constant of the enum type
+	 */
+	public static final int FORMAT_NOT_A_CHOICE = EnumSanitizer.FORMAT_NOT_A_CHOICE;
+	
+	private final Class<E> type;
+	private final ChoiceHashSet choices;
+	private final E[] constantOfChoice;
+	
+	protected EnumTypeSanitizer(Class<E> type, ChoiceHashSet choices,
+			E[] constantOfChoice){
+		this.type = type;
+		this.choices = choices;
+		this.constantOfChoice = constantOfChoice;
+	}
+	
+	/**
+	 * Builds a sanitizer accepting the exact names of the constants of the
+	 * given enum type.
+	 * 
+	 * @param type
+	 *            The enum type to sanitize values into.
+	 * @param <E>
+	 *            The enum type to sanitize values into.
+	 * @return The sanitizer for the given enum type.
+	 * @see #of(Class, Map, ChoiceMatching)
+	 */
+	public static <E extends Enum<E>> EnumTypeSanitizer<E> of(Class<E> type){
+		return EnumTypeSanitizer.of(type, ChoiceMatching.EXACT);
+	}
+	
+	/**
+	 * Builds a sanitizer accepting the names of the constants of the given
+	 * enum type, matched using the given matching mode.
+	 * 
+	 * @param type
+	 *            The enum type to sanitize values into.
+	 * @param matching
+	 *            The way values are matched against the constants' names.
+	 * @param <E>
+	 *            The enum type to sanitize values into.
+	 * @return The sanitizer for the given enum type.
+	 * @throws IllegalArgumentException
+	 *             Thrown if two constants' names match each other in the given
+	 *             matching mode.
+	 * @see #of(Class, Map, ChoiceMatching)
+	 */
+	public static <E extends Enum<E>> EnumTypeSanitizer<E> of(Class<E> type,
+			ChoiceMatching matching) throws IllegalArgumentException{
+		return EnumTypeSanitizer.of(type, Collections.emptyMap(), matching);
+	}
+	
+	/**
+	 * Builds a sanitizer accepting the names of the constants of the given
+	 * enum type as well as the given aliases, all matched using the given
+	 * matching mode.
+	 * 
+	 * @param type
+	 *            The enum type to sanitize values into.
+	 * @param aliases
+	 *            Additional values accepted for the constants, for example
+	 *            {@code "on"} for a constant named {@code ENABLED}.
+	 * @param matching
+	 *            The way values are matched against the constants' names and
+	 *            aliases.
+	 * @param <E>
+	 *            The enum type to sanitize values into.
+	 * @return The sanitizer for the given enum type.
+	 * @throws IllegalArgumentException
+	 *             Thrown if two names or aliases of different constants match
+	 *             each other in the given matching mode, or if an alias is not
+	 *             given a constant.
+	 */
+	public static <E extends Enum<E>> EnumTypeSanitizer<E> of(Class<E> type,
+			Map<String, E> aliases, ChoiceMatching matching)
+			throws IllegalArgumentException{
+		
+		List<String> names = new ArrayList<>();
+		List<E> constants = new ArrayList<>();
+		
+		for(E constant : type.getEnumConstants()){
+			names.add(constant.name());
+			constants.add(constant);
+		}
+		
+		for(Map.Entry<String, E> alias : aliases.entrySet()){
+			
+			if(alias.getValue() == null){
+				throw new IllegalArgumentException("The alias "
+						+ alias.getKey() + " needs to be used for a constant!");
+			}
+			
+			names.add(alias.getKey());
+			constants.add(alias.getValue());
+			
+		}
+		
+		ChoiceHashSet choices = ChoiceHashSet.of(names, matching);
+		
+		@SuppressWarnings("unchecked")
+		E[] constantOfChoice = (E[])Array.newInstance(type, choices.size());
+		
+		for(int i = 0; i < names.size(); i++){
+			
+			int index = choices.indexOf(names.get(i));
+			
+			if(constantOfChoice[index] == null){
+				constantOfChoice[index] = constants.get(i);
+			}
+			else if(constantOfChoice[index] != constants.get(i)){
+				throw new IllegalArgumentException("The value "
+						+ names.get(i) + " cannot be used for both "
+						+ constantOfChoice[index] + " and " + constants.get(i)
+						+ "!");
+			}
+			
+		}
+		
+		return new EnumTypeSanitizer<>(type, choices, constantOfChoice);
+		
+	}
+	
+	/**
+	 * @return The enum type this sanitizer converts values into.
+	 */
+	public Class<E> getType(){
+		return this.type;
+	}
+	
+	/**
+	 * Sanitizes any object's String value to convert it to a constant of the
+	 * enum type of this sanitizer.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object)}.
+	 * @return The constant whose name or alias matches the value.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_NOT_A_CHOICE} : if the value's String
+	 *             representation is not the name or an alias of a constant of
+	 *             the enum type.</li>
+	 *             </ul>
+	 */
+	public E sanitize(Object value) throws BadFormatException{
+		return this.constantOfChoice[EnumSanitizer.sanitizeOrdinal(value,
+				this.choices)];
+	}
+	
+	/**
+	 * Sanitizes any object's String value to convert it to the ordinal of a
+	 * constant of the enum type of this sanitizer.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object)}.
+	 * @return The ordinal of the constant whose name or alias matches the
+	 *         value.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_NOT_A_CHOICE} : if the value's String
+	 *             representation is not the name or an alias of a constant of
+	 *             the enum type.</li>
+	 *             </ul>
+	 * @see Enum#ordinal()
+	 */
+	public int sanitizeOrdinal(Object value) throws BadFormatException{
+		return this.sanitize(value).ordinal();
+	}
+	
+}
@@ -0,0 +1,256 @@
+package io.github.ved.jsanitizers;
+
+import java.io.IOException;
+
+/**
+ * Output contexts into which {@link TextEscapeSanitizer} can escape untrusted
+ * text. Each context holds a table giving the escape sequence of every char
+ * that needs one, built once, so escaping is a single lookup per char.
+ */
+public enum EscapeContext {
+	
+	/**
+	 * Text content of an HTML (or XML) element. Escapes {@code &}, {@code <},
+	 * {@code >}, {@code "} and {@code '} as character references, which also
+	 * makes the text safe inside of quoted attributes.
+	 */
+	HTML{
+		@Override
+		void fill(String[] escapes){
+			escapes['&'] = "&amp;";
+			escapes['<'] = "&lt;";
+			escapes['>'] = "&gt;";
+			escapes['"'] = "&quot;";
+			escapes['\''] = "&#39;";
+		}
+	},
+	
+	/**
+	 * Value of an HTML attribute, quoted or not. Every ASCII char other than
+	 * letters, digits, {@code ','}, {@code '.'}, {@code '-'} and {@code '_'}
+	 * is escaped as a hexadecimal character reference.
+	 */
+	HTML_ATTRIBUTE{
+		@Override
+		void fill(String[] escapes){
+			
+			for(char character = 0; character < 0x80; character++){
+				
+				if(!isAlphanumeric(character) && character != ','
+						&& character != '.' && character != '-'
+						&& character != '_'){
+					escapes[character] = "&#x"
+							+ Integer.toHexString(character).toUpperCase() + ";";
+				}
+				
+			}
+			
+		}
+	},
+	
+	/**
+	 * Content of a JavaScript (or JSON) string literal, quoted with either
+	 * {@code "} or {@code '}. Backslashes, quotes and control chars are
+	 * escaped, as well as {@code <}, {@code >}, {@code &} and {@code /} so the
+	 * string cannot close an enclosing {@code <script>} element, and the line
+	 * and paragraph separators that end JavaScript lines.
+	 */
+	JAVASCRIPT_STRING{
+		@Override
+		void fill(String[] escapes){
+			
+			for(char character = 0; character < 0x20; character++){
+				escapes[character] = unicodeEscape(character);
+			}
+			
+			escapes['\b'] = "\\b";
+			escapes['\t'] = "\\t";
+			escapes['\n'] = "\\n";
+			escapes['\f'] = "\\f";
+			escapes['\r'] = "\\r";
+			escapes['\\'] = "\\\\";
+			escapes['"'] = "\\\"";
+			escapes['\''] = "\\'";
+			escapes['/'] = "\\/";
+			escapes['<'] = unicodeEscape('<');
+			escapes['>'] = unicodeEscape('>');
+			escapes['&'] = unicodeEscape('&');
+			escapes[0x7F] = unicodeEscape((char)0x7F);
+			escapes[LINE_SEPARATOR] = unicodeEscape(LINE_SEPARATOR);
+			escapes[PARAGRAPH_SEPARATOR] = unicodeEscape(PARAGRAPH_SEPARATOR);
+			
+		}
+	},
+	
+	/**
+	 * Pattern of an SQL {@code LIKE} clause declared with
+	 * {@code ESCAPE '\'}, so the text only matches itself : the wildcards
+	 * {@code %} and {@code _} and the escape char {@code \} are prefixed with
+	 * {@code \}. This does not replace bound parameters, the pattern itself
+	 * should still be given as one.
+	 */
+	SQL_LIKE{
+		@Override
+		void fill(String[] escapes){
+			escapes['%'] = "\\%";
+			escapes['_'] = "\\_";
+			escapes['\\'] = "\\\\";
+		}
+	},
+	
+	/**
+	 * Content of a single quoted POSIX shell word (between {@code '} and
+	 * {@code '}). Nothing can be escaped inside of single quotes, so each
+	 * {@code '} closes the quotes, adds an escaped quote and reopens them.
+	 */
+	SHELL_SINGLE_QUOTED{
+		@Override
+		void fill(String[] escapes){
+			escapes['\''] = "'\\''";
+		}
+	};
+	
+	private static final char LINE_SEPARATOR = '\u2028';
+	private static final char PARAGRAPH_SEPARATOR = '\u2029';
+	
+	// A constant expression, so it can be used while the constants are built
+	private static final String HEX_DIGITS = "0123456789ABCDEF";
+	
+	private final String[] escapes;
+	
+	EscapeContext(){
+		
+		String[] table = new String[PARAGRAPH_SEPARATOR + 1];
+		
+		this.fill(table);
+		
+		int length = table.length;
+		
+		while(length > 0 && table[length - 1] == null){
+			length--;
+		}
+		
+		this.escapes = new String[length];
+		System.arraycopy(table, 0, this.escapes, 0, length);
+		
+	}
+	
+	/**
+	 * Sets the escape sequence of every char that needs one in this context.
+	 * 
+	 * @param escapes
+	 *            The table to fill, indexed by char.
+	 */
+	abstract void fill(String[] escapes);
+	
+	/**
+	 * @param character
+	 *            The char to escape.
+	 * @return The escape sequence of the char in this context, or {@code null}
+	 *         if the char does not need to be escaped.
+	 */
+	public String escape(char character){
+		return character < this.escapes.length ? this.escapes[character] : null;
+	}
+	
+	/**
+	 * Finds the first char of a text that needs to be escaped in this context.
+	 * 
+	 * @param text
+	 *            The text to scan.
+	 * @return The index of the first char needing to be escaped, or the length
+	 *         of the text if none does.
+	 */
+	public int indexOfEscaped(CharSequence text){
+		return this.indexOfEscaped(text, 0);
+	}
+	
+	/**
+	 * Escapes a text into the given output, appending the runs of chars that
+	 * do not need escaping directly from the text.
+	 * 
+	 * @param text
+	 *            The text to escape.
+	 * @param out
+	 *            The output to append the escaped text to.
+	 * @param <A>
+	 *            The type of the output.
+	 * @return The given output.
+	 * @throws IOException
+	 *             Thrown if the output fails to be appended to.
+	 */
+	public <A extends Appendable> A escape(CharSequence text, A out)
+			throws IOException{
+		return this.escape(text, 0, out);
+	}
+	
+	/**
+	 * Escapes the end of a text into the given output.
+	 * 
+	 * @param text
+	 *            The text to escape.
+	 * @param start
+	 *            The index of the first char to escape.
+	 * @param out
+	 *            The output to append the escaped text to.
+	 * @param <A>
+	 *            The type of the output.
+	 * @return The given output.
+	 * @throws IOException
+	 *             Thrown if the output fails to be appended to.
+	 */
+	<A extends Appendable> A escape(CharSequence text, int start, A out)
+			throws IOException{
+		
+		int length = text.length();
+		int runStart = start;
+		
+		for(int i = this.indexOfEscaped(text, start); i < length; i = this
+				.indexOfEscaped(text, i + 1)){
+			
+			out.append(text, runStart, i);
+			out.append(this.escapes[text.charAt(i)]);
+			
+			runStart = i + 1;
+			
+		}
+		
+		out.append(text, runStart, length);
+		
+		return out;
+		
+	}
+	
+	private int indexOfEscaped(CharSequence text, int start){
+		
+		String[] escapes = this.escapes;
+		int length = text.length();
+		
+		for(int i = start; i < length; i++){
+			
+			char character = text.charAt(i);
+			
+			if(character < escapes.length && escapes[character] != null){
+				return i;
+			}
+			
+		}
+		
+		return length;
+		
+	}
+	
+	private static boolean isAlphanumeric(char character){
+		return (character >= 'a' && character <= 'z')
+				|| (character >= 'A' && character <= 'Z')
+				|| (character >= '0' && character <= '9');
+	}
+	
+	private static String unicodeEscape(char character){
+		return "\\u" + HEX_DIGITS.charAt(character >>> 12)
+				+ HEX_DIGITS.charAt((character >>> 8) & 0xF)
+				+ HEX_DIGITS.charAt((character >>> 4) & 0xF)
+				+ HEX_DIGITS.charAt(character & 0xF);
+	}
+	
+}
@@ -27,6 +27,15 @@ public class IntegerSanitizer extends Sanitizer<Integer> {
 	 */
 	public static final int FORMAT_HIGHER_THAN_MAX = 4;
 	
+	/**
+	 * Estimated cost of sanitizing an integer, which scans the value once.
+	 */
+	public static final int COST = 2;
+	
+	// Returned by the parsing methods, out of the int range, once they have
+	// recorded a FORMAT_NOT_A_NUMBER error
+	private static final long NOT_A_NUMBER = Long.MIN_VALUE;
+	
 	protected IntegerSanitizer(){}
 	
 	/**
@@ -143,36 +152,149 @@ public class IntegerSanitizer extends Sanitizer<Integer> {
 	 */
 	public static int sanitizeValue(Object value, int minValue, int maxValue)
 			throws BadFormatException{
+		return IntegerSanitizer.sanitizeValue(value, minValue, maxValue,
+				SanitizeContext.THROWING);
+	}
+	
+	/**
+	 * Sanitizes any object's String value to convert to an int within the
+	 * given bounds, recording the error in the given {@code context} instead
+	 * of throwing it. The value is parsed in place : nothing is allocated
+	 * unless the value is an object whose String value needs to be built or
+	 * an error message is requested from the context.
+	 *
+	 * @param value
+	 *            Any object that its String value is a parsable number within
+	 *            the bounds of the Integer primitive object.
+	 * @param minValue
+	 *            The minimum integer value that the value can be.
+	 * @param maxValue
+	 *            The maximum integer value that the value can be.
+	 * @param context
+	 *            The context recording the error, if any. Possible codes are
+	 *            the ones of {@link #sanitizeValue(Object, int, int)}.
+	 * @return An {@code int} representative of the parameter's given value,
+	 *         or {@code 0} if an error was recorded.
+	 * @see SanitizeContext
+	 */
+	public static int sanitizeValue(Object value, int minValue, int maxValue,
+			SanitizeContext context){
 		
-		int castedValue;
+		CharSequence text = context.toCharSequence(value);
 		
-		try{
-			
-			String stringValue = TextNotEmptySanitizer.sanitizeValue(value);
-			
-			stringValue = stringValue.replaceAll("^(-)\\s+(\\d+)$", "$1$2");
-			
-			castedValue = Integer.valueOf(stringValue);
-			
+		WhitespacePolicy policy = context.getWhitespacePolicy();
+		
+		int start = policy.trimStart(text);
+		int end = policy.trimEnd(text, start);
+		
+		if(start == end){
+			context.fail(FORMAT_EMPTY, "Value cannot be empty!");
+			return 0;
 		}
-		catch(NumberFormatException e){
-			throw new BadFormatException("Value is not a number!",
-					FORMAT_NOT_A_NUMBER);
+		
+		long parsedValue = IntegerSanitizer.parse(text, start, end, context);
+		
+		if(parsedValue == NOT_A_NUMBER){
+			return 0;
 		}
 		
+		int castedValue = (int)parsedValue;
+		
 		if(minValue != Integer.MIN_VALUE && castedValue < minValue){
-			throw new BadFormatException("Value (" + castedValue
-					+ ") is lower than the minimum required (" + minValue
-					+ ")!", FORMAT_LOWER_THAN_MIN);
+			context.fail(FORMAT_LOWER_THAN_MIN,
+					"Value ({0}) is lower than the minimum required ({1})!",
+					castedValue, minValue);
+			return 0;
 		}
 		else if(maxValue != Integer.MAX_VALUE && castedValue > maxValue){
-			throw new BadFormatException("Value (" + castedValue
-					+ ") is higher than the maximum permitted (" + maxValue
-					+ ")!", FORMAT_HIGHER_THAN_MAX);
+			context.fail(FORMAT_HIGHER_THAN_MAX,
+					"Value ({0}) is higher than the maximum permitted ({1})!",
+					castedValue, maxValue);
+			return 0;
 		}
 		
 		return castedValue;
 		
 	}
 	
+	private static long parse(CharSequence text, int start, int end,
+			SanitizeContext context){
+		
+		boolean isNegative = false;
+		int digitsStart = start;
+		
+		char sign = text.charAt(start);
+		
+		if(sign == '-' || sign == '+'){
+			
+			isNegative = sign == '-';
+			digitsStart++;
+			
+			// Spaces are tolerated between the minus sign and the digits
+			while(isNegative && digitsStart < end
+					&& isRegexWhitespace(text.charAt(digitsStart))){
+				digitsStart++;
+			}
+			
+		}
+		
+		if(digitsStart == end){
+			context.fail(FORMAT_NOT_A_NUMBER, "Value is not a number!");
+			return NOT_A_NUMBER;
+		}
+		
+		if(Ascii.indexOfNonDigit(text, digitsStart, end) != end){
+			
+			// Let the general path handle non-ASCII digits
+			if(!Ascii.isAscii(text, digitsStart, end)){
+				return IntegerSanitizer.parseGeneral(text.subSequence(start,
+						end).toString(), context);
+			}
+			
+			context.fail(FORMAT_NOT_A_NUMBER, "Value is not a number!");
+			return NOT_A_NUMBER;
+			
+		}
+		
+		// Accumulate negatively to reach Integer.MIN_VALUE without overflowing
+		int limit = isNegative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+		int multiplyLimit = limit / 10;
+		
+		int result = 0;
+		
+		for(int i = digitsStart; i < end; i++){
+			
+			int digit = text.charAt(i) - '0';
+			
+			if(result < multiplyLimit || result * 10 < limit + digit){
+				context.fail(FORMAT_NOT_A_NUMBER, "Value is not a number!");
+				return NOT_A_NUMBER;
+			}
+			
+			result = result * 10 - digit;
+			
+		}
+		
+		return isNegative ? result : -result;
+		
+	}
+	
+	private static long parseGeneral(String stringValue,
+			SanitizeContext context){
+		
+		try{
+			return Integer.valueOf(stringValue.replaceAll(
+					"^(-)\\s+(\\d+)$", "$1$2"));
+		}
+		catch(NumberFormatException e){
+			context.fail(FORMAT_NOT_A_NUMBER, "Value is not a number!");
+			return NOT_A_NUMBER;
+		}
+		
+	}
+	
+	private static boolean isRegexWhitespace(char character){
+		return character == ' ' || (character >= '\t' && character <= '\r');
+	}
+	
 }
@@ -0,0 +1,206 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * Holder of a raw value that is only sanitized the first time it is read.
+ * The result, or the {@link BadFormatException} thrown while sanitizing, is
+ * memoized, so the sanitizer runs at most once per holder for its result to
+ * be kept.
+ * <p>
+ * Holders are safe to read from multiple threads : if they race on the first
+ * access, the sanitizer may run more than once but every thread gets the
+ * result published first. The sanitizer must therefore have no side effects,
+ * which is the case of every sanitizer of this library.
+ * <p>
+ * Once the result is published, the holder no longer references the raw value
+ * nor the sanitizer, so that a large raw value does not stay reachable for as
+ * long as its sanitized result is kept.
+ * 
+ * <pre>
+ * LazySanitized&lt;Integer&gt; age = LazySanitized.of(rawAge,
+ *         value -&gt; IntegerSanitizer.sanitizeValue(value, 0, 150));
+ * </pre>
+ * 
+ * @param <E>
+ *            The type of the sanitized value.
+ */
+public final class LazySanitized<E> {
+	
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<LazySanitized, Object> RESULT = AtomicReferenceFieldUpdater
+			.newUpdater(LazySanitized.class, Object.class, "result");
+	
+	// The Pending raw value and sanitizer until the result is published,
+	// then the sanitized value or the BadFormatException thrown. Replacing
+	// both at once releases the raw value without racing with its readers
+	private volatile Object result;
+	
+	private LazySanitized(Object rawValue,
+			Function<Object, ? extends E> sanitizer){
+		this.result = new Pending(rawValue, sanitizer);
+	}
+	
+	/**
+	 * Wraps a raw value to be sanitized on first access.
+	 * 
+	 * @param rawValue
+	 *            The value to sanitize.
+	 * @param sanitizer
+	 *            The function sanitizing the value, such as
+	 *            {@code TextSanitizer::sanitizeValue}.
+	 * @param <E>
+	 *            The type of the sanitized value.
+	 * @return The holder of the value.
+	 */
+	public static <E> LazySanitized<E> of(Object rawValue,
+			Function<Object, ? extends E> sanitizer){
+		return new LazySanitized<>(rawValue, sanitizer);
+	}
+	
+	/**
+	 * Sanitizes every given holder that was not sanitized yet, so that all of
+	 * them have memoized their result even if one fails.
+	 * 
+	 * @param holders
+	 *            The holders to sanitize.
+	 * @throws BadFormatException
+	 *             A new exception with the message and code of the first error
+	 *             of the given holders, in iteration order, once all of them
+	 *             are sanitized. Its cause is that error.
+	 */
+	public static void forceAll(Iterable<? extends LazySanitized<?>> holders)
+			throws BadFormatException{
+		
+		BadFormatException firstError = null;
+		
+		for(LazySanitized<?> holder : holders){
+			
+			BadFormatException error = holder.getError();
+			
+			if(firstError == null){
+				firstError = error;
+			}
+			
+		}
+		
+		if(firstError != null){
+			throw new BadFormatException(firstError.getMessage(),
+					firstError.getErrorCode(), firstError);
+		}
+		
+	}
+	
+	/**
+	 * @return The value as it was given, or {@code null} once it is sanitized
+	 *         since the holder then releases it.
+	 */
+	public Object getRawValue(){
+		
+		Object result = this.result;
+		
+		return result instanceof Pending ? ((Pending)result).rawValue : null;
+		
+	}
+	
+	/**
+	 * Gets the sanitized value, sanitizing it if this is the first access.
+	 * 
+	 * @return The sanitized value.
+	 * @throws BadFormatException
+	 *             Thrown if the sanitizer rejected the value. Since exceptions
+	 *             are mutable, every access throws a new exception with the
+	 *             message and code of the memoized one, which is its cause
+	 *             and is given by {@link #getError()}.
+	 */
+	@SuppressWarnings("unchecked")
+	public E get() throws BadFormatException{
+		
+		Object result = this.sanitize();
+		
+		if(result instanceof BadFormatException){
+			
+			BadFormatException error = (BadFormatException)result;
+			
+			throw new BadFormatException(error.getMessage(),
+					error.getErrorCode(), error);
+			
+		}
+		
+		return (E)result;
+		
+	}
+	
+	/**
+	 * @return {@code true} if the value is valid for the sanitizer, sanitizing
+	 *         it if this is the first access, {@code false} otherwise.
+	 */
+	public boolean isValid(){
+		return !(this.sanitize() instanceof BadFormatException);
+	}
+	
+	/**
+	 * @return The exception thrown by the sanitizer, sanitizing the value if
+	 *         this is the first access, or {@code null} if the value is valid.
+	 */
+	public BadFormatException getError(){
+		
+		Object result = this.sanitize();
+		
+		return result instanceof BadFormatException ? (BadFormatException)result
+				: null;
+		
+	}
+	
+	/**
+	 * @return {@code true} if the value was already sanitized, {@code false}
+	 *         otherwise.
+	 */
+	public boolean isSanitized(){
+		return !(this.result instanceof Pending);
+	}
+	
+	private Object sanitize(){
+		
+		Object result = this.result;
+		
+		if(!(result instanceof Pending)){
+			return result;
+		}
+		
+		Pending pending = (Pending)result;
+		
+		Object computed;
+		
+		try{
+			computed = pending.sanitizer.apply(pending.rawValue);
+		}
+		catch(BadFormatException e){
+			computed = e;
+		}
+		
+		// The first result published wins the race
+		if(!RESULT.compareAndSet(this, pending, computed)){
+			return this.result;
+		}
+		
+		return computed;
+		
+	}
+	
+	private static final class Pending {
+		
+		private final Object rawValue;
+		private final Function<Object, ?> sanitizer;
+		
+		private Pending(Object rawValue, Function<Object, ?> sanitizer){
+			this.rawValue = rawValue;
+			this.sanitizer = sanitizer;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,369 @@
+package io.github.ved.jsanitizers;
+
+/**
+ * Units in which {@link TextLengthSanitizer} can measure the length of a
+ * text. Every unit measures in a single pass over the chars, without encoding
+ * the text, and stops as soon as a given limit is exceeded.
+ */
+public enum LengthUnit {
+	
+	/**
+	 * UTF-16 code units, as returned by {@link String#length()}. A character
+	 * outside of the Basic Multilingual Plane (such as most emojis) counts as
+	 * 2.
+	 */
+	UTF16_UNITS("characters"){
+		@Override
+		public int measure(CharSequence value, int start, int end, int limit){
+			return end - start;
+		}
+		
+		@Override
+		int lowerBound(int units){
+			return units;
+		}
+		
+		@Override
+		int upperBound(int units){
+			return units;
+		}
+	},
+	
+	/**
+	 * Unicode code points, as returned by
+	 * {@link Character#codePointCount(CharSequence, int, int)}. A surrogate
+	 * pair counts as 1.
+	 */
+	CODE_POINTS("code points"){
+		@Override
+		public int measure(CharSequence value, int start, int end, int limit){
+			
+			int count = 0;
+			
+			for(int i = start; i < end && count <= limit; i++){
+				
+				if(Character.isHighSurrogate(value.charAt(i)) && i + 1 < end
+						&& Character.isLowSurrogate(value.charAt(i + 1))){
+					i++;
+				}
+				
+				count++;
+				
+			}
+			
+			return count;
+			
+		}
+		
+		@Override
+		int lowerBound(int units){
+			return (units + 1) / 2;
+		}
+		
+		@Override
+		int upperBound(int units){
+			return units;
+		}
+	},
+	
+	/**
+	 * Bytes of the UTF-8 encoding of the text, which is what most databases
+	 * use to enforce their limits. Unpaired surrogates count as 1 byte, as
+	 * Java's encoder replaces them with {@code '?'}.
+	 */
+	UTF8_BYTES("bytes"){
+		@Override
+		public int measure(CharSequence value, int start, int end, int limit){
+			
+			int count = 0;
+			
+			for(int i = start; i < end && count <= limit; i++){
+				
+				char character = value.charAt(i);
+				
+				if(character < 0x80){
+					count++;
+				}
+				else if(character < 0x800){
+					count += 2;
+				}
+				else if(Character.isHighSurrogate(character) && i + 1 < end
+						&& Character.isLowSurrogate(value.charAt(i + 1))){
+					count += 4;
+					i++;
+				}
+				else if(Character.isSurrogate(character)){
+					count++;
+				}
+				else{
+					count += 3;
+				}
+				
+			}
+			
+			return count;
+			
+		}
+		
+		@Override
+		int lowerBound(int units){
+			return units;
+		}
+		
+		@Override
+		int upperBound(int units){
+			return units > Integer.MAX_VALUE / 3 ? Integer.MAX_VALUE
+					: units * 3;
+		}
+	},
+	
+	/**
+	 * User-perceived characters (grapheme clusters) : a base character
+	 * followed by its combining marks, a sequence of pictographs (emojis)
+	 * joined with zero width joiners, a flag made of two regional indicators or a Hangul
+	 * syllable made of jamos each count as 1. This follows the main rules of
+	 * the Unicode text segmentation (UAX #29) extended grapheme clusters.
+	 */
+	GRAPHEMES("characters"){
+		@Override
+		public int measure(CharSequence value, int start, int end, int limit){
+			
+			int count = 0;
+			int previous = -1;
+			int regionalIndicators = 0;
+			boolean isPictographic = false;
+			
+			for(int i = start; i < end && count <= limit;){
+				
+				int codePoint = Character.codePointAt(value, i);
+				
+				if(i + Character.charCount(codePoint) > end){
+					codePoint = value.charAt(i);
+				}
+				
+				if(previous == -1
+						|| !continuesGrapheme(previous, codePoint,
+								regionalIndicators, isPictographic)){
+					count++;
+				}
+				
+				regionalIndicators = isRegionalIndicator(codePoint)
+						? regionalIndicators + 1 : 0;
+				
+				// Whether the text so far ends with a pictograph followed by
+				// extending characters only, the sole case a joiner can join
+				if(isExtendedPictographic(codePoint)){
+					isPictographic = true;
+				}
+				else if(!isExtending(codePoint)){
+					isPictographic = false;
+				}
+				
+				previous = codePoint;
+				i += Character.charCount(codePoint);
+				
+			}
+			
+			return count;
+			
+		}
+		
+		@Override
+		int lowerBound(int units){
+			return units == 0 ? 0 : 1;
+		}
+		
+		@Override
+		int upperBound(int units){
+			return units;
+		}
+	};
+	
+	private static final int ZERO_WIDTH_JOINER = 0x200D;
+	
+	private final String description;
+	
+	LengthUnit(String description){
+		this.description = description;
+	}
+	
+	/**
+	 * @return The plural name of what this unit counts, used in error
+	 *         messages.
+	 */
+	public String getDescription(){
+		return this.description;
+	}
+	
+	/**
+	 * Measures the length of a part of a text in this unit. The measure stops
+	 * as soon as it gets over the given {@code limit}, so that very long texts
+	 * are not scanned entirely when only checking a maximum length.
+	 * 
+	 * @param value
+	 *            The text to measure.
+	 * @param start
+	 *            The index of the first char to measure.
+	 * @param end
+	 *            The index after the last char to measure.
+	 * @param limit
+	 *            The length after which measuring can stop. Use
+	 *            {@link Integer#MAX_VALUE} to always get the exact length.
+	 * @return The length of the text in this unit, or any length above
+	 *         {@code limit} if the text is longer than the limit.
+	 */
+	public abstract int measure(CharSequence value, int start, int end,
+			int limit);
+	
+	/**
+	 * @param units
+	 *            An amount of UTF-16 units.
+	 * @return The smallest length a text of that many UTF-16 units can have in
+	 *         this unit.
+	 */
+	abstract int lowerBound(int units);
+	
+	/**
+	 * @param units
+	 *            An amount of UTF-16 units.
+	 * @return The biggest length a text of that many UTF-16 units can have in
+	 *         this unit.
+	 */
+	abstract int upperBound(int units);
+	
+	private static boolean continuesGrapheme(int previous, int codePoint,
+			int previousRegionalIndicators, boolean isAfterPictograph){
+		
+		if(previous == '\r'){
+			return codePoint == '\n';
+		}
+		
+		if(isControl(previous) || isControl(codePoint)){
+			return false;
+		}
+		
+		if(isExtending(codePoint)){
+			return true;
+		}
+		
+		if(previous == ZERO_WIDTH_JOINER){
+			return isAfterPictograph && isExtendedPictographic(codePoint);
+		}
+		
+		if(isRegionalIndicator(codePoint)){
+			return previousRegionalIndicators % 2 == 1;
+		}
+		
+		return continuesHangulSyllable(previous, codePoint);
+		
+	}
+	
+	private static boolean isControl(int codePoint){
+		
+		int type = Character.getType(codePoint);
+		
+		return type == Character.CONTROL || type == Character.LINE_SEPARATOR
+				|| type == Character.PARAGRAPH_SEPARATOR;
+		
+	}
+	
+	private static boolean isExtending(int codePoint){
+		
+		switch(Character.getType(codePoint)){
+		case Character.NON_SPACING_MARK:
+		case Character.ENCLOSING_MARK:
+		case Character.COMBINING_SPACING_MARK:
+			return true;
+		}
+		
+		return codePoint == ZERO_WIDTH_JOINER
+				// Variation selectors
+				|| (codePoint >= 0xFE00 && codePoint <= 0xFE0F)
+				|| (codePoint >= 0xE0100 && codePoint <= 0xE01EF)
+				// Emoji skin tone modifiers
+				|| (codePoint >= 0x1F3FB && codePoint <= 0x1F3FF)
+				// Tags (used by subdivision flags)
+				|| (codePoint >= 0xE0020 && codePoint <= 0xE007F);
+		
+	}
+	
+	/**
+	 * Approximates the Unicode {@code Extended_Pictographic} property with the
+	 * blocks it covers, since the JDK does not expose it.
+	 */
+	private static boolean isExtendedPictographic(int codePoint){
+		
+		if(codePoint < 0x2000){
+			return codePoint == 0x00A9 || codePoint == 0x00AE;
+		}
+		
+		if(codePoint < 0x10000){
+			return codePoint == 0x203C || codePoint == 0x2049
+					|| codePoint == 0x2122 || codePoint == 0x2139
+					|| (codePoint >= 0x2194 && codePoint <= 0x21AA)
+					|| (codePoint >= 0x231A && codePoint <= 0x23FF)
+					|| codePoint == 0x24C2
+					|| (codePoint >= 0x25AA && codePoint <= 0x25FE)
+					|| (codePoint >= 0x2600 && codePoint <= 0x27BF)
+					|| (codePoint >= 0x2934 && codePoint <= 0x2935)
+					|| (codePoint >= 0x2B05 && codePoint <= 0x2B55)
+					|| codePoint == 0x3030 || codePoint == 0x303D
+					|| codePoint == 0x3297 || codePoint == 0x3299;
+		}
+		
+		return (codePoint >= 0x1F000 && codePoint <= 0x1F0FF)
+				|| (codePoint >= 0x1F10D && codePoint <= 0x1F1AD)
+				|| (codePoint >= 0x1F201 && codePoint <= 0x1F3FA)
+				|| (codePoint >= 0x1F400 && codePoint <= 0x1FAFF)
+				|| (codePoint >= 0x1FC00 && codePoint <= 0x1FFFD);
+		
+	}
+	
+	private static boolean isRegionalIndicator(int codePoint){
+		return codePoint >= 0x1F1E6 && codePoint <= 0x1F1FF;
+	}
+	
+	private static boolean continuesHangulSyllable(int previous, int codePoint){
+		
+		if(isLeadingJamo(previous)){
+			return isLeadingJamo(codePoint) || isVowelJamo(codePoint)
+					|| isSyllable(codePoint);
+		}
+		
+		if(isVowelJamo(previous)
+				|| (isSyllable(previous) && !hasTrailingJamo(previous))){
+			return isVowelJamo(codePoint) || isTrailingJamo(codePoint);
+		}
+		
+		if(isTrailingJamo(previous) || isSyllable(previous)){
+			return isTrailingJamo(codePoint);
+		}
+		
+		return false;
+		
+	}
+	
+	private static boolean isLeadingJamo(int codePoint){
+		return (codePoint >= 0x1100 && codePoint <= 0x115F)
+				|| (codePoint >= 0xA960 && codePoint <= 0xA97C);
+	}
+	
+	private static boolean isVowelJamo(int codePoint){
+		return (codePoint >= 0x1160 && codePoint <= 0x11A7)
+				|| (codePoint >= 0xD7B0 && codePoint <= 0xD7C6);
+	}
+	
+	private static boolean isTrailingJamo(int codePoint){
+		return (codePoint >= 0x11A8 && codePoint <= 0x11FF)
+				|| (codePoint >= 0xD7CB && codePoint <= 0xD7FB);
+	}
+	
+	private static boolean isSyllable(int codePoint){
+		return codePoint >= 0xAC00 && codePoint <= 0xD7A3;
+	}
+	
+	private static boolean hasTrailingJamo(int syllable){
+		return (syllable - 0xAC00) % 28 != 0;
+	}
+	
+}
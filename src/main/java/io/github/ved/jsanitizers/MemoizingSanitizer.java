@@ -0,0 +1,277 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import io.github.ved.jsanitizers.exceptions.NotAChoiceException;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Wrapper of a sanitizer that memoizes its results (or the format errors it
+ * throws) by raw value, for inputs repeating the same few values such as
+ * booleans, status names or small integers. A repeated value then costs a
+ * single hash lookup.
+ * <p>
+ * Only the raw values whose String representation cannot change are cached :
+ * Strings (used as keys as they are, without any copy), boxed primitives and
+ * enum constants. Any other value, for example a {@link StringBuilder}, goes
+ * straight to the wrapped sanitizer.
+ * <p>
+ * The cache is safe to use from multiple threads and bounded : once full, it
+ * evicts a quarter of its entries following the <i>CLOCK</i> second chance
+ * policy. A hand goes round the entries, resuming where the previous
+ * eviction stopped : an entry read since the hand last passed it is spared
+ * once, any other entry is evicted.
+ * 
+ * @param <E>
+ *            The type of the sanitized value.
+ */
+public final class MemoizingSanitizer<E> {
+	
+	private static final Object NULL = new Object();
+	
+	private final Function<Object, ? extends E> sanitizer;
+	private final int maximumSize;
+	
+	private final ConcurrentHashMap<Object, Entry> cache;
+	private final AtomicBoolean isEvicting = new AtomicBoolean();
+	
+	// Position of the clock hand, only used by the evicting thread
+	private Iterator<Map.Entry<Object, Entry>> hand;
+	
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	
+	private MemoizingSanitizer(Function<Object, ? extends E> sanitizer,
+			int maximumSize){
+		this.sanitizer = sanitizer;
+		this.maximumSize = maximumSize;
+		this.cache = new ConcurrentHashMap<>(Math.min(maximumSize, 1024));
+	}
+	
+	/**
+	 * Wraps a sanitizer to memoize its results.
+	 * 
+	 * @param sanitizer
+	 *            The function sanitizing the values, such as
+	 *            {@code BooleanSanitizer::sanitizeValue}.
+	 * @param maximumSize
+	 *            The maximum amount of raw values to keep the result of.
+	 * @param <E>
+	 *            The type of the sanitized value.
+	 * @return The memoizing sanitizer.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the {@code maximumSize} is not positive.
+	 */
+	public static <E> MemoizingSanitizer<E> of(
+			Function<Object, ? extends E> sanitizer, int maximumSize)
+			throws IllegalArgumentException{
+		
+		if(maximumSize <= 0){
+			throw new IllegalArgumentException(
+					"The maximum size needs to be positive!");
+		}
+		
+		return new MemoizingSanitizer<>(sanitizer, maximumSize);
+		
+	}
+	
+	/**
+	 * Sanitizes any object using the wrapped sanitizer, or using the result
+	 * memoized for an equal raw value.
+	 * 
+	 * @param value
+	 *            Any object to sanitize.
+	 * @return The sanitized value.
+	 * @throws BadFormatException
+	 *             Thrown if the wrapped sanitizer throws for this raw value.
+	 *             The first time, the exception of the wrapped sanitizer is
+	 *             thrown as it is. A memoized error is thrown again as a new
+	 *             exception with the same message and code, whose cause is the
+	 *             exception of the wrapped sanitizer (which keeps its type and
+	 *             details, such as the suggestions of a
+	 *             {@link NotAChoiceException}).
+	 */
+	@SuppressWarnings("unchecked")
+	public E sanitize(Object value) throws BadFormatException{
+		
+		Object key = MemoizingSanitizer.keyOf(value);
+		
+		if(key == null){
+			return this.sanitizer.apply(value);
+		}
+		
+		Entry entry = this.cache.get(key);
+		
+		if(entry != null){
+			
+			this.hits.increment();
+			
+			// Only written when clear, so that hot entries read by every
+			// thread do not bounce their cache line between cores
+			if(!entry.isReferenced){
+				entry.isReferenced = true;
+			}
+			
+			if(entry.error != null){
+				throw new BadFormatException(entry.error.getMessage(),
+						entry.error.getErrorCode(), entry.error);
+			}
+			
+		}
+		else{
+			
+			this.misses.increment();
+			
+			entry = this.compute(value);
+			
+			if(this.cache.size() >= this.maximumSize){
+				this.evict();
+			}
+			
+			this.cache.putIfAbsent(key, entry);
+			
+			if(entry.error != null){
+				throw entry.error;
+			}
+			
+		}
+		
+		return (E)entry.result;
+		
+	}
+	
+	/**
+	 * @return The amount of raw values whose result is currently memoized.
+	 */
+	public int size(){
+		return this.cache.size();
+	}
+	
+	/**
+	 * @return The amount of sanitized values that were found memoized.
+	 */
+	public long getHitCount(){
+		return this.hits.sum();
+	}
+	
+	/**
+	 * @return The amount of sanitized values that had to go through the
+	 *         wrapped sanitizer, whether they were cached afterwards or not.
+	 */
+	public long getMissCount(){
+		return this.misses.sum();
+	}
+	
+	/**
+	 * @return The amount of memoized results that were evicted to keep the
+	 *         cache within its maximum size.
+	 */
+	public long getEvictionCount(){
+		return this.evictions.sum();
+	}
+	
+	/**
+	 * Forgets every memoized result, keeping the statistics.
+	 */
+	public void clear(){
+		this.cache.clear();
+	}
+	
+	private Entry compute(Object value){
+		
+		try{
+			return new Entry(this.sanitizer.apply(value), null);
+		}
+		catch(BadFormatException e){
+			return new Entry(null, e);
+		}
+		
+	}
+	
+	private void evict(){
+		
+		// A single thread evicts, the others insert past the limit meanwhile
+		if(!this.isEvicting.compareAndSet(false, true)){
+			return;
+		}
+		
+		try{
+			
+			int targetSize = this.maximumSize - Math.max(1,
+					this.maximumSize / 4);
+			
+			// Once every entry had its second chance, evict regardless so
+			// that entries read meanwhile cannot keep the hand turning
+			int chances = this.cache.size();
+			
+			while(this.cache.size() > targetSize){
+				
+				if(this.hand == null || !this.hand.hasNext()){
+					
+					this.hand = this.cache.entrySet().iterator();
+					
+					if(!this.hand.hasNext()){
+						break;
+					}
+					
+				}
+				
+				Entry entry = this.hand.next().getValue();
+				
+				if(entry.isReferenced && chances-- > 0){
+					entry.isReferenced = false;
+				}
+				else{
+					this.hand.remove();
+					this.evictions.increment();
+				}
+				
+			}
+			
+		}
+		finally{
+			this.isEvicting.set(false);
+		}
+		
+	}
+	
+	private static Object keyOf(Object value){
+		
+		if(value == null){
+			return NULL;
+		}
+		
+		if(value instanceof String || value instanceof Integer
+				|| value instanceof Long || value instanceof Short
+				|| value instanceof Byte || value instanceof Character
+				|| value instanceof Boolean || value instanceof Double
+				|| value instanceof Float || value instanceof Enum){
+			return value;
+		}
+		
+		return null;
+		
+	}
+	
+	private static final class Entry {
+		
+		private final Object result;
+		private final BadFormatException error;
+		
+		// Set when read, cleared by the eviction sweeps
+		private volatile boolean isReferenced;
+		
+		private Entry(Object result, BadFormatException error){
+			this.result = result;
+			this.error = error;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,558 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.choices.ChoiceSet;
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import io.github.ved.jsanitizers.exceptions.RecordFormatException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Sanitizer of whole records (maps of raw values by field name) checking
+ * rules across their fields, such as "if the type is X then the amount is
+ * between 1 and 100". Every field is sanitized once with its sanitizer, and
+ * the rules are then evaluated over the sanitized values.
+ * <p>
+ * Every field and rule has a cost, and the order in which they run is
+ * planned once, when the sanitizer is built : the cheapest step that can run
+ * (a rule can only run once its fields are sanitized) always runs first,
+ * steps of equal cost running in the order they were declared. Since the
+ * first failure stops the sanitizing, a record breaking a rule over cheap
+ * fields is rejected before its expensive fields (such as regex checks) are
+ * even sanitized. The plan can be inspected with {@link #getPlan()}.
+ * 
+ * <pre>
+ * RecordSanitizer sanitizer = RecordSanitizer.builder()
+ * 		.choiceField("type", types).integerField("amount", 0, 1000)
+ * 		.regexField("reference", referencePattern)
+ * 		.rule("amount of type X", record -&gt; !"X".equals(record.get("type"))
+ * 				|| record.&lt;Integer&gt; get("amount") &gt;= 1, "type", "amount")
+ * 		.build();
+ * </pre>
+ */
+public final class RecordSanitizer {
+	
+	/**
+	 * Record does not meet one of the rules of the sanitizer. Unlike the
+	 * other codes, which start at 1, this code is not used by any field
+	 * sanitizer, so that a broken rule is never mistaken for a rejected field.
+	 */
+	public static final int FORMAT_RULE_NOT_MET = 100;
+	
+	/**
+	 * Cost of checking a rule when none is given.
+	 */
+	public static final int COST_RULE = 1;
+	
+	private static final Object NOT_SANITIZED = new Object();
+	
+	private final String[] fieldNames;
+	private final Map<String, Integer> fieldIndexes;
+	private final Step[] plan;
+	
+	private RecordSanitizer(String[] fieldNames,
+			Map<String, Integer> fieldIndexes, Step[] plan){
+		this.fieldNames = fieldNames;
+		this.fieldIndexes = fieldIndexes;
+		this.plan = plan;
+	}
+	
+	/**
+	 * Starts building a record sanitizer.
+	 * 
+	 * @return The builder of the sanitizer.
+	 */
+	public static Builder builder(){
+		return new Builder();
+	}
+	
+	/**
+	 * @return The descriptions of the fields and rules of this sanitizer, in
+	 *         the order they run. Fields are described as {@code "field "}
+	 *         followed by their name, and rules as {@code "rule "} followed by
+	 *         their description.
+	 */
+	public List<String> getPlan(){
+		
+		List<String> plan = new ArrayList<>(this.plan.length);
+		
+		for(Step step : this.plan){
+			plan.add(step.toString());
+		}
+		
+		return plan;
+		
+	}
+	
+	/**
+	 * Sanitizes a record, following the plan of this sanitizer and stopping
+	 * at the first field or rule failing.
+	 * 
+	 * @param values
+	 *            The raw values of the record by field name. A field missing
+	 *            from the map is sanitized from {@code null}, and entries that
+	 *            are not fields of this sanitizer are ignored.
+	 * @return The sanitized record.
+	 * @throws RecordFormatException
+	 *             Thrown if the record's format is not matching this
+	 *             sanitizer's purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_RULE_NOT_MET} : if one of the rules is
+	 *             not met by the sanitized fields, the exception then naming
+	 *             the rule.</li>
+	 *             <li>The code of a field's sanitizer : if that field cannot be
+	 *             sanitized, the exception then naming the field and having
+	 *             the exception of the field's sanitizer as its cause.</li>
+	 *             </ul>
+	 */
+	public Record sanitize(Map<String, ?> values) throws RecordFormatException{
+		
+		Object[] sanitizedValues = new Object[this.fieldNames.length];
+		Arrays.fill(sanitizedValues, NOT_SANITIZED);
+		
+		Record record = new Record(this.fieldNames, this.fieldIndexes,
+				sanitizedValues);
+		
+		for(Step step : this.plan){
+			step.run(values, record);
+		}
+		
+		return record;
+		
+	}
+	
+	/**
+	 * Sanitized values of a record, by field name.
+	 */
+	public static final class Record {
+		
+		private final String[] fieldNames;
+		private final Map<String, Integer> fieldIndexes;
+		private final Object[] values;
+		
+		private Record(String[] fieldNames, Map<String, Integer> fieldIndexes,
+				Object[] values){
+			this.fieldNames = fieldNames;
+			this.fieldIndexes = fieldIndexes;
+			this.values = values;
+		}
+		
+		/**
+		 * Gets the sanitized value of a field.
+		 * 
+		 * @param name
+		 *            The name of the field.
+		 * @param <T>
+		 *            The type of the sanitized value.
+		 * @return The sanitized value of the field.
+		 * @throws IllegalArgumentException
+		 *             Thrown if the field does not exist.
+		 * @throws IllegalStateException
+		 *             Thrown if the field is not sanitized yet, which happens
+		 *             when a rule uses a field it does not list.
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> T get(String name) throws IllegalArgumentException,
+				IllegalStateException{
+			
+			Integer index = this.fieldIndexes.get(name);
+			
+			if(index == null){
+				throw new IllegalArgumentException("The field " + name
+						+ " does not exist!");
+			}
+			
+			if(this.values[index] == NOT_SANITIZED){
+				throw new IllegalStateException("The field " + name
+						+ " is not sanitized yet, it needs to be listed in the"
+						+ " fields of the rule using it!");
+			}
+			
+			return (T)this.values[index];
+			
+		}
+		
+		/**
+		 * @return The sanitized values by field name, in the order the fields
+		 *         were declared.
+		 */
+		public Map<String, Object> toMap(){
+			
+			Map<String, Object> map = new LinkedHashMap<>();
+			
+			for(int i = 0; i < this.fieldNames.length; i++){
+				if(this.values[i] != NOT_SANITIZED){
+					map.put(this.fieldNames[i], this.values[i]);
+				}
+			}
+			
+			return Collections.unmodifiableMap(map);
+			
+		}
+		
+	}
+	
+	/**
+	 * Builder of {@link RecordSanitizer}s. Fields and rules can be declared in
+	 * any order, the rules referencing fields by name.
+	 */
+	public static final class Builder {
+		
+		private final List<Step> steps = new ArrayList<>();
+		private final List<String> fieldNames = new ArrayList<>();
+		
+		private Builder(){}
+		
+		/**
+		 * Declares a field sanitized by the given function.
+		 * 
+		 * @param name
+		 *            The name of the field.
+		 * @param sanitizer
+		 *            The function sanitizing the raw value of the field, such
+		 *            as {@code TextSanitizer::sanitizeValue}.
+		 * @param cost
+		 *            The estimated cost of the function, compared with the
+		 *            {@code COST} constants of the sanitizers, such as
+		 *            {@link IntegerSanitizer#COST}.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             Thrown if a field already has that name.
+		 */
+		public Builder field(String name, Function<Object, ?> sanitizer,
+				int cost) throws IllegalArgumentException{
+			
+			if(this.fieldNames.contains(name)){
+				throw new IllegalArgumentException("The field " + name
+						+ " is already declared!");
+			}
+			
+			this.steps.add(new FieldStep(cost, name, this.fieldNames.size(),
+					sanitizer));
+			this.fieldNames.add(name);
+			
+			return this;
+			
+		}
+		
+		/**
+		 * Declares a field sanitized with
+		 * {@link BooleanSanitizer#sanitizeValue(Object)}.
+		 * 
+		 * @param name
+		 *            The name of the field.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             Thrown if a field already has that name.
+		 */
+		public Builder booleanField(String name)
+				throws IllegalArgumentException{
+			return this.field(name, BooleanSanitizer::sanitizeValue,
+					BooleanSanitizer.COST);
+		}
+		
+		/**
+		 * Declares a field sanitized with
+		 * {@link CharSanitizer#sanitizeValue(Object)}.
+		 * 
+		 * @param name
+		 *            The name of the field.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             Thrown if a field already has that name.
+		 */
+		public Builder charField(String name) throws IllegalArgumentException{
+			return this.field(name, CharSanitizer::sanitizeValue,
+					CharSanitizer.COST);
+		}
+		
+		/**
+		 * Declares a field sanitized with
+		 * {@link IntegerSanitizer#sanitizeValue(Object, int, int)}.
+		 * 
+		 * @param name
+		 *            The name of the field.
+		 * @param minValue
+		 *            The minimum value of the field.
+		 * @param maxValue
+		 *            The maximum value of the field.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             Thrown if a field already has that name.
+		 */
+		public Builder integerField(String name, int minValue, int maxValue)
+				throws IllegalArgumentException{
+			return this.field(name, value -> IntegerSanitizer.sanitizeValue(
+					value, minValue, maxValue), IntegerSanitizer.COST);
+		}
+		
+		/**
+		 * Declares a field sanitized with
+		 * {@link TextNotEmptySanitizer#sanitizeValue(Object)}.
+		 * 
+		 * @param name
+		 *            The name of the field.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             Thrown if a field already has that name.
+		 */
+		public Builder textField(String name) throws IllegalArgumentException{
+			return this.field(name, TextNotEmptySanitizer::sanitizeValue,
+					TextNotEmptySanitizer.COST);
+		}
+		
+		/**
+		 * Declares a field sanitized with
+		 * {@link EnumSanitizer#sanitizeValue(Object, ChoiceSet)}.
+		 * 
+		 * @param name
+		 *            The name of the field.
+		 * @param choices
+		 *            The choices accepted for the field.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             Thrown if a field already has that name.
+		 */
+		public Builder choiceField(String name, ChoiceSet choices)
+				throws IllegalArgumentException{
+			return this.field(name, value -> EnumSanitizer.sanitizeValue(value,
+					choices), EnumSanitizer.COST);
+		}
+		
+		/**
+		 * Declares a field sanitized with
+		 * {@link TextRegexSanitizer#sanitizeValue(Object, Pattern)}.
+		 * 
+		 * @param name
+		 *            The name of the field.
+		 * @param pattern
+		 *            The pattern the field has to match.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             Thrown if a field already has that name.
+		 */
+		public Builder regexField(String name, Pattern pattern)
+				throws IllegalArgumentException{
+			return this.field(name, value -> TextRegexSanitizer.sanitizeValue(
+					value, pattern), TextRegexSanitizer.COST);
+		}
+		
+		/**
+		 * Declares a rule of the default cost.
+		 * 
+		 * @param description
+		 *            The description of the rule, used in the error message
+		 *            when it is not met.
+		 * @param predicate
+		 *            The predicate of the rule, given the record once the
+		 *            listed fields are sanitized.
+		 * @param fields
+		 *            The names of the fields used by the predicate.
+		 * @return This builder.
+		 * @see #rule(String, int, Predicate, String...)
+		 */
+		public Builder rule(String description, Predicate<Record> predicate,
+				String... fields){
+			return this.rule(description, COST_RULE, predicate, fields);
+		}
+		
+		/**
+		 * Declares a rule, which runs once all the fields it lists are
+		 * sanitized.
+		 * 
+		 * @param description
+		 *            The description of the rule, used in the error message
+		 *            when it is not met.
+		 * @param cost
+		 *            The estimated cost of the predicate, compared with
+		 *            {@link #COST_RULE} and the {@code COST} constants of the
+		 *            sanitizers.
+		 * @param predicate
+		 *            The predicate of the rule, given the record once the
+		 *            listed fields are sanitized.
+		 * @param fields
+		 *            The names of the fields used by the predicate.
+		 * @return This builder.
+		 */
+		public Builder rule(String description, int cost,
+				Predicate<Record> predicate, String... fields){
+			
+			this.steps.add(new RuleStep(cost, description, fields.clone(),
+					predicate));
+			
+			return this;
+			
+		}
+		
+		/**
+		 * Plans the order of the fields and rules and builds the sanitizer.
+		 * 
+		 * @return The record sanitizer.
+		 * @throws IllegalArgumentException
+		 *             Thrown if a rule lists a field that is not declared.
+		 */
+		public RecordSanitizer build() throws IllegalArgumentException{
+			
+			Map<String, Integer> fieldIndexes = new HashMap<>();
+			
+			for(int i = 0; i < this.fieldNames.size(); i++){
+				fieldIndexes.put(this.fieldNames.get(i), i);
+			}
+			
+			List<Step> remaining = new ArrayList<>(this.steps.size());
+			
+			for(Step step : this.steps){
+				
+				if(step instanceof RuleStep){
+					for(String field : ((RuleStep)step).fields){
+						if(!fieldIndexes.containsKey(field)){
+							throw new IllegalArgumentException("The rule "
+									+ step.description
+									+ " uses the undeclared field " + field
+									+ "!");
+						}
+					}
+				}
+				
+				remaining.add(step);
+				
+			}
+			
+			boolean[] isSanitized = new boolean[this.fieldNames.size()];
+			Step[] plan = new Step[remaining.size()];
+			
+			for(int i = 0; i < plan.length; i++){
+				
+				Step next = null;
+				
+				for(Step step : remaining){
+					if(step.isReady(isSanitized, fieldIndexes)
+							&& (next == null || step.cost < next.cost)){
+						next = step;
+					}
+				}
+				
+				remaining.remove(next);
+				plan[i] = next;
+				
+				if(next instanceof FieldStep){
+					isSanitized[((FieldStep)next).index] = true;
+				}
+				
+			}
+			
+			return new RecordSanitizer(this.fieldNames.toArray(new String[0]),
+					fieldIndexes, plan);
+			
+		}
+		
+	}
+	
+	private abstract static class Step {
+		
+		final int cost;
+		final String description;
+		
+		Step(int cost, String description){
+			this.cost = cost;
+			this.description = description;
+		}
+		
+		abstract boolean isReady(boolean[] isSanitized,
+				Map<String, Integer> fieldIndexes);
+		
+		abstract void run(Map<String, ?> values, Record record)
+				throws RecordFormatException;
+		
+	}
+	
+	private static final class FieldStep extends Step {
+		
+		final int index;
+		final Function<Object, ?> sanitizer;
+		
+		FieldStep(int cost, String name, int index,
+				Function<Object, ?> sanitizer){
+			super(cost, name);
+			
+			this.index = index;
+			this.sanitizer = sanitizer;
+		}
+		
+		@Override
+		boolean isReady(boolean[] isSanitized, Map<String, Integer> fieldIndexes){
+			return true;
+		}
+		
+		@Override
+		void run(Map<String, ?> values, Record record)
+				throws RecordFormatException{
+			
+			try{
+				record.values[this.index] = this.sanitizer.apply(values
+						.get(this.description));
+			}
+			catch(BadFormatException e){
+				throw RecordFormatException.ofField(this.description, e);
+			}
+			
+		}
+		
+		@Override
+		public String toString(){
+			return "field " + this.description;
+		}
+		
+	}
+	
+	private static final class RuleStep extends Step {
+		
+		final String[] fields;
+		final Predicate<Record> predicate;
+		
+		RuleStep(int cost, String description, String[] fields,
+				Predicate<Record> predicate){
+			super(cost, description);
+			
+			this.fields = fields;
+			this.predicate = predicate;
+		}
+		
+		@Override
+		boolean isReady(boolean[] isSanitized, Map<String, Integer> fieldIndexes){
+			
+			for(String field : this.fields){
+				if(!isSanitized[fieldIndexes.get(field)]){
+					return false;
+				}
+			}
+			
+			return true;
+			
+		}
+		
+		@Override
+		void run(Map<String, ?> values, Record record)
+				throws RecordFormatException{
+			if(!this.predicate.test(record)){
+				throw RecordFormatException.ofRule(this.description,
+						FORMAT_RULE_NOT_MET);
+			}
+		}
+		
+		@Override
+		public String toString(){
+			return "rule " + this.description;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,383 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reusable state for sanitizing many values without throwing nor allocating,
+ * such as all the fields of a record. Instead of throwing a
+ * {@link BadFormatException}, the sanitizers taking a context record the
+ * error code in it, along with a message template and its arguments that are
+ * only formatted if {@link #getErrorMessage()} is called.
+ * <p>
+ * A context also holds the {@link WhitespacePolicy} the sanitizers trim the
+ * values with, so that it is configured once for every value sanitized
+ * through it, and scratch objects used to read numbers and characters
+ * without boxing them into Strings, to look up trimmed values without
+ * copying them and to match patterns without a new {@link Matcher} per
+ * value. It is not thread safe : use
+ * {@link #current()} to get the one of the current thread, or create one per
+ * unit of work and pass it explicitly.
+ * 
+ * <pre>
+ * SanitizeContext context = SanitizeContext.current();
+ * context.clear();
+ * 
+ * int age = IntegerSanitizer.sanitizeValue(fields[0], 0, 150, context);
+ * boolean isActive = BooleanSanitizer.sanitizeValue(fields[1], context);
+ * 
+ * if(context.hasError()){
+ *     throw context.toException();
+ * }
+ * </pre>
+ */
+public final class SanitizeContext {
+	
+	/**
+	 * Context used by the sanitizers' throwing methods : it throws the error
+	 * instead of recording it, trims with {@link WhitespacePolicy#JAVA_TRIM}
+	 * and has no scratch buffer so it can be shared.
+	 */
+	static final SanitizeContext THROWING = new SanitizeContext(
+			WhitespacePolicy.JAVA_TRIM, null);
+	
+	private static final ThreadLocal<SanitizeContext> CURRENT = ThreadLocal
+			.withInitial(SanitizeContext::new);
+	
+	private static final int NO_ERROR = 0;
+	
+	private final WhitespacePolicy policy;
+	private final StringBuilder buffer;
+	private final Slice slice;
+	private Matcher matcher;
+	
+	private int errorCode = NO_ERROR;
+	private String errorTemplate;
+	private final long[] errorArguments = new long[2];
+	private int errorArgumentCount;
+	
+	/**
+	 * Builds a new context, without any error, trimming values with
+	 * {@link WhitespacePolicy#JAVA_TRIM}.
+	 */
+	public SanitizeContext(){
+		this(WhitespacePolicy.JAVA_TRIM);
+	}
+	
+	/**
+	 * Builds a new context, without any error, trimming values with the given
+	 * {@code policy}.
+	 * 
+	 * @param policy
+	 *            The policy defining which characters the sanitizers trim from
+	 *            the start and the end of the values.
+	 */
+	public SanitizeContext(WhitespacePolicy policy){
+		this(policy, new StringBuilder(32));
+	}
+	
+	private SanitizeContext(WhitespacePolicy policy, StringBuilder buffer){
+		this.policy = policy;
+		this.buffer = buffer;
+		this.slice = buffer == null ? null : new Slice();
+	}
+	
+	/**
+	 * @return The context of the current thread, created on first use. It
+	 *         trims values with {@link WhitespacePolicy#JAVA_TRIM} and is not
+	 *         cleared : call {@link #clear()} before using it.
+	 */
+	public static SanitizeContext current(){
+		return CURRENT.get();
+	}
+	
+	/**
+	 * @return The policy defining which characters the sanitizers trim from
+	 *         the start and the end of the values.
+	 */
+	public WhitespacePolicy getWhitespacePolicy(){
+		return this.policy;
+	}
+	
+	/**
+	 * @return {@code true} if a sanitizer recorded an error since this context
+	 *         was last cleared, {@code false} otherwise.
+	 */
+	public boolean hasError(){
+		return this.errorCode != NO_ERROR;
+	}
+	
+	/**
+	 * @return The format code of the last error recorded, as documented by the
+	 *         sanitizer that recorded it, or {@code 0} if there is none.
+	 */
+	public int getErrorCode(){
+		return this.errorCode;
+	}
+	
+	/**
+	 * Formats the message of the last error recorded. This is the only method
+	 * of the context building a String.
+	 * 
+	 * @return The message of the last error recorded, or {@code null} if
+	 *         there is none.
+	 */
+	public String getErrorMessage(){
+		
+		if(!this.hasError()){
+			return null;
+		}
+		
+		return format(this.errorTemplate, this.errorArguments,
+				this.errorArgumentCount);
+		
+	}
+	
+	/**
+	 * @return A {@link BadFormatException} for the last error recorded, as the
+	 *         throwing methods of the sanitizers would have thrown it.
+	 * @throws IllegalStateException
+	 *             Thrown if there is no error recorded.
+	 */
+	public BadFormatException toException() throws IllegalStateException{
+		
+		if(!this.hasError()){
+			throw new IllegalStateException("No error was recorded!");
+		}
+		
+		return new BadFormatException(this.getErrorMessage(), this.errorCode);
+		
+	}
+	
+	/**
+	 * Forgets the last error recorded, so that the context can be reused.
+	 */
+	public void clear(){
+		this.errorCode = NO_ERROR;
+		this.errorTemplate = null;
+		this.errorArgumentCount = 0;
+	}
+	
+	/**
+	 * Gets the text of any object, writing primitive wrappers into the scratch
+	 * buffer instead of allocating their String representation. The returned
+	 * text is only valid until the next call.
+	 * 
+	 * @param value
+	 *            Any object to get the text of.
+	 * @return The text of the object, as given by
+	 *         {@link TextSanitizer#toCharSequence(Object)}.
+	 */
+	CharSequence toCharSequence(Object value){
+		
+		if(this.buffer == null || value instanceof CharSequence){
+			return TextSanitizer.toCharSequence(value);
+		}
+		
+		StringBuilder buffer = this.buffer;
+		
+		if(value instanceof Integer || value instanceof Long
+				|| value instanceof Short || value instanceof Byte){
+			buffer.setLength(0);
+			return buffer.append(((Number)value).longValue());
+		}
+		
+		if(value instanceof Character){
+			buffer.setLength(0);
+			return buffer.append((char)(Character)value);
+		}
+		
+		if(value instanceof Boolean){
+			buffer.setLength(0);
+			return buffer.append((boolean)(Boolean)value);
+		}
+		
+		return TextSanitizer.toCharSequence(value);
+		
+	}
+	
+	/**
+	 * Gets a part of a text without copying it : the returned view is only
+	 * valid until the next call, or until {@link #release()} is called.
+	 * 
+	 * @param text
+	 *            The text to get a part of.
+	 * @param start
+	 *            The index of the first char of the part.
+	 * @param end
+	 *            The index after the last char of the part.
+	 * @return The text itself if the part covers all of it, or a view of the
+	 *         part.
+	 */
+	CharSequence slice(CharSequence text, int start, int end){
+		
+		if(start == 0 && end == text.length()){
+			return text;
+		}
+		
+		if(this.slice == null){
+			return text.subSequence(start, end);
+		}
+		
+		return this.slice.set(text, start, end);
+		
+	}
+	
+	/**
+	 * Gets a matcher of the given pattern over the given text, reusing the
+	 * matcher of the previous call if it was for the same pattern. The
+	 * returned matcher is only valid until the next call, or until
+	 * {@link #release()} is called.
+	 * 
+	 * @param pattern
+	 *            The pattern to match.
+	 * @param text
+	 *            The text to match the pattern against.
+	 * @return The matcher of the pattern over the text.
+	 */
+	Matcher matcher(Pattern pattern, CharSequence text){
+		
+		if(this.buffer == null){
+			return pattern.matcher(text);
+		}
+		
+		if(this.matcher == null || this.matcher.pattern() != pattern){
+			this.matcher = pattern.matcher(text);
+		}
+		else{
+			this.matcher.reset(text);
+		}
+		
+		return this.matcher;
+		
+	}
+	
+	/**
+	 * Drops the references the slice and the matcher keep to the last text
+	 * they were given, once a sanitizer is done with them. The context of a
+	 * pooled thread lives as long as the thread, and would otherwise keep the
+	 * last value checked reachable, however big it is.
+	 */
+	void release(){
+		
+		if(this.slice != null){
+			this.slice.set(null, 0, 0);
+		}
+		
+		if(this.matcher != null){
+			this.matcher.reset("");
+		}
+		
+	}
+	
+	/**
+	 * Records an error, or throws it if this is the {@link #THROWING} context.
+	 * 
+	 * @param errorCode
+	 *            The format code of the error.
+	 * @param message
+	 *            The message of the error.
+	 * @throws BadFormatException
+	 *             Thrown if this is the {@link #THROWING} context.
+	 */
+	void fail(int errorCode, String message) throws BadFormatException{
+		this.fail(errorCode, message, 0, 0, 0);
+	}
+	
+	/**
+	 * Records an error whose message has two numeric arguments, or throws it
+	 * if this is the {@link #THROWING} context.
+	 * 
+	 * @param errorCode
+	 *            The format code of the error.
+	 * @param template
+	 *            The message of the error, in which {@code {0}} and
+	 *            {@code {1}} are replaced by the arguments.
+	 * @param first
+	 *            The first argument of the message.
+	 * @param second
+	 *            The second argument of the message.
+	 * @throws BadFormatException
+	 *             Thrown if this is the {@link #THROWING} context.
+	 */
+	void fail(int errorCode, String template, long first, long second)
+			throws BadFormatException{
+		this.fail(errorCode, template, 2, first, second);
+	}
+	
+	private void fail(int errorCode, String template, int argumentCount,
+			long first, long second) throws BadFormatException{
+		
+		if(this == THROWING){
+			throw new BadFormatException(format(template, new long[]
+			{
+				first, second
+			}, argumentCount), errorCode);
+		}
+		
+		this.errorCode = errorCode;
+		this.errorTemplate = template;
+		this.errorArguments[0] = first;
+		this.errorArguments[1] = second;
+		this.errorArgumentCount = argumentCount;
+		
+	}
+	
+	private static String format(String template, long[] arguments,
+			int argumentCount){
+		
+		String message = template;
+		
+		for(int i = 0; i < argumentCount; i++){
+			message = message.replace("{" + i + "}",
+					Long.toString(arguments[i]));
+		}
+		
+		return message;
+		
+	}
+	
+	/**
+	 * Reusable view of a part of a text.
+	 */
+	private static final class Slice implements CharSequence {
+		
+		private CharSequence text;
+		private int start;
+		private int end;
+		
+		private Slice set(CharSequence text, int start, int end){
+			
+			this.text = text;
+			this.start = start;
+			this.end = end;
+			
+			return this;
+			
+		}
+		
+		@Override
+		public int length(){
+			return this.end - this.start;
+		}
+		
+		@Override
+		public char charAt(int index){
+			return this.text.charAt(this.start + index);
+		}
+		
+		@Override
+		public CharSequence subSequence(int start, int end){
+			return this.text.subSequence(this.start + start, this.start + end);
+		}
+		
+		@Override
+		public String toString(){
+			return this.text.subSequence(this.start, this.end).toString();
+		}
+		
+	}
+	
+}
@@ -0,0 +1,140 @@
+package io.github.ved.jsanitizers;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled patterns used by {@link EnumSanitizer} to verify and split enum
+ * definitions using a given separator. The patterns of a separator are only
+ * compiled the first time it is used, then cached : ASCII separators in a
+ * lock-free table indexed by the char, other ones in a concurrent map.
+ */
+final class SeparatorGrammar {
+	
+	private static final AtomicReferenceArray<SeparatorGrammar> ASCII_GRAMMARS = new AtomicReferenceArray<>(
+			0x80);
+	
+	private static final ConcurrentHashMap<Character, SeparatorGrammar> OTHER_GRAMMARS = new ConcurrentHashMap<>();
+	
+	private final Pattern format;
+	private final Pattern onlySeparators;
+	private final Pattern splitter;
+	private final Pattern protectedSeparator;
+	private final String protectedSeparatorReplacement;
+	
+	private SeparatorGrammar(char separator){
+		
+		// Please see https://regex101.com/r/FrVwfk for an interactive testing session for this regex.
+		// Make sure to use the latest version on this website (click the v1 button to check).
+		
+		String pSep = Utils.protectRegexChar(separator);
+		
+		String expAnyNonBreakOrSep = "[^\\n" + pSep + "]*";
+		String expAnyNonSpaceOrSep = "([^\\r\\n\\t\\f\\v "
+				+ (separator == '\\' ? "" : pSep) + "]|\\\\+" + pSep + ")";
+		
+		String expOnlySeparators = pSep + "+";
+		
+		String expValidWord = expAnyNonBreakOrSep + expAnyNonSpaceOrSep
+				+ expAnyNonBreakOrSep;
+		String expAdditionalValidWords = pSep + expValidWord;
+		
+		String expValidWordsAsEnum = expValidWord + "("
+				+ expAdditionalValidWords + ")*";
+		
+		this.format = Pattern.compile(expOnlySeparators + "|"
+				+ expValidWordsAsEnum);
+		
+		this.onlySeparators = Pattern.compile("^\\s*(\\\\*" + pSep
+				+ ")+\\s*$");
+		
+		String expNonProtectedSeparator;
+		
+		if(separator == '\\'){
+			expNonProtectedSeparator = "(?<!\\\\)\\\\(?!\\\\)";
+			
+			this.protectedSeparator = Pattern.compile("(\\\\*)\\\\");
+			this.protectedSeparatorReplacement = "$1";
+		}
+		else{
+			expNonProtectedSeparator = "(?<!\\\\)" + pSep;
+			
+			this.protectedSeparator = Pattern.compile("\\\\" + pSep);
+			this.protectedSeparatorReplacement = Matcher
+					.quoteReplacement(String.valueOf(separator));
+		}
+		
+		this.splitter = Pattern.compile("\\s*" + expNonProtectedSeparator
+				+ "\\s*");
+		
+	}
+	
+	/**
+	 * @param separator
+	 *            The separator of the enum definitions.
+	 * @return The grammar of the given separator, compiled on first use.
+	 */
+	static SeparatorGrammar of(char separator){
+		
+		if(separator < ASCII_GRAMMARS.length()){
+			
+			SeparatorGrammar grammar = ASCII_GRAMMARS.get(separator);
+			
+			if(grammar == null){
+				
+				// Racing threads may both compile it, which is harmless
+				grammar = new SeparatorGrammar(separator);
+				
+				if(!ASCII_GRAMMARS.compareAndSet(separator, null, grammar)){
+					grammar = ASCII_GRAMMARS.get(separator);
+				}
+				
+			}
+			
+			return grammar;
+			
+		}
+		
+		return OTHER_GRAMMARS.computeIfAbsent(separator, SeparatorGrammar::new);
+		
+	}
+	
+	/**
+	 * @return The pattern an enum definition has to match.
+	 */
+	Pattern getFormat(){
+		return this.format;
+	}
+	
+	/**
+	 * @param definition
+	 *            The enum definition to test.
+	 * @return {@code true} if the definition is only made of (possibly
+	 *         protected) separators, {@code false} otherwise.
+	 */
+	boolean isOnlySeparators(String definition){
+		return this.onlySeparators.matcher(definition).matches();
+	}
+	
+	/**
+	 * @param definition
+	 *            The trimmed enum definition to split.
+	 * @return The values of the definition, still protected.
+	 */
+	String[] split(String definition){
+		return this.splitter.split(definition);
+	}
+	
+	/**
+	 * @param value
+	 *            A value of an enum definition.
+	 * @return The value with its protected separators unprotected.
+	 */
+	String unprotect(String value){
+		return this.protectedSeparator.matcher(value).replaceAll(
+				this.protectedSeparatorReplacement);
+	}
+	
+}
@@ -0,0 +1,105 @@
+package io.github.ved.jsanitizers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Utility that escapes untrusted text objects for a given output context, such
+ * as HTML or a JavaScript string. Unlike the other text sanitizers, the text
+ * is not trimmed : it is escaped exactly as given.
+ * 
+ * @see EscapeContext
+ */
+public class TextEscapeSanitizer extends TextSanitizer {
+	
+	protected TextEscapeSanitizer(){}
+	
+	/**
+	 * Sanitizes any object to a String value escaped for the given
+	 * {@code context}.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of its
+	 *            {@code toString()} method.
+	 * @param context
+	 *            The context the String value will be output into.
+	 * @return The escaped String value of the object given as parameter. If
+	 *         the value is a String that has no char to escape, the same
+	 *         instance is returned. If the value is {@code null}, it returns an
+	 *         empty String ({@code ""}).
+	 */
+	public static String sanitizeValue(Object value, EscapeContext context){
+		
+		CharSequence text = TextSanitizer.toCharSequence(value);
+		
+		int firstEscaped = context.indexOfEscaped(text);
+		
+		if(firstEscaped == text.length()){
+			return text.toString();
+		}
+		
+		// Leaves room for a few escape sequences before having to grow
+		StringBuilder builder = new StringBuilder(text.length() + 16);
+		builder.append(text, 0, firstEscaped);
+		
+		try{
+			return context.escape(text, firstEscaped, builder).toString();
+		}
+		catch(IOException e){
+			// A StringBuilder never throws
+			throw new UncheckedIOException(e);
+		}
+		
+	}
+	
+	/**
+	 * Escapes any object's String value for the given {@code context} directly
+	 * into the given output, without building an intermediate String.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of its
+	 *            {@code toString()} method. A {@code null} value appends
+	 *            nothing.
+	 * @param context
+	 *            The context the String value will be output into.
+	 * @param out
+	 *            The output to append the escaped String value to.
+	 * @param <A>
+	 *            The type of the output.
+	 * @return The given output.
+	 * @throws IOException
+	 *             Thrown if the output fails to be appended to.
+	 */
+	public static <A extends Appendable> A appendValue(Object value,
+			EscapeContext context, A out) throws IOException{
+		return context.escape(TextSanitizer.toCharSequence(value), out);
+	}
+	
+	/**
+	 * Escapes any object's String value for the given {@code context} directly
+	 * into the given builder, without building an intermediate String.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of its
+	 *            {@code toString()} method. A {@code null} value appends
+	 *            nothing.
+	 * @param context
+	 *            The context the String value will be output into.
+	 * @param builder
+	 *            The builder to append the escaped String value to.
+	 * @return The given builder.
+	 */
+	public static StringBuilder appendValue(Object value,
+			EscapeContext context, StringBuilder builder){
+		
+		try{
+			return context.escape(TextSanitizer.toCharSequence(value), builder);
+		}
+		catch(IOException e){
+			// A StringBuilder never throws
+			throw new UncheckedIOException(e);
+		}
+		
+	}
+	
+}
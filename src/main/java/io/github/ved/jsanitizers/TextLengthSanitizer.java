@@ -17,6 +17,12 @@ public class TextLengthSanitizer extends TextSanitizer {
 	 */
 	public static final int FORMAT_MAX_LENGTH = 2;
 	
+	/**
+	 * Estimated cost of checking the length of a text, which scans the value
+	 * once.
+	 */
+	public static final int COST = 2;
+	
 	protected TextLengthSanitizer(){}
 	
 	/**
@@ -128,26 +134,202 @@ public class TextLengthSanitizer extends TextSanitizer {
 	 */
 	public static String sanitizeValue(Object value, int minLength,
 			int maxLength) throws BadFormatException, IllegalArgumentException{
+		return TextLengthSanitizer.sanitizeValue(value, minLength, maxLength,
+				LengthUnit.UTF16_UNITS);
+	}
+	
+	/**
+	 * Sanitizes any object to a String value with a length, measured in the
+	 * given {@code unit}, that is at least the given {@code minLength}
+	 * parameter and at most the given {@code maxLength} parameter. The length
+	 * is measured in a single pass that stops as soon as the
+	 * {@code maxLength} is exceeded, and is not measured at all when the
+	 * amount of UTF-16 units of the value is enough to decide.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object)}.
+	 * @param minLength
+	 *            The minimum length accepted for the String
+	 * @param maxLength
+	 *            The maximum length accepted for the String
+	 * @param unit
+	 *            The unit in which the length of the String is measured.
+	 * @return The String object as if the
+	 *         {@link TextSanitizer#sanitizeValue(Object)} method was used.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_MIN_LENGTH} : if the String's length is
+	 *             lower than the given {@code minLength} parameter.</li>
+	 *             <li>{@link #FORMAT_MAX_LENGTH} : if the String's length is
+	 *             higher than the given {@code maxLength} parameter.</li>
+	 *             </ul>
+	 * @throws IllegalArgumentException
+	 *             Thrown if the {@code minLength} parameter's integer value is
+	 *             bigger than the {@code maxLength} parameter's integer value.
+	 * @see TextSanitizer
+	 * @see LengthUnit
+	 */
+	public static String sanitizeValue(Object value, int minLength,
+			int maxLength, LengthUnit unit) throws BadFormatException,
+			IllegalArgumentException{
+		return TextLengthSanitizer.sanitizeValue(value, minLength, maxLength,
+				unit, WhitespacePolicy.JAVA_TRIM);
+	}
+	
+	/**
+	 * Sanitizes any object to a String value, trimmed using the given
+	 * {@code policy}, with a length measured in the given {@code unit} that
+	 * is at least the given {@code minLength} parameter and at most the given
+	 * {@code maxLength} parameter.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}.
+	 * @param minLength
+	 *            The minimum length accepted for the String
+	 * @param maxLength
+	 *            The maximum length accepted for the String
+	 * @param unit
+	 *            The unit in which the length of the String is measured.
+	 * @param policy
+	 *            The policy defining which characters are trimmed from the
+	 *            start and the end of the String value.
+	 * @return The String object as if the
+	 *         {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}
+	 *         method was used.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_MIN_LENGTH} : if the String's length is
+	 *             lower than the given {@code minLength} parameter.</li>
+	 *             <li>{@link #FORMAT_MAX_LENGTH} : if the String's length is
+	 *             higher than the given {@code maxLength} parameter.</li>
+	 *             </ul>
+	 * @throws IllegalArgumentException
+	 *             Thrown if the {@code minLength} parameter's integer value is
+	 *             bigger than the {@code maxLength} parameter's integer value.
+	 * @see #sanitizeValue(Object, int, int, LengthUnit)
+	 * @see WhitespacePolicy
+	 */
+	public static String sanitizeValue(Object value, int minLength,
+			int maxLength, LengthUnit unit, WhitespacePolicy policy)
+			throws BadFormatException, IllegalArgumentException{
 		
 		if(minLength > maxLength){
 			throw new IllegalArgumentException(
 					"The argument minLength shouldn't be bigger than the argument maxLength.");
 		}
 		
-		String stringValue = TextSanitizer.sanitizeValue(value);
+		// Work on the text in place so that a value too long is rejected
+		// before being copied or even entirely trimmed
+		CharSequence text = TextSanitizer.toCharSequence(value);
 		
-		int stringLength = stringValue.length();
+		int start = policy.trimStart(text);
+		int end = policy.trimEnd(text, start);
+		
+		int stringLength = TextLengthSanitizer.measure(text, start, end,
+				minLength, maxLength, unit);
 		
 		if(minLength != Integer.MIN_VALUE && stringLength < minLength){
 			throw new BadFormatException("The value needs to have at least "
-					+ minLength + " characters!", FORMAT_MIN_LENGTH);
+					+ minLength + " " + unit.getDescription() + "!",
+					FORMAT_MIN_LENGTH);
 		}
 		else if(maxLength != Integer.MAX_VALUE && stringLength > maxLength){
 			throw new BadFormatException("The value cannot have more than "
-					+ maxLength + " characters!", FORMAT_MAX_LENGTH);
+					+ maxLength + " " + unit.getDescription() + "!",
+					FORMAT_MAX_LENGTH);
+		}
+		
+		return text.subSequence(start, end).toString();
+		
+	}
+	
+	/**
+	 * Sanitizes any object to a String value with a length measured in the
+	 * given {@code unit} that is at least the given {@code minLength}
+	 * parameter and at most the given {@code maxLength} parameter, recording
+	 * the error in the given {@code context} instead of throwing it. The String
+	 * is only built once its length is accepted.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}
+	 *            with the policy of the {@code context}.
+	 * @param minLength
+	 *            The minimum length accepted for the String
+	 * @param maxLength
+	 *            The maximum length accepted for the String
+	 * @param unit
+	 *            The unit in which the length of the String is measured.
+	 * @param context
+	 *            The context recording the error, if any. Possible codes are
+	 *            the ones of
+	 *            {@link #sanitizeValue(Object, int, int, LengthUnit)}.
+	 * @return The String object as if the
+	 *         {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}
+	 *         method was used, or {@code null} if an error was recorded.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the {@code minLength} parameter's integer value is
+	 *             bigger than the {@code maxLength} parameter's integer value.
+	 * @see SanitizeContext
+	 */
+	public static String sanitizeValue(Object value, int minLength,
+			int maxLength, LengthUnit unit, SanitizeContext context)
+			throws IllegalArgumentException{
+		
+		if(minLength > maxLength){
+			throw new IllegalArgumentException(
+					"The argument minLength shouldn't be bigger than the argument maxLength.");
+		}
+		
+		CharSequence text = context.toCharSequence(value);
+		
+		WhitespacePolicy policy = context.getWhitespacePolicy();
+		
+		int start = policy.trimStart(text);
+		int end = policy.trimEnd(text, start);
+		
+		int stringLength = TextLengthSanitizer.measure(text, start, end,
+				minLength, maxLength, unit);
+		
+		if(minLength != Integer.MIN_VALUE && stringLength < minLength){
+			context.fail(FORMAT_MIN_LENGTH, "The value needs to have at least "
+					+ "{0} " + unit.getDescription() + "!", minLength, 0);
+			return null;
+		}
+		else if(maxLength != Integer.MAX_VALUE && stringLength > maxLength){
+			context.fail(FORMAT_MAX_LENGTH, "The value cannot have more than "
+					+ "{0} " + unit.getDescription() + "!", maxLength, 0);
+			return null;
+		}
+		
+		return text.subSequence(start, end).toString();
+		
+	}
+	
+	private static int measure(CharSequence text, int start, int end,
+			int minLength, int maxLength, LengthUnit unit){
+		
+		int units = end - start;
+		
+		if(unit.lowerBound(units) > maxLength){
+			return unit.lowerBound(units);
+		}
+		else if(unit.upperBound(units) < minLength){
+			return unit.upperBound(units);
+		}
+		else if(unit.lowerBound(units) >= minLength
+				&& unit.upperBound(units) <= maxLength){
+			// Any length the value can have is accepted
+			return units;
 		}
 		
-		return stringValue;
+		return unit.measure(text, start, end, maxLength);
 		
 	}
 	
@@ -9,6 +9,12 @@ public class TextNotEmptySanitizer extends TextSanitizer {
 	 */
 	public static final int FORMAT_EMPTY = 1;
 	
+	/**
+	 * Estimated cost of sanitizing a non empty text, which scans the value
+	 * once to trim it.
+	 */
+	public static final int COST = 2;
+	
 	protected TextNotEmptySanitizer(){}
 	
 	/**
@@ -29,8 +35,35 @@ public class TextNotEmptySanitizer extends TextSanitizer {
 	 * @see TextSanitizer
 	 */
 	public static String sanitizeValue(Object value) throws BadFormatException{
+		return TextNotEmptySanitizer.sanitizeValue(value,
+				WhitespacePolicy.JAVA_TRIM);
+	}
+	
+	/**
+	 * Sanitizes any object to a String value, trimmed using the given
+	 * {@code policy}, that cannot be empty (of length {@code 0}).
+	 *
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}.
+	 * @param policy
+	 *            The policy defining which characters are trimmed from the
+	 *            start and the end of the String value.
+	 * @return the String object as if the
+	 *         {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}
+	 *         method was used.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_EMPTY} : if the String's length is 0.</li>
+	 *             </ul>
+	 * @see WhitespacePolicy
+	 */
+	public static String sanitizeValue(Object value, WhitespacePolicy policy)
+			throws BadFormatException{
 		
-		String stringValue = TextSanitizer.sanitizeValue(value);
+		String stringValue = TextSanitizer.sanitizeValue(value, policy);
 		
 		if(stringValue.length() == 0){
 			throw new BadFormatException("Value cannot be empty!", FORMAT_EMPTY);
@@ -40,4 +73,39 @@ public class TextNotEmptySanitizer extends TextSanitizer {
 		
 	}
 	
+	/**
+	 * Sanitizes any object to a String value that cannot be empty, recording
+	 * the error in the given {@code context} instead of throwing it.
+	 *
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}
+	 *            with the policy of the {@code context}.
+	 * @param context
+	 *            The context recording the error, if any. Possible codes are
+	 *            the ones of {@link #sanitizeValue(Object)}.
+	 * @return the String object as if the
+	 *         {@link TextSanitizer#sanitizeValue(Object)} method was used, or
+	 *         {@code null} if an error was recorded.
+	 * @see SanitizeContext
+	 */
+	public static String sanitizeValue(Object value, SanitizeContext context){
+		
+		CharSequence text = context.toCharSequence(value);
+		
+		WhitespacePolicy policy = context.getWhitespacePolicy();
+		
+		int start = policy.trimStart(text);
+		int end = policy.trimEnd(text, start);
+		
+		if(start == end){
+			context.fail(FORMAT_EMPTY, "Value cannot be empty!");
+			return null;
+		}
+		
+		// The only String built, unless the value is a String already trimmed
+		return text.subSequence(start, end).toString();
+		
+	}
+	
 }
@@ -15,6 +15,11 @@ public class TextRegexSanitizer extends TextSanitizer {
 	 */
 	public static final int FORMAT_NOT_MATCHING_PATTERN = 1;
 	
+	/**
+	 * Estimated cost of matching a text with a regex, which may backtrack.
+	 */
+	public static final int COST = 16;
+	
 	protected TextRegexSanitizer(){}
 	
 	/**
@@ -127,8 +132,55 @@ public class TextRegexSanitizer extends TextSanitizer {
 	public static String sanitizeValue(Object value, String regexToMatch,
 			boolean isInverted, boolean isSubFormat) throws BadFormatException,
 			PatternSyntaxException{
+		return TextRegexSanitizer.sanitizeValue(value, regexToMatch,
+				isInverted, isSubFormat, WhitespacePolicy.JAVA_TRIM);
+	}
+	
+	/**
+	 * Sanitizes any object to a String value, trimmed using the given
+	 * {@code policy}, and confirm its format using the given
+	 * {@code regexToMatch} parameter. See
+	 * {@link #sanitizeValue(Object, String, boolean, boolean)} for the
+	 * meaning of the {@code isInverted} and {@code isSubFormat} flags.
+	 *
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}.
+	 * @param regexToMatch
+	 *            The regex to match the given value against.
+	 * @param isInverted
+	 *            Sets a flag that makes the method throw a
+	 *            {@link BadFormatException} when the given value actually
+	 *            matches (instead of throwing when not matching) if set to
+	 *            {@code true}.
+	 * @param isSubFormat
+	 *            Sets a flag that makes the method modify the regex to make the
+	 *            given regex part of the value given.
+	 * @param policy
+	 *            The policy defining which characters are trimmed from the
+	 *            start and the end of the String value.
+	 * @return The String object as if the
+	 *         {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}
+	 *         method was used.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_NOT_MATCHING_PATTERN}: if the String does
+	 *             not match the pattern given in the {@code regexToMatch}
+	 *             parameter (or matches if parameter {@code isInverted} is set
+	 *             to {@code true}).</li>
+	 *             </ul>
+	 * @throws PatternSyntaxException
+	 *             Thrown if the regex given (in the parameter
+	 *             {@code regexToMatch}) is not a valid pattern.
+	 * @see WhitespacePolicy
+	 */
+	public static String sanitizeValue(Object value, String regexToMatch,
+			boolean isInverted, boolean isSubFormat, WhitespacePolicy policy)
+			throws BadFormatException, PatternSyntaxException{
 		
-		String stringValue = TextSanitizer.sanitizeValue(value);
+		String stringValue = TextSanitizer.sanitizeValue(value, policy);
 		
 		if(regexToMatch != null){
 			
@@ -143,12 +195,7 @@ public class TextRegexSanitizer extends TextSanitizer {
 			// Test if Regex provided is valid
 			Pattern pattern = Pattern.compile(realRegex);
 			
-			// Test regex and invert if we need to
-			if(pattern.matcher(stringValue).matches() == isInverted){
-				throw new BadFormatException(
-						"Value does not match the required pattern!",
-						FORMAT_NOT_MATCHING_PATTERN);
-			}
+			TextRegexSanitizer.verify(stringValue, pattern, isInverted);
 			
 		}
 		
@@ -156,4 +203,92 @@ public class TextRegexSanitizer extends TextSanitizer {
 		
 	}
 	
+	/**
+	 * Sanitizes any object to a String value and confirm its format using the
+	 * given precompiled {@code pattern}, which avoids compiling the regex on
+	 * every call.
+	 *
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object)}.
+	 * @param pattern
+	 *            The pattern the value has to entirely match.
+	 * @return The String object as if the
+	 *         {@link TextSanitizer#sanitizeValue(Object)} method was used.
+	 * @throws BadFormatException
+	 *             Thrown if the value's format is not matching this sanitizer's
+	 *             purpose. Possible codes are :
+	 *             <ul>
+	 *             <li>{@link #FORMAT_NOT_MATCHING_PATTERN}: if the String does
+	 *             not match the given {@code pattern}.</li>
+	 *             </ul>
+	 */
+	public static String sanitizeValue(Object value, Pattern pattern)
+			throws BadFormatException{
+		
+		String stringValue = TextSanitizer.sanitizeValue(value);
+		
+		TextRegexSanitizer.verify(stringValue, pattern, false);
+		
+		return stringValue;
+		
+	}
+	
+	/**
+	 * Sanitizes any object to a String value and confirm its format using the
+	 * given precompiled {@code pattern}, recording the error in the given
+	 * {@code context} instead of throwing it. The value is trimmed and matched
+	 * in place, and the String is only built once it matched.
+	 *
+	 * @param value
+	 *            Any object to extract a String value out of it using
+	 *            {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}
+	 *            with the policy of the {@code context}.
+	 * @param pattern
+	 *            The pattern the value has to entirely match.
+	 * @param context
+	 *            The context recording the error, if any. Possible codes are
+	 *            the ones of {@link #sanitizeValue(Object, Pattern)}.
+	 * @return The String object as if the
+	 *         {@link TextSanitizer#sanitizeValue(Object, WhitespacePolicy)}
+	 *         method was used, or {@code null} if an error was recorded.
+	 * @see SanitizeContext
+	 */
+	public static String sanitizeValue(Object value, Pattern pattern,
+			SanitizeContext context){
+		
+		CharSequence text = context.toCharSequence(value);
+		
+		WhitespacePolicy policy = context.getWhitespacePolicy();
+		
+		int start = policy.trimStart(text);
+		int end = policy.trimEnd(text, start);
+		
+		boolean isMatching = context.matcher(pattern,
+				context.slice(text, start, end)).matches();
+		
+		context.release();
+		
+		if(!isMatching){
+			context.fail(FORMAT_NOT_MATCHING_PATTERN,
+					"Value does not match the required pattern!");
+			return null;
+		}
+		
+		return text.subSequence(start, end).toString();
+		
+	}
+	
+	private static void verify(String stringValue, Pattern pattern,
+			boolean isInverted) throws BadFormatException{
+		
+		// Test regex and invert if we need to
+		if(pattern.matcher(stringValue).matches() == isInverted){
+			throw new BadFormatException(
+					"Value does not match the required pattern!",
+					FORMAT_NOT_MATCHING_PATTERN);
+		}
+		
+	}
+	
 }
@@ -5,6 +5,32 @@ package io.github.ved.jsanitizers;
  */
 public class TextSanitizer extends Sanitizer<String> {
 	
+	/**
+	 * Option of {@link #normalizeValue(Object, int, WhitespacePolicy)} removing
+	 * the whitespace characters at the start and the end of the text.
+	 */
+	public static final int TRIM = 1;
+	
+	/**
+	 * Option of {@link #normalizeValue(Object, int, WhitespacePolicy)}
+	 * replacing each run of whitespace characters by a single space.
+	 */
+	public static final int COLLAPSE_WHITESPACE = 2;
+	
+	/**
+	 * Option of {@link #normalizeValue(Object, int, WhitespacePolicy)} removing
+	 * the C0 and C1 control characters (and {@code DEL}) that are not
+	 * whitespace characters.
+	 */
+	public static final int STRIP_CONTROLS = 4;
+	
+	/**
+	 * Option of {@link #normalizeValue(Object, int, WhitespacePolicy)} removing
+	 * the invisible zero width characters : zero width space, (non-)joiners,
+	 * word joiner, byte order mark and Mongolian vowel separator.
+	 */
+	public static final int STRIP_ZERO_WIDTH = 8;
+	
 	protected TextSanitizer(){}
 	
 	/**
@@ -18,11 +44,269 @@ public class TextSanitizer extends Sanitizer<String> {
 	 *         is {@code null}, it returns an empty String ({@code ""}).
 	 */
 	public static String sanitizeValue(Object value){
+		return TextSanitizer.sanitizeValue(value, WhitespacePolicy.JAVA_TRIM);
+	}
+	
+	/**
+	 * Sanitizes any object to a String value (using the object's
+	 * {@code toString()} method), trimmed of the whitespace characters defined
+	 * by the given {@code policy}.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of its
+	 *            {@code toString()} method.
+	 * @param policy
+	 *            The policy defining which characters are trimmed from the
+	 *            start and the end of the String value.
+	 * @return The String value of the object given as parameter. If the value
+	 *         is {@code null}, it returns an empty String ({@code ""}).
+	 * @see WhitespacePolicy
+	 */
+	public static String sanitizeValue(Object value, WhitespacePolicy policy){
+		
+		// Only copies the trimmed part of the text, if anything was trimmed
+		return policy.trim(TextSanitizer.toCharSequence(value));
+		
+	}
+	
+	/**
+	 * Normalizes any object's String value in a single pass using the given
+	 * {@code options}. A whitespace character of the given {@code policy} is
+	 * never stripped as a control character : it is trimmed or collapsed
+	 * instead if those options are given. The characters stripped inside of a
+	 * run of whitespace characters do not break the run.
+	 * <p>
+	 * The result is only built when the value actually changes : if the value
+	 * is a String that is already normalized, the same instance is returned.
+	 * 
+	 * @param value
+	 *            Any object to extract a String value out of its
+	 *            {@code toString()} method.
+	 * @param options
+	 *            The combination (using {@code |}) of the normalizations to
+	 *            apply, among {@link #TRIM}, {@link #COLLAPSE_WHITESPACE},
+	 *            {@link #STRIP_CONTROLS} and {@link #STRIP_ZERO_WIDTH}.
+	 * @param policy
+	 *            The policy defining which characters are whitespace. It is
+	 *            required since the policies disagree on the control
+	 *            characters : {@link WhitespacePolicy#JAVA_TRIM} trims and
+	 *            collapses them while {@link WhitespacePolicy#UNICODE} leaves
+	 *            them to {@link #STRIP_CONTROLS}.
+	 * @return The normalized String value of the object given as parameter.
+	 *         If the value is {@code null}, it returns an empty String
+	 *         ({@code ""}).
+	 */
+	public static String normalizeValue(Object value, int options,
+			WhitespacePolicy policy){
+		
+		CharSequence text = TextSanitizer.toCharSequence(value);
+		
+		Normalization normalization = new Normalization(text, options, policy);
+		
+		for(int i = 0; i < text.length(); i++){
+			normalization.accept(i);
+		}
+		
+		return normalization.finish();
+		
+	}
+	
+	/**
+	 * Gets the text of any object without copying it when the object already
+	 * is a {@link CharSequence}.
+	 * 
+	 * @param value
+	 *            Any object to get the text of.
+	 * @return The object itself if it is a {@link CharSequence}, an empty
+	 *         String if it is {@code null}, or the return of its
+	 *         {@code toString()} method otherwise.
+	 */
+	static CharSequence toCharSequence(Object value){
 		
-		if(value == null)
+		if(value == null){
 			return "";
+		}
+		
+		if(value instanceof CharSequence){
+			return (CharSequence)value;
+		}
+		
+		return value.toString();
+		
+	}
+	
+	/**
+	 * State of a single pass of
+	 * {@link TextSanitizer#normalizeValue(Object, int, WhitespacePolicy)}.
+	 * As long as the output is an unchanged part of the text, it is only
+	 * tracked as the range {@code [from, to)} of the text; the builder is
+	 * created (sized once to the text's length, which the output never
+	 * exceeds) at the first char that differs.
+	 */
+	private static final class Normalization {
+		
+		private final CharSequence text;
+		private final WhitespacePolicy policy;
+		private final boolean isTrimming;
+		private final boolean isCollapsing;
+		private final boolean isStrippingControls;
+		private final boolean isStrippingZeroWidth;
+		
+		private StringBuilder builder;
+		private int from;
+		private int to;
+		private boolean hasOutput;
+		
+		// Start of the whitespace run not written to the output yet, or -1
+		private int whitespaceStart = -1;
+		
+		private Normalization(CharSequence text, int options,
+				WhitespacePolicy policy){
+			this.text = text;
+			this.policy = policy;
+			this.isTrimming = (options & TRIM) != 0;
+			this.isCollapsing = (options & COLLAPSE_WHITESPACE) != 0;
+			this.isStrippingControls = (options & STRIP_CONTROLS) != 0;
+			this.isStrippingZeroWidth = (options & STRIP_ZERO_WIDTH) != 0;
+		}
+		
+		private void accept(int index){
+			
+			char character = this.text.charAt(index);
+			
+			if(this.isStripped(character)){
+				return;
+			}
+			
+			if(this.policy.isWhitespace(character)
+					&& (this.isTrimming || this.isCollapsing)){
+				
+				if(this.whitespaceStart == -1){
+					this.whitespaceStart = index;
+				}
+				
+				return;
+				
+			}
+			
+			this.flushWhitespace(index);
+			this.write(index, character);
+			
+		}
+		
+		private String finish(){
+			
+			if(!this.isTrimming){
+				this.flushWhitespace(this.text.length());
+			}
+			
+			if(this.builder != null){
+				return this.builder.toString();
+			}
+			
+			if(this.from == 0 && this.to == this.text.length()
+					&& this.text instanceof String){
+				return (String)this.text;
+			}
+			
+			return this.text.subSequence(this.from, this.to).toString();
+			
+		}
+		
+		private boolean isStripped(char character){
+			
+			if(this.isStrippingZeroWidth && isZeroWidth(character)){
+				return true;
+			}
+			
+			return this.isStrippingControls && isControl(character)
+					&& !this.policy.isWhitespace(character);
+			
+		}
+		
+		private void flushWhitespace(int end){
+			
+			int start = this.whitespaceStart;
+			
+			if(start == -1){
+				return;
+			}
+			
+			this.whitespaceStart = -1;
+			
+			if(this.isTrimming && !this.hasOutput){
+				return;
+			}
+			
+			if(this.isCollapsing){
+				this.write(start, ' ');
+			}
+			else{
+				
+				for(int i = start; i < end; i++){
+					
+					char character = this.text.charAt(i);
+					
+					if(!this.isStripped(character)){
+						this.write(i, character);
+					}
+					
+				}
+				
+			}
+			
+		}
+		
+		private void write(int index, char character){
+			
+			this.hasOutput = true;
+			
+			if(this.builder != null){
+				this.builder.append(character);
+			}
+			else if(character != this.text.charAt(index)){
+				this.startBuilder(character);
+			}
+			else if(this.from == this.to){
+				this.from = index;
+				this.to = index + 1;
+			}
+			else if(this.to == index){
+				this.to++;
+			}
+			else{
+				this.startBuilder(character);
+			}
+			
+		}
+		
+		private void startBuilder(char character){
+			
+			this.builder = new StringBuilder(this.text.length());
+			this.builder.append(this.text, this.from, this.to);
+			this.builder.append(character);
+			
+		}
+		
+		private static boolean isControl(char character){
+			return character < 0x20 || (character >= 0x7F && character <= 0x9F);
+		}
 		
-		return value.toString().trim();
+		private static boolean isZeroWidth(char character){
+			
+			switch(character){
+			case '\u200B':
+			case '\u200C':
+			case '\u200D':
+			case '\u2060':
+			case '\uFEFF':
+			case '\u180E':
+				return true;
+			default:
+				return false;
+			}
+			
+		}
 		
 	}
 	
@@ -0,0 +1,162 @@
+package io.github.ved.jsanitizers;
+
+/**
+ * Defines which characters are trimmed from the start and the end of texts by
+ * {@link TextSanitizer} and the sanitizers built on it. Each policy is backed
+ * by a precomputed table covering the Basic Multilingual Plane (where every
+ * whitespace character lives), so classifying a character is a single lookup
+ * whatever the policy.
+ */
+public final class WhitespacePolicy {
+	
+	private static final int TABLE_SIZE = Character.MAX_VALUE + 1;
+	
+	/**
+	 * Only the ASCII whitespace characters : space, tab, line feed, vertical
+	 * tab, form feed and carriage return.
+	 */
+	public static final WhitespacePolicy ASCII = WhitespacePolicy
+			.of(" \t\n\u000B\f\r");
+	
+	/**
+	 * Every character up to and including the space ({@code U+0020}), which
+	 * are the characters removed by {@link String#trim()}. This is the policy
+	 * used when none is given.
+	 */
+	public static final WhitespacePolicy JAVA_TRIM;
+	
+	/**
+	 * The characters for which {@link Character#isWhitespace(char)} is
+	 * {@code true}. Note that it excludes the non-breaking spaces.
+	 */
+	public static final WhitespacePolicy JAVA_WHITESPACE;
+	
+	/**
+	 * The characters having the Unicode {@code White_Space} property, which
+	 * includes the non-breaking spaces ({@code U+00A0}, {@code U+2007},
+	 * {@code U+202F}) and the ideographic space.
+	 */
+	public static final WhitespacePolicy UNICODE = WhitespacePolicy
+			.of(" \t\n\u000B\f\r\u0085\u00A0\u1680\u2000\u2001\u2002\u2003"
+					+ "\u2004\u2005\u2006\u2007\u2008\u2009\u200A\u2028\u2029"
+					+ "\u202F\u205F\u3000");
+	
+	static{
+		
+		long[] javaTrim = new long[TABLE_SIZE / 64];
+		long[] javaWhitespace = new long[TABLE_SIZE / 64];
+		
+		for(int character = 0; character < TABLE_SIZE; character++){
+			
+			if(character <= ' '){
+				set(javaTrim, character);
+			}
+			
+			if(Character.isWhitespace(character)){
+				set(javaWhitespace, character);
+			}
+			
+		}
+		
+		JAVA_TRIM = new WhitespacePolicy(javaTrim);
+		JAVA_WHITESPACE = new WhitespacePolicy(javaWhitespace);
+		
+	}
+	
+	private final long[] table;
+	
+	private WhitespacePolicy(long[] table){
+		this.table = table;
+	}
+	
+	/**
+	 * Builds a policy trimming exactly the given characters.
+	 * 
+	 * @param characters
+	 *            The characters to consider as whitespace.
+	 * @return The policy trimming the given characters.
+	 */
+	public static WhitespacePolicy of(CharSequence characters){
+		
+		long[] table = new long[TABLE_SIZE / 64];
+		
+		for(int i = 0; i < characters.length(); i++){
+			set(table, characters.charAt(i));
+		}
+		
+		return new WhitespacePolicy(table);
+		
+	}
+	
+	/**
+	 * @param character
+	 *            The character to test.
+	 * @return {@code true} if the character is whitespace for this policy,
+	 *         {@code false} otherwise.
+	 */
+	public boolean isWhitespace(char character){
+		return (this.table[character >>> 6] & (1L << character)) != 0;
+	}
+	
+	/**
+	 * Finds where the text starts once trimmed.
+	 * 
+	 * @param text
+	 *            The text to trim.
+	 * @return The index of the first char that is not trimmed.
+	 */
+	public int trimStart(CharSequence text){
+		
+		int start = 0;
+		
+		while(start < text.length() && this.isWhitespace(text.charAt(start))){
+			start++;
+		}
+		
+		return start;
+		
+	}
+	
+	/**
+	 * Finds where the text ends once trimmed.
+	 * 
+	 * @param text
+	 *            The text to trim.
+	 * @param start
+	 *            The index where the trimmed text starts, as returned by
+	 *            {@link #trimStart(CharSequence)}.
+	 * @return The index after the last char that is not trimmed.
+	 */
+	public int trimEnd(CharSequence text, int start){
+		
+		int end = text.length();
+		
+		while(end > start && this.isWhitespace(text.charAt(end - 1))){
+			end--;
+		}
+		
+		return end;
+		
+	}
+	
+	/**
+	 * Trims the text from the whitespace characters of this policy.
+	 * 
+	 * @param text
+	 *            The text to trim.
+	 * @return The trimmed text. If nothing was trimmed and the text is a
+	 *         String, the text itself is returned.
+	 */
+	public String trim(CharSequence text){
+		
+		int start = this.trimStart(text);
+		
+		return text.subSequence(start, this.trimEnd(text, start)).toString();
+		
+	}
+	
+	private static void set(long[] table, int character){
+		table[character >>> 6] |= 1L << character;
+	}
+	
+}
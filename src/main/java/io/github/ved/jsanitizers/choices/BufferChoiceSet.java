@@ -0,0 +1,642 @@
+package io.github.ved.jsanitizers.choices;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Set of choices whose whole lookup structure lives in a {@link ByteBuffer},
+ * such as a memory-mapped file. A set is compiled once (for example at build
+ * time) with {@link #write(ChoiceHashSet, OutputStream)}, then loaded with
+ * {@link #map(Path)} or {@link #wrap(ByteBuffer)}, which checks that every
+ * offset stays within the buffer : nothing is allocated per choice, and
+ * lookups read the buffer directly, comparing values with the UTF-8 encoded
+ * choices without decoding them.
+ * <p>
+ * The format, in big-endian order, is a header followed by three sections :
+ * <ul>
+ * <li>Header : the magic number {@code "JSCS"}, the format version, the
+ * {@link ChoiceMatching} ordinal, the amount of choices and the amount of
+ * slots of the table (a power of 2), as {@code int}s.</li>
+ * <li>Slots : one {@code int} per slot, holding the index of the choice plus
+ * one, or {@code 0} for an empty slot. Choices are placed by linear probing
+ * from their hash.</li>
+ * <li>Entries : per choice, its hash, then the offset and length of the
+ * choice and the offset and length of its key (the choice folded by the
+ * matching mode) in the data section, as {@code int}s.</li>
+ * <li>Data : the UTF-8 bytes of the choices and keys. A key equal to its
+ * choice is not stored twice.</li>
+ * </ul>
+ * Offsets being {@code int}s, a set cannot exceed 2 GiB.
+ * <p>
+ * Sets too big to be held as Strings can be built off-heap with
+ * {@link #builder(ChoiceMatching)} : choices are encoded into direct buffers
+ * as they are added, so the heap used by the builder and the built set stays
+ * the same whatever the amount of choices. The only choices held as Strings
+ * are the last ones decoded by {@link #get(int)}, in a table of at most 1024
+ * entries.
+ */
+public final class BufferChoiceSet implements ChoiceSet {
+	
+	static final int MAGIC = 0x4A534353;
+	static final int VERSION = 1;
+	
+	static final int HEADER_SIZE = 20;
+	static final int ENTRY_SIZE = 20;
+	
+	private static final int ENTRY_HASH = 0;
+	private static final int ENTRY_CHOICE_OFFSET = 4;
+	private static final int ENTRY_CHOICE_LENGTH = 8;
+	private static final int ENTRY_KEY_OFFSET = 12;
+	private static final int ENTRY_KEY_LENGTH = 16;
+	
+	private static final int MAXIMUM_DECODED_CHOICES = 1024;
+	
+	private final ByteBuffer buffer;
+	private final ChoiceMatching matching;
+	private final int size;
+	private final int slotMask;
+	private final int entriesStart;
+	private final int dataStart;
+	
+	// Choices decoded by get(int), by index modulo the table length
+	private final DecodedChoice[] decodedChoices;
+	
+	private BufferChoiceSet(ByteBuffer buffer, ChoiceMatching matching,
+			int size, int slotCount){
+		this.buffer = buffer;
+		this.matching = matching;
+		this.size = size;
+		this.slotMask = slotCount - 1;
+		this.entriesStart = HEADER_SIZE + 4 * slotCount;
+		this.dataStart = this.entriesStart + ENTRY_SIZE * size;
+		this.decodedChoices = new DecodedChoice[size <= 1 ? 1 : Math.min(
+				MAXIMUM_DECODED_CHOICES, Integer.highestOneBit(size - 1) << 1)];
+	}
+	
+	/**
+	 * Uses a buffer holding a compiled set. The buffer is used as is, from
+	 * index {@code 0} : it must not be modified while the set is used. Every
+	 * slot, offset and length is checked against the buffer's limit, so a
+	 * corrupted or truncated set is rejected here rather than failing later
+	 * in a lookup. This reads the slots and entries sections once.
+	 * 
+	 * @param buffer
+	 *            The buffer holding the set, as written by
+	 *            {@link #write(ChoiceHashSet, OutputStream)}.
+	 * @return The set read from the buffer.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the buffer does not hold a set of a supported
+	 *             version, or if the set it holds is corrupted.
+	 */
+	public static BufferChoiceSet wrap(ByteBuffer buffer)
+			throws IllegalArgumentException{
+		
+		if(buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC){
+			throw new IllegalArgumentException(
+					"The buffer does not hold a choice set!");
+		}
+		
+		if(buffer.getInt(4) != VERSION){
+			throw new IllegalArgumentException("The choice set version "
+					+ buffer.getInt(4) + " is not supported!");
+		}
+		
+		int matching = buffer.getInt(8);
+		int size = buffer.getInt(12);
+		int slotCount = buffer.getInt(16);
+		
+		if(matching < 0 || matching >= ChoiceMatching.values().length
+				|| size < 0 || slotCount <= size
+				|| Integer.bitCount(slotCount) != 1
+				|| (long)HEADER_SIZE + 4L * slotCount + (long)ENTRY_SIZE * size > buffer
+						.limit()){
+			throw new IllegalArgumentException(
+					"The choice set header is corrupted!");
+		}
+		
+		BufferChoiceSet set = new BufferChoiceSet(buffer,
+				ChoiceMatching.values()[matching], size, slotCount);
+		
+		set.verify();
+		
+		return set;
+		
+	}
+	
+	/**
+	 * Maps a file holding a compiled set into memory. The file is only read
+	 * by the operating system as the set is queried.
+	 * 
+	 * @param path
+	 *            The file holding the set, as written by
+	 *            {@link #write(ChoiceHashSet, OutputStream)}.
+	 * @return The set mapped from the file.
+	 * @throws IOException
+	 *             Thrown if the file cannot be mapped.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the file does not hold a set of a supported
+	 *             version.
+	 */
+	public static BufferChoiceSet map(Path path) throws IOException,
+			IllegalArgumentException{
+		
+		// The mapping stays valid once the channel is closed
+		try(FileChannel channel = FileChannel.open(path,
+				StandardOpenOption.READ)){
+			return BufferChoiceSet.wrap(channel.map(
+					FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+		
+	}
+	
+	/**
+	 * Compiles a set into its binary format. The indexes of the choices, and
+	 * its matching mode, are kept.
+	 * 
+	 * @param choices
+	 *            The set to compile.
+	 * @param out
+	 *            The output to write the compiled set to. It is not closed.
+	 * @throws IOException
+	 *             Thrown if the output fails.
+	 * @throws IllegalArgumentException
+	 *             Thrown if a choice contains an unpaired surrogate, which
+	 *             cannot be encoded in UTF-8, or if the set is too big.
+	 */
+	public static void write(ChoiceHashSet choices, OutputStream out)
+			throws IOException, IllegalArgumentException{
+		
+		ChoiceMatching matching = choices.getMatching();
+		
+		int size = choices.size();
+		int slotCount = ChoiceHashSet.tableSize(size);
+		
+		byte[][] choiceBytes = new byte[size][];
+		byte[][] keyBytes = new byte[size][];
+		long dataSize = 0;
+		
+		for(int i = 0; i < size; i++){
+			
+			String choice = choices.get(i);
+			String key = matching.key(choice);
+			
+			choiceBytes[i] = Utf8.encode(choice);
+			keyBytes[i] = key.equals(choice) ? null : Utf8.encode(key);
+			
+			dataSize += choiceBytes[i].length
+					+ (keyBytes[i] == null ? 0 : keyBytes[i].length);
+			
+		}
+		
+		long totalSize = HEADER_SIZE + 4L * slotCount + (long)ENTRY_SIZE
+				* size + dataSize;
+		
+		if(totalSize > Integer.MAX_VALUE){
+			throw new IllegalArgumentException(
+					"The choice set is too big to be compiled!");
+		}
+		
+		ByteBuffer buffer = ByteBuffer.allocate((int)totalSize);
+		
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(matching.ordinal())
+				.putInt(size).putInt(slotCount);
+		
+		int entriesStart = HEADER_SIZE + 4 * slotCount;
+		int dataStart = entriesStart + ENTRY_SIZE * size;
+		int dataOffset = 0;
+		
+		for(int i = 0; i < size; i++){
+			
+			int hash = ChoiceMatching.EXACT.hash(matching.key(choices.get(i)));
+			
+			int slot = hash & (slotCount - 1);
+			
+			while(buffer.getInt(HEADER_SIZE + 4 * slot) != 0){
+				slot = (slot + 1) & (slotCount - 1);
+			}
+			
+			buffer.putInt(HEADER_SIZE + 4 * slot, i + 1);
+			
+			int entry = entriesStart + ENTRY_SIZE * i;
+			
+			buffer.putInt(entry + ENTRY_HASH, hash);
+			buffer.putInt(entry + ENTRY_CHOICE_OFFSET, dataOffset);
+			buffer.putInt(entry + ENTRY_CHOICE_LENGTH, choiceBytes[i].length);
+			
+			section(buffer, dataStart + dataOffset, choiceBytes[i].length).put(
+					choiceBytes[i]);
+			
+			int keyOffset = dataOffset;
+			byte[] key = choiceBytes[i];
+			
+			dataOffset += choiceBytes[i].length;
+			
+			if(keyBytes[i] != null){
+				
+				keyOffset = dataOffset;
+				key = keyBytes[i];
+				
+				section(buffer, dataStart + dataOffset, key.length).put(key);
+				
+				dataOffset += keyBytes[i].length;
+				
+			}
+			
+			buffer.putInt(entry + ENTRY_KEY_OFFSET, keyOffset);
+			buffer.putInt(entry + ENTRY_KEY_LENGTH, key.length);
+			
+		}
+		
+		out.write(buffer.array());
+		
+	}
+	
+	/**
+	 * Starts building a set in direct buffers, outside of the heap.
+	 * 
+	 * @param matching
+	 *            The way values are matched against the choices.
+	 * @return The builder of the set.
+	 */
+	public static Builder builder(ChoiceMatching matching){
+		return new Builder(matching);
+	}
+	
+	/**
+	 * @return The matching mode of this set.
+	 */
+	public ChoiceMatching getMatching(){
+		return this.matching;
+	}
+	
+	@Override
+	public int size(){
+		return this.size;
+	}
+	
+	@Override
+	public int indexOf(CharSequence value){
+		
+		CharSequence normalized = this.matching.normalize(value);
+		
+		int hash = this.matching.hash(normalized);
+		
+		for(int slot = hash & this.slotMask;; slot = (slot + 1)
+				& this.slotMask){
+			
+			int index = this.buffer.getInt(HEADER_SIZE + 4 * slot) - 1;
+			
+			if(index == -1){
+				return -1;
+			}
+			
+			int entry = this.entriesStart + ENTRY_SIZE * index;
+			
+			if(this.buffer.getInt(entry + ENTRY_HASH) == hash
+					&& Utf8.matches(normalized, this.matching, this.buffer,
+							this.dataStart
+									+ this.buffer.getInt(entry
+											+ ENTRY_KEY_OFFSET), this.buffer
+									.getInt(entry + ENTRY_KEY_LENGTH))){
+				return index;
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Gets the choice at the given index, decoding it from the buffer. The
+	 * decoded choices are kept in a table of at most 1024 entries : in a set
+	 * that small, the same instance is returned on every call, and in a
+	 * bigger one the choices that keep being asked for are only decoded again
+	 * when another choice took their entry.
+	 */
+	@Override
+	public String get(int index){
+		
+		if(index < 0 || index >= this.size){
+			throw new IndexOutOfBoundsException("Index " + index
+					+ " is out of the " + this.size + " choices!");
+		}
+		
+		int slot = index & (this.decodedChoices.length - 1);
+		
+		DecodedChoice decoded = this.decodedChoices[slot];
+		
+		if(decoded != null && decoded.index == index){
+			return decoded.choice;
+		}
+		
+		int entry = this.entriesStart + ENTRY_SIZE * index;
+		
+		String choice = Utf8.decode(this.buffer, this.dataStart
+				+ this.buffer.getInt(entry + ENTRY_CHOICE_OFFSET), this.buffer
+				.getInt(entry + ENTRY_CHOICE_LENGTH));
+		
+		this.decodedChoices[slot] = new DecodedChoice(index, choice);
+		
+		return choice;
+		
+	}
+	
+	private void verify() throws IllegalArgumentException{
+		
+		int usedSlots = 0;
+		
+		for(int slot = 0; slot <= this.slotMask; slot++){
+			
+			int index = this.buffer.getInt(HEADER_SIZE + 4 * slot);
+			
+			if(index < 0 || index > this.size){
+				throw new IllegalArgumentException("The slot " + slot
+						+ " of the choice set is corrupted!");
+			}
+			
+			if(index != 0){
+				usedSlots++;
+			}
+			
+		}
+		
+		// An empty slot has to remain for the lookups to end
+		if(usedSlots > this.size){
+			throw new IllegalArgumentException(
+					"The slots of the choice set are corrupted!");
+		}
+		
+		long dataSize = (long)this.buffer.limit() - this.dataStart;
+		
+		for(int index = 0; index < this.size; index++){
+			
+			int entry = this.entriesStart + ENTRY_SIZE * index;
+			
+			if(!isWithin(this.buffer.getInt(entry + ENTRY_CHOICE_OFFSET),
+					this.buffer.getInt(entry + ENTRY_CHOICE_LENGTH), dataSize)
+					|| !isWithin(this.buffer.getInt(entry + ENTRY_KEY_OFFSET),
+							this.buffer.getInt(entry + ENTRY_KEY_LENGTH),
+							dataSize)){
+				throw new IllegalArgumentException("The choice " + index
+						+ " of the choice set is out of its buffer!");
+			}
+			
+		}
+		
+	}
+	
+	private static boolean isWithin(int offset, int length, long dataSize){
+		return offset >= 0 && length >= 0 && (long)offset + length <= dataSize;
+	}
+	
+	/**
+	 * @return A view of a part of the buffer, positioned at its start.
+	 */
+	private static ByteBuffer section(ByteBuffer buffer, int offset,
+			int length){
+		
+		ByteBuffer section = buffer.duplicate();
+		
+		// Through Buffer, as ByteBuffer only overrides these from Java 9
+		((Buffer)section).limit(offset + length).position(offset);
+		
+		return section;
+		
+	}
+	
+	/**
+	 * Builds a {@link BufferChoiceSet} in direct buffers, one choice at a
+	 * time. The table, entries and data sections are each kept in their own
+	 * direct buffer, which is doubled when full, and are only joined when the
+	 * set is built. Duplicates are detected by comparing the folded choice
+	 * with the keys already encoded, so no choice is kept as a String.
+	 */
+	public static final class Builder {
+		
+		// 2^26 choices take 2^27 slots : 512 MiB of slots and 1280 MiB of
+		// entries, which fit in a 2 GiB buffer. One more choice doubles the
+		// slots to 1 GiB, which does not
+		static final int MAXIMUM_SIZE = 1 << 26;
+		
+		private final ChoiceMatching matching;
+		
+		private ByteBuffer slots;
+		private ByteBuffer entries;
+		private ByteBuffer data;
+		
+		private int size;
+		private int slotCount;
+		private int dataSize;
+		
+		private Builder(ChoiceMatching matching){
+			
+			this.matching = matching;
+			
+			this.slotCount = ChoiceHashSet.tableSize(16);
+			this.slots = ByteBuffer.allocateDirect(4 * this.slotCount);
+			this.entries = ByteBuffer.allocateDirect(ENTRY_SIZE * 16);
+			this.data = ByteBuffer.allocateDirect(256);
+			
+		}
+		
+		/**
+		 * @return The amount of distinct choices added so far.
+		 */
+		public int size(){
+			return this.size;
+		}
+		
+		/**
+		 * Adds a choice to the set, unless it matches a choice already added,
+		 * in which case the first choice is kept.
+		 * 
+		 * @param choice
+		 *            The choice to add.
+		 * @return The index of the choice in the set.
+		 * @throws IllegalArgumentException
+		 *             Thrown if the choice contains an unpaired surrogate, or if
+		 *             the set gets too big.
+		 */
+		public int add(String choice) throws IllegalArgumentException{
+			
+			String key = this.matching.key(choice);
+			int hash = ChoiceMatching.EXACT.hash(key);
+			
+			int slot = hash & (this.slotCount - 1);
+			
+			for(; this.slots.getInt(4 * slot) != 0; slot = (slot + 1)
+					& (this.slotCount - 1)){
+				
+				int index = this.slots.getInt(4 * slot) - 1;
+				int entry = ENTRY_SIZE * index;
+				
+				if(this.entries.getInt(entry + ENTRY_HASH) == hash
+						&& Utf8.matches(key, ChoiceMatching.EXACT, this.data,
+								this.entries.getInt(entry + ENTRY_KEY_OFFSET),
+								this.entries.getInt(entry + ENTRY_KEY_LENGTH))){
+					return index;
+				}
+				
+			}
+			
+			if(this.size == MAXIMUM_SIZE){
+				throw new IllegalArgumentException(
+						"The choice set cannot hold more than " + MAXIMUM_SIZE
+								+ " choices!");
+			}
+			
+			byte[] choiceBytes = Utf8.encode(choice);
+			byte[] keyBytes = key.equals(choice) ? null : Utf8.encode(key);
+			
+			long newDataSize = (long)this.dataSize + choiceBytes.length
+					+ (keyBytes == null ? 0 : keyBytes.length);
+			
+			boolean isRehashing = this.size + 1 > this.slotCount / 2;
+			
+			long newSlotCount = isRehashing ? 2L * this.slotCount
+					: this.slotCount;
+			
+			// Checked against the built buffer, so that build cannot fail
+			if(HEADER_SIZE + 4 * newSlotCount + (long)ENTRY_SIZE
+					* (this.size + 1) + newDataSize > Integer.MAX_VALUE){
+				throw new IllegalArgumentException(
+						"The choices are too big to be held in a buffer!");
+			}
+			
+			if(isRehashing){
+				
+				this.rehash((int)newSlotCount);
+				
+				slot = hash & (this.slotCount - 1);
+				
+				while(this.slots.getInt(4 * slot) != 0){
+					slot = (slot + 1) & (this.slotCount - 1);
+				}
+				
+			}
+			
+			this.entries = grow(this.entries, ENTRY_SIZE * this.size,
+					(long)ENTRY_SIZE * (this.size + 1));
+			this.data = grow(this.data, this.dataSize, newDataSize);
+			
+			int entry = ENTRY_SIZE * this.size;
+			int keyOffset = this.dataSize;
+			
+			this.entries.putInt(entry + ENTRY_HASH, hash);
+			this.entries.putInt(entry + ENTRY_CHOICE_OFFSET, this.dataSize);
+			this.entries.putInt(entry + ENTRY_CHOICE_LENGTH, choiceBytes.length);
+			
+			section(this.data, this.dataSize, choiceBytes.length).put(
+					choiceBytes);
+			
+			if(keyBytes != null){
+				
+				keyOffset += choiceBytes.length;
+				
+				section(this.data, keyOffset, keyBytes.length).put(keyBytes);
+				
+			}
+			
+			this.entries.putInt(entry + ENTRY_KEY_OFFSET, keyOffset);
+			this.entries.putInt(entry + ENTRY_KEY_LENGTH, keyBytes == null
+					? choiceBytes.length : keyBytes.length);
+			
+			this.slots.putInt(4 * slot, this.size + 1);
+			
+			this.dataSize = (int)newDataSize;
+			
+			return this.size++;
+			
+		}
+		
+		/**
+		 * Builds the set from the choices added so far, in a new direct
+		 * buffer. The builder can still be used afterwards, without affecting
+		 * the built set.
+		 * 
+		 * @return The set holding the choices added so far.
+		 * @throws IllegalArgumentException
+		 *             Thrown if the set is too big to be held in a buffer.
+		 */
+		public BufferChoiceSet build() throws IllegalArgumentException{
+			
+			long totalSize = HEADER_SIZE + 4L * this.slotCount
+					+ (long)ENTRY_SIZE * this.size + this.dataSize;
+			
+			if(totalSize > Integer.MAX_VALUE){
+				throw new IllegalArgumentException(
+						"The choice set is too big to be held in a buffer!");
+			}
+			
+			ByteBuffer buffer = ByteBuffer.allocateDirect((int)totalSize);
+			
+			buffer.putInt(MAGIC).putInt(VERSION)
+					.putInt(this.matching.ordinal()).putInt(this.size)
+					.putInt(this.slotCount);
+			
+			buffer.put(section(this.slots, 0, 4 * this.slotCount));
+			buffer.put(section(this.entries, 0, ENTRY_SIZE * this.size));
+			buffer.put(section(this.data, 0, this.dataSize));
+			
+			return BufferChoiceSet.wrap(buffer);
+			
+		}
+		
+		private void rehash(int newSlotCount){
+			
+			ByteBuffer newSlots = ByteBuffer
+					.allocateDirect((int)(4L * newSlotCount));
+			
+			for(int index = 0; index < this.size; index++){
+				
+				int slot = this.entries.getInt(ENTRY_SIZE * index + ENTRY_HASH)
+						& (newSlotCount - 1);
+				
+				while(newSlots.getInt(4 * slot) != 0){
+					slot = (slot + 1) & (newSlotCount - 1);
+				}
+				
+				newSlots.putInt(4 * slot, index + 1);
+				
+			}
+			
+			this.slots = newSlots;
+			this.slotCount = newSlotCount;
+			
+		}
+		
+		private static ByteBuffer grow(ByteBuffer buffer, int used, long needed){
+			
+			if(needed <= buffer.capacity()){
+				return buffer;
+			}
+			
+			int capacity = (int)Math.min(Integer.MAX_VALUE,
+					Math.max(needed, 2L * buffer.capacity()));
+			
+			ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+			grown.put(section(buffer, 0, used));
+			
+			return grown;
+			
+		}
+		
+	}
+	
+	private static final class DecodedChoice {
+		
+		private final int index;
+		private final String choice;
+		
+		private DecodedChoice(int index, String choice){
+			this.index = index;
+			this.choice = choice;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,276 @@
+package io.github.ved.jsanitizers.choices;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable open-addressing hash set of choices, matched according to a
+ * {@link ChoiceMatching} mode. The choices are folded once when the set is
+ * built, and lookups fold the value while hashing it, which makes
+ * case-insensitive matching as cheap as exact matching.
+ * <p>
+ * {@link #get(int)} returns the choices as they were written when the set was
+ * built, so a value matched ignoring case still gives back the canonical
+ * spelling of the choice.
+ */
+public final class ChoiceHashSet implements ChoiceSet {
+	
+	private final ChoiceMatching matching;
+	private final String[] choices;
+	private final String[] keys;
+	private final int[] hashes;
+	private final int[] slots;
+	
+	private ChoiceHashSet(ChoiceMatching matching, String[] choices,
+			String[] keys, int[] hashes, int[] slots){
+		this.matching = matching;
+		this.choices = choices;
+		this.keys = keys;
+		this.hashes = hashes;
+		this.slots = slots;
+	}
+	
+	/**
+	 * Builds a set matching the given choices exactly.
+	 * 
+	 * @param choices
+	 *            The choices of the set.
+	 * @return The set containing the choices.
+	 * @throws IllegalArgumentException
+	 *             Thrown if one of the choices is {@code null}.
+	 * @see #of(Collection, ChoiceMatching)
+	 */
+	public static ChoiceHashSet of(Collection<String> choices)
+			throws IllegalArgumentException{
+		return ChoiceHashSet.of(choices, ChoiceMatching.EXACT);
+	}
+	
+	/**
+	 * Builds a set matching the given choices using the given matching mode.
+	 * Choices matching each other in that mode (for example {@code "Yes"} and
+	 * {@code "yes"} when ignoring case) are only kept once, at the index of
+	 * their first occurrence.
+	 * 
+	 * @param choices
+	 *            The choices of the set.
+	 * @param matching
+	 *            The way values are matched against the choices.
+	 * @return The set containing the choices.
+	 * @throws IllegalArgumentException
+	 *             Thrown if one of the choices is {@code null}.
+	 */
+	public static ChoiceHashSet of(Collection<String> choices,
+			ChoiceMatching matching) throws IllegalArgumentException{
+		return ChoiceHashSet.build(matching, new String[0], new String[0],
+				new int[0], 0, choices);
+	}
+	
+	/**
+	 * Builds a set from this one, without the choices matching the removed
+	 * values and with the added choices at its end. The choices that are
+	 * kept are neither folded nor hashed again, so a small change to a big
+	 * set only costs placing the kept choices in a new table.
+	 * 
+	 * @param added
+	 *            The choices to add, after the kept ones. Choices matching a
+	 *            kept choice are ignored.
+	 * @param removed
+	 *            The values matching the choices to remove. Values matching
+	 *            no choice are ignored.
+	 * @return The changed set. The indexes of the choices after a removed
+	 *         choice are shifted.
+	 * @throws IllegalArgumentException
+	 *             Thrown if one of the added choices is {@code null}.
+	 */
+	ChoiceHashSet withChanges(Collection<String> added,
+			Collection<String> removed) throws IllegalArgumentException{
+		
+		boolean[] isRemoved = new boolean[this.choices.length];
+		
+		for(String value : removed){
+			
+			int index = this.indexOf(value);
+			
+			if(index != -1){
+				isRemoved[index] = true;
+			}
+			
+		}
+		
+		String[] keptChoices = new String[this.choices.length];
+		String[] keptKeys = new String[this.choices.length];
+		int[] keptHashes = new int[this.choices.length];
+		int count = 0;
+		
+		for(int i = 0; i < this.choices.length; i++){
+			
+			if(!isRemoved[i]){
+				
+				keptChoices[count] = this.choices[i];
+				keptKeys[count] = this.keys[i];
+				keptHashes[count] = this.hashes[i];
+				
+				count++;
+				
+			}
+			
+		}
+		
+		return ChoiceHashSet.build(this.matching, keptChoices, keptKeys,
+				keptHashes, count, added);
+		
+	}
+	
+	/**
+	 * Builds a set from distinct choices already folded and hashed, followed
+	 * by new choices.
+	 */
+	private static ChoiceHashSet build(ChoiceMatching matching,
+			String[] keptChoices, String[] keptKeys, int[] keptHashes,
+			int keptCount, Collection<String> choices)
+			throws IllegalArgumentException{
+		
+		int capacity = keptCount + choices.size();
+		
+		int[] slots = new int[tableSize(capacity)];
+		
+		String[] allChoices = Arrays.copyOf(keptChoices, capacity);
+		String[] keys = Arrays.copyOf(keptKeys, capacity);
+		int[] hashes = Arrays.copyOf(keptHashes, capacity);
+		
+		// Kept choices are known to be distinct, only their slot is needed
+		for(int index = 0; index < keptCount; index++){
+			
+			int slot = hashes[index] & (slots.length - 1);
+			
+			while(slots[slot] != 0){
+				slot = (slot + 1) & (slots.length - 1);
+			}
+			
+			slots[slot] = index + 1;
+			
+		}
+		
+		int size = keptCount;
+		
+		for(String choice : choices){
+			
+			if(choice == null){
+				throw new IllegalArgumentException("A choice cannot be null!");
+			}
+			
+			String key = matching.key(choice);
+			int hash = ChoiceMatching.EXACT.hash(key);
+			
+			int slot = hash & (slots.length - 1);
+			boolean isDuplicate = false;
+			
+			while(slots[slot] != 0){
+				
+				int index = slots[slot] - 1;
+				
+				if(hashes[index] == hash && keys[index].equals(key)){
+					isDuplicate = true;
+					break;
+				}
+				
+				slot = (slot + 1) & (slots.length - 1);
+				
+			}
+			
+			if(!isDuplicate){
+				
+				allChoices[size] = choice;
+				keys[size] = key;
+				hashes[size] = hash;
+				
+				size++;
+				
+				slots[slot] = size;
+				
+			}
+			
+		}
+		
+		return new ChoiceHashSet(matching, Arrays.copyOf(allChoices, size),
+				Arrays.copyOf(keys, size), Arrays.copyOf(hashes, size), slots);
+		
+	}
+	
+	/**
+	 * @return The matching mode of this set.
+	 */
+	public ChoiceMatching getMatching(){
+		return this.matching;
+	}
+	
+	@Override
+	public int size(){
+		return this.choices.length;
+	}
+	
+	@Override
+	public int indexOf(CharSequence value){
+		
+		CharSequence normalized = this.matching.normalize(value);
+		
+		int hash = this.matching.hash(normalized);
+		
+		int mask = this.slots.length - 1;
+		
+		for(int slot = hash & mask; this.slots[slot] != 0; slot = (slot + 1)
+				& mask){
+			
+			int index = this.slots[slot] - 1;
+			
+			if(this.hashes[index] == hash
+					&& this.matches(normalized, this.keys[index])){
+				return index;
+			}
+			
+		}
+		
+		return -1;
+		
+	}
+	
+	@Override
+	public String get(int index){
+		return this.choices[index];
+	}
+	
+	private boolean matches(CharSequence value, String key){
+		
+		if(value.length() != key.length()){
+			return false;
+		}
+		
+		for(int i = 0; i < key.length(); i++){
+			if(this.matching.fold(value.charAt(i)) != key.charAt(i)){
+				return false;
+			}
+		}
+		
+		return true;
+		
+	}
+	
+	/**
+	 * @param expectedSize
+	 *            The amount of choices the table has to hold.
+	 * @return The amount of slots of a table holding that many choices.
+	 */
+	static int tableSize(int expectedSize){
+		
+		// Keep the load factor at or under 0.5 for short probe sequences
+		int size = 2;
+		
+		while(size < expectedSize * 2){
+			size <<= 1;
+		}
+		
+		return size;
+		
+	}
+	
+}
@@ -0,0 +1,125 @@
+package io.github.ved.jsanitizers.choices;
+
+import java.text.Normalizer;
+
+/**
+ * Ways a value can be matched against the choices of a {@link ChoiceHashSet}.
+ * Choices are folded once when the set is built while the values are folded
+ * one character at a time while they are looked up, so no lowered copy of
+ * the value is ever created.
+ */
+public enum ChoiceMatching {
+	
+	/**
+	 * The value must be exactly equal to the choice.
+	 */
+	EXACT(false, false),
+	
+	/**
+	 * The value must be equal to the choice, ignoring case the same way
+	 * {@link String#equalsIgnoreCase(String)} does.
+	 */
+	IGNORE_CASE(true, false),
+	
+	/**
+	 * The value must be equal to the choice once both are normalized to the
+	 * Unicode NFC form. Values that are already normalized (the vast majority)
+	 * are not copied.
+	 */
+	NORMALIZED(false, true),
+	
+	/**
+	 * Combination of {@link #NORMALIZED} and {@link #IGNORE_CASE}.
+	 */
+	NORMALIZED_IGNORE_CASE(true, true);
+	
+	private final boolean isIgnoringCase;
+	private final boolean isNormalizing;
+	
+	ChoiceMatching(boolean isIgnoringCase, boolean isNormalizing){
+		this.isIgnoringCase = isIgnoringCase;
+		this.isNormalizing = isNormalizing;
+	}
+	
+	/**
+	 * Folds a single character so that two characters matching each other in
+	 * this mode are folded to the same character.
+	 * 
+	 * @param character
+	 *            The character to fold.
+	 * @return The folded character.
+	 */
+	public char fold(char character){
+		
+		if(!this.isIgnoringCase){
+			return character;
+		}
+		
+		return Character.toLowerCase(Character.toUpperCase(character));
+		
+	}
+	
+	/**
+	 * Normalizes the value if this mode requires it.
+	 * 
+	 * @param value
+	 *            The value to normalize.
+	 * @return The normalized value, or the value itself if no normalization
+	 *         was needed.
+	 */
+	public CharSequence normalize(CharSequence value){
+		
+		if(!this.isNormalizing
+				|| Normalizer.isNormalized(value, Normalizer.Form.NFC)){
+			return value;
+		}
+		
+		return Normalizer.normalize(value, Normalizer.Form.NFC);
+		
+	}
+	
+	/**
+	 * Builds the key of a choice, which is the choice normalized and folded
+	 * character by character.
+	 * 
+	 * @param choice
+	 *            The choice to build the key of.
+	 * @return The key of the choice.
+	 */
+	String key(String choice){
+		
+		CharSequence normalized = this.normalize(choice);
+		
+		char[] key = new char[normalized.length()];
+		
+		for(int i = 0; i < key.length; i++){
+			key[i] = this.fold(normalized.charAt(i));
+		}
+		
+		return new String(key);
+		
+	}
+	
+	/**
+	 * Hashes a value folded character by character, so that two values
+	 * matching each other in this mode have the same hash. The value has to
+	 * be normalized already.
+	 * 
+	 * @param value
+	 *            The value to hash.
+	 * @return The hash of the value.
+	 */
+	int hash(CharSequence value){
+		
+		int hash = 0;
+		
+		for(int i = 0; i < value.length(); i++){
+			hash = 31 * hash + this.fold(value.charAt(i));
+		}
+		
+		// Spread the high bits since the tables only use the low ones
+		return hash ^ (hash >>> 16);
+		
+	}
+	
+}
@@ -0,0 +1,51 @@
+package io.github.ved.jsanitizers.choices;
+
+/**
+ * Immutable set of choices that can be queried by sanitizers such as
+ * {@link io.github.ved.jsanitizers.EnumSanitizer}. Every choice is identified
+ * by its index, which is its position in the list the set was built from
+ * (after duplicates were removed).
+ */
+public interface ChoiceSet {
+	
+	/**
+	 * @return The amount of choices in this set.
+	 */
+	int size();
+	
+	/**
+	 * Finds the index of the choice matching the given value.
+	 * 
+	 * @param value
+	 *            The value to look for.
+	 * @return The index of the matching choice, or {@code -1} if the value is
+	 *         not a choice of this set.
+	 */
+	int indexOf(CharSequence value);
+	
+	/**
+	 * Gets the choice at the given index.
+	 * 
+	 * @param index
+	 *            The index of the choice, as returned by
+	 *            {@link #indexOf(CharSequence)}.
+	 * @return The choice as it was given when this set was built. Sets keeping
+	 *         the choices they were built from return that same instance on
+	 *         every call.
+	 * @throws IndexOutOfBoundsException
+	 *             Thrown if the index is not between {@code 0} and
+	 *             {@link #size()} (exclusive).
+	 */
+	String get(int index);
+	
+	/**
+	 * @param value
+	 *            The value to look for.
+	 * @return {@code true} if the value is a choice of this set, {@code false}
+	 *         otherwise.
+	 */
+	default boolean contains(CharSequence value){
+		return this.indexOf(value) != -1;
+	}
+	
+}
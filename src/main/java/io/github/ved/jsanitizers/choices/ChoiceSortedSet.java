@@ -0,0 +1,209 @@
+package io.github.ved.jsanitizers.choices;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable set of choices packed into a single sorted char array, matched
+ * according to a {@link ChoiceMatching} mode. The folded choices are grouped
+ * by length and sorted within each length, so a lookup only binary searches
+ * the choices having the length of the value, comparing the value folded on
+ * the fly with contiguous chars.
+ * <p>
+ * This suits sets of tens to hundreds of choices, where the whole set fits in
+ * a few cache lines and most lookups are rejected by their length alone. Like
+ * {@link ChoiceHashSet}, {@link #get(int)} returns the choices as they were
+ * written when the set was built.
+ */
+public final class ChoiceSortedSet implements ChoiceSet {
+	
+	private final ChoiceMatching matching;
+	private final String[] choices;
+	private final char[] keys;
+	private final int[] keyOffsets;
+	private final int[] indexes;
+	private final int[] lengthStarts;
+	
+	private ChoiceSortedSet(ChoiceMatching matching, String[] choices,
+			char[] keys, int[] keyOffsets, int[] indexes, int[] lengthStarts){
+		this.matching = matching;
+		this.choices = choices;
+		this.keys = keys;
+		this.keyOffsets = keyOffsets;
+		this.indexes = indexes;
+		this.lengthStarts = lengthStarts;
+	}
+	
+	/**
+	 * Builds a set matching the given choices exactly.
+	 * 
+	 * @param choices
+	 *            The choices of the set.
+	 * @return The set containing the choices.
+	 * @throws IllegalArgumentException
+	 *             Thrown if one of the choices is {@code null}.
+	 * @see #of(Collection, ChoiceMatching)
+	 */
+	public static ChoiceSortedSet of(Collection<String> choices)
+			throws IllegalArgumentException{
+		return ChoiceSortedSet.of(choices, ChoiceMatching.EXACT);
+	}
+	
+	/**
+	 * Builds a set matching the given choices using the given matching mode.
+	 * Choices matching each other in that mode are only kept once, at the
+	 * index of their first occurrence.
+	 * 
+	 * @param choices
+	 *            The choices of the set.
+	 * @param matching
+	 *            The way values are matched against the choices.
+	 * @return The set containing the choices.
+	 * @throws IllegalArgumentException
+	 *             Thrown if one of the choices is {@code null}.
+	 */
+	public static ChoiceSortedSet of(Collection<String> choices,
+			ChoiceMatching matching) throws IllegalArgumentException{
+		
+		Map<String, Integer> indexOfKey = new HashMap<>();
+		List<String> keptChoices = new ArrayList<>(choices.size());
+		List<String> keptKeys = new ArrayList<>(choices.size());
+		
+		int totalLength = 0;
+		int maximumLength = 0;
+		
+		for(String choice : choices){
+			
+			if(choice == null){
+				throw new IllegalArgumentException("A choice cannot be null!");
+			}
+			
+			String key = matching.key(choice);
+			
+			if(indexOfKey.putIfAbsent(key, keptKeys.size()) == null){
+				
+				keptChoices.add(choice);
+				keptKeys.add(key);
+				
+				totalLength += key.length();
+				maximumLength = Math.max(maximumLength, key.length());
+				
+			}
+			
+		}
+		
+		int size = keptKeys.size();
+		
+		List<String> sortedKeys = new ArrayList<>(keptKeys);
+		sortedKeys.sort((first, second) -> first.length() != second.length()
+				? Integer.compare(first.length(), second.length()) : first
+						.compareTo(second));
+		
+		char[] keys = new char[totalLength];
+		int[] keyOffsets = new int[size];
+		int[] indexes = new int[size];
+		int[] lengthStarts = new int[maximumLength + 2];
+		
+		int offset = 0;
+		int length = 0;
+		
+		for(int i = 0; i < size; i++){
+			
+			String key = sortedKeys.get(i);
+			
+			while(length <= key.length()){
+				lengthStarts[length++] = i;
+			}
+			
+			key.getChars(0, key.length(), keys, offset);
+			
+			keyOffsets[i] = offset;
+			indexes[i] = indexOfKey.get(key);
+			
+			offset += key.length();
+			
+		}
+		
+		while(length < lengthStarts.length){
+			lengthStarts[length++] = size;
+		}
+		
+		return new ChoiceSortedSet(matching,
+				keptChoices.toArray(new String[0]), keys, keyOffsets, indexes,
+				lengthStarts);
+		
+	}
+	
+	/**
+	 * @return The matching mode of this set.
+	 */
+	public ChoiceMatching getMatching(){
+		return this.matching;
+	}
+	
+	@Override
+	public int size(){
+		return this.choices.length;
+	}
+	
+	@Override
+	public int indexOf(CharSequence value){
+		
+		CharSequence normalized = this.matching.normalize(value);
+		
+		int length = normalized.length();
+		
+		if(length >= this.lengthStarts.length - 1){
+			return -1;
+		}
+		
+		int low = this.lengthStarts[length];
+		int high = this.lengthStarts[length + 1] - 1;
+		
+		while(low <= high){
+			
+			int middle = (low + high) >>> 1;
+			int comparison = this.compare(normalized, this.keyOffsets[middle]);
+			
+			if(comparison == 0){
+				return this.indexes[middle];
+			}
+			else if(comparison < 0){
+				high = middle - 1;
+			}
+			else{
+				low = middle + 1;
+			}
+			
+		}
+		
+		return -1;
+		
+	}
+	
+	@Override
+	public String get(int index){
+		return this.choices[index];
+	}
+	
+	private int compare(CharSequence value, int keyOffset){
+		
+		for(int i = 0; i < value.length(); i++){
+			
+			char character = this.matching.fold(value.charAt(i));
+			char keyCharacter = this.keys[keyOffset + i];
+			
+			if(character != keyCharacter){
+				return character - keyCharacter;
+			}
+			
+		}
+		
+		return 0;
+		
+	}
+	
+}
@@ -0,0 +1,503 @@
+package io.github.ved.jsanitizers.choices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds the choices of a {@link ChoiceSet} closest to a value that is not a
+ * choice, to suggest them to the user ("did you mean ...?"). The distance
+ * between a value and a choice is their Levenshtein distance (the amount of
+ * chars to insert, delete or replace to go from one to the other), computed
+ * on their folded forms so that it follows the matching mode of the set.
+ * <p>
+ * The folded choices are sorted once, which lays them out as the leaves of a
+ * trie : the Levenshtein rows computed for a choice are reused for the chars
+ * it shares with the previous one, and as soon as a row exceeds the searched
+ * distance, every following choice sharing that prefix is skipped. A search
+ * thus only pays for the prefixes that are close to the value, and only
+ * computes and stores the cells of the rows that are within the searched
+ * distance of the diagonal, so its memory does not grow with the length of
+ * the value. Since that distance is at most {@link #MAXIMUM_DISTANCE}, a
+ * search stores at most {@code 2 * 16 + 3} ints per char of the longest
+ * choice. A value longer than every choice by more than the searched
+ * distance is not searched at all. Searches also stop after a given time,
+ * returning the closest choices found so far.
+ */
+public final class ChoiceSuggester {
+	
+	/**
+	 * Maximum distance of the suggested choices when none is given.
+	 */
+	public static final int DEFAULT_MAXIMUM_DISTANCE = 2;
+	
+	/**
+	 * Highest distance that can be searched, which bounds the memory of a
+	 * search. Typos past a few chars are not worth suggesting anyway.
+	 */
+	public static final int MAXIMUM_DISTANCE = 16;
+	
+	/**
+	 * Maximum amount of suggested choices when none is given.
+	 */
+	public static final int DEFAULT_LIMIT = 3;
+	
+	/**
+	 * Time after which a search stops when none is given, in nanoseconds.
+	 */
+	public static final long DEFAULT_TIMEOUT_NANOS = 1_000_000L;
+	
+	private final ChoiceSet choices;
+	private final ChoiceMatching matching;
+	private final char[] keys;
+	private final int[] keyOffsets;
+	private final int[] indexes;
+	private final int[] sharedPrefixes;
+	private final int maximumKeyLength;
+	
+	private final int maximumDistance;
+	private final int limit;
+	private final long timeoutNanos;
+	
+	private ChoiceSuggester(ChoiceSet choices, ChoiceMatching matching,
+			char[] keys, int[] keyOffsets, int[] indexes, int[] sharedPrefixes,
+			int maximumKeyLength, int maximumDistance, int limit,
+			long timeoutNanos){
+		this.choices = choices;
+		this.matching = matching;
+		this.keys = keys;
+		this.keyOffsets = keyOffsets;
+		this.indexes = indexes;
+		this.sharedPrefixes = sharedPrefixes;
+		this.maximumKeyLength = maximumKeyLength;
+		this.maximumDistance = maximumDistance;
+		this.limit = limit;
+		this.timeoutNanos = timeoutNanos;
+	}
+	
+	/**
+	 * Indexes the choices of the given set, using its matching mode.
+	 * 
+	 * @param choices
+	 *            The set to suggest choices of.
+	 * @return The suggester of the set's choices.
+	 * @see #of(ChoiceSet, ChoiceMatching)
+	 */
+	public static ChoiceSuggester of(ChoiceHashSet choices){
+		return ChoiceSuggester.of(choices, choices.getMatching());
+	}
+	
+	/**
+	 * Indexes the choices of the given set. Suggestions use the default
+	 * limits, which can be changed with {@link #withLimits(int, int, long)}.
+	 * 
+	 * @param choices
+	 *            The set to suggest choices of.
+	 * @param matching
+	 *            The matching mode of the set, used to fold the choices and
+	 *            the values before measuring their distance.
+	 * @return The suggester of the set's choices.
+	 */
+	public static ChoiceSuggester of(ChoiceSet choices, ChoiceMatching matching){
+		
+		int size = choices.size();
+		
+		String[] keys = new String[size];
+		Integer[] order = new Integer[size];
+		
+		int totalLength = 0;
+		
+		for(int index = 0; index < size; index++){
+			
+			keys[index] = matching.key(choices.get(index));
+			order[index] = index;
+			
+			totalLength += keys[index].length();
+			
+		}
+		
+		Arrays.sort(order, (first, second) -> keys[first]
+				.compareTo(keys[second]));
+		
+		// The sorted keys are packed so that searches read them sequentially
+		char[] packedKeys = new char[totalLength];
+		int[] keyOffsets = new int[size + 1];
+		int[] indexes = new int[size];
+		int[] sharedPrefixes = new int[size];
+		int maximumKeyLength = 0;
+		
+		for(int i = 0; i < size; i++){
+			
+			String key = keys[order[i]];
+			
+			key.getChars(0, key.length(), packedKeys, keyOffsets[i]);
+			keyOffsets[i + 1] = keyOffsets[i] + key.length();
+			indexes[i] = order[i];
+			
+			maximumKeyLength = Math.max(maximumKeyLength, key.length());
+			
+			if(i > 0){
+				sharedPrefixes[i] = sharedPrefix(keys[order[i - 1]], key);
+			}
+			
+		}
+		
+		return new ChoiceSuggester(choices, matching, packedKeys, keyOffsets,
+				indexes, sharedPrefixes, maximumKeyLength,
+				DEFAULT_MAXIMUM_DISTANCE, DEFAULT_LIMIT, DEFAULT_TIMEOUT_NANOS);
+		
+	}
+	
+	/**
+	 * Gets a suggester of the same choices with other limits. The index is
+	 * shared, so this is cheap.
+	 * 
+	 * @param maximumDistance
+	 *            The maximum distance between a value and the choices
+	 *            suggested for it.
+	 * @param limit
+	 *            The maximum amount of suggested choices.
+	 * @param timeoutNanos
+	 *            The time after which a search stops, in nanoseconds.
+	 * @return The suggester using the given limits.
+	 * @throws IllegalArgumentException
+	 *             Thrown if one of the limits is negative, if the limit of
+	 *             choices is {@code 0}, or if the distance is higher than
+	 *             {@link #MAXIMUM_DISTANCE}.
+	 */
+	public ChoiceSuggester withLimits(int maximumDistance, int limit,
+			long timeoutNanos) throws IllegalArgumentException{
+		
+		if(maximumDistance < 0 || limit <= 0 || timeoutNanos < 0){
+			throw new IllegalArgumentException(
+					"The limits of the suggestions must be positive!");
+		}
+		
+		ChoiceSuggester.checkDistance(maximumDistance);
+		
+		return new ChoiceSuggester(this.choices, this.matching,
+				this.keys, this.keyOffsets, this.indexes, this.sharedPrefixes,
+				this.maximumKeyLength, maximumDistance, limit, timeoutNanos);
+		
+	}
+	
+	/**
+	 * @return The set this suggester suggests choices of.
+	 */
+	public ChoiceSet getChoices(){
+		return this.choices;
+	}
+	
+	/**
+	 * Finds the choices closest to the given value, within the limits of
+	 * this suggester.
+	 * 
+	 * @param value
+	 *            The value to find the closest choices of.
+	 * @return The closest choices, as returned by {@link ChoiceSet#get(int)},
+	 *         sorted by increasing distance to the value and then by index.
+	 *         The list is empty if no choice is close enough.
+	 * @see #suggest(CharSequence, int, int, long)
+	 */
+	public List<String> suggest(CharSequence value){
+		return this.suggest(value, this.maximumDistance, this.limit,
+				this.timeoutNanos);
+	}
+	
+	/**
+	 * Finds the choices closest to the given value. When more choices than
+	 * the limit are found, only the closest ones are kept, and the search
+	 * narrows to their distance. If the search times out, the closest choices
+	 * found so far are returned.
+	 * 
+	 * @param value
+	 *            The value to find the closest choices of.
+	 * @param maximumDistance
+	 *            The maximum distance between the value and the suggested
+	 *            choices.
+	 * @param limit
+	 *            The maximum amount of suggested choices.
+	 * @param timeoutNanos
+	 *            The time after which the search stops, in nanoseconds.
+	 * @return The closest choices, as returned by {@link ChoiceSet#get(int)},
+	 *         sorted by increasing distance to the value and then by index.
+	 *         The list is empty if no choice is close enough.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the distance is higher than
+	 *             {@link #MAXIMUM_DISTANCE}.
+	 */
+	public List<String> suggest(CharSequence value, int maximumDistance,
+			int limit, long timeoutNanos) throws IllegalArgumentException{
+		
+		ChoiceSuggester.checkDistance(maximumDistance);
+		
+		if(this.indexes.length == 0 || limit <= 0){
+			return Collections.emptyList();
+		}
+		
+		CharSequence normalized = this.matching.normalize(value);
+		
+		// No choice can be close enough, and the value may be huge
+		if(normalized.length() > (long)this.maximumKeyLength + maximumDistance){
+			return Collections.emptyList();
+		}
+		
+		char[] characters = this.matching.key(normalized.toString())
+				.toCharArray();
+		
+		// No distance can exceed the length of the longest text
+		int band = Math.min(maximumDistance, Math.max(this.maximumKeyLength,
+				characters.length));
+		
+		long deadline = System.nanoTime() + timeoutNanos;
+		
+		limit = Math.min(limit, this.indexes.length);
+		
+		// Closest choices found, sorted by distance then index
+		int[] foundIndexes = new int[limit];
+		int[] foundDistances = new int[limit];
+		int foundCount = 0;
+		
+		int threshold = band;
+		
+		// Row r holds the distances between the first r chars of the current
+		// choice and the prefixes of the value within the band of the
+		// diagonal. A row past the value's length by more than the distance
+		// is too far, so no more rows are ever needed
+		int[][] rows = new int[Math.min(this.maximumKeyLength,
+				characters.length + band + 1) + 1][bandWidth(band)];
+		
+		// The band and the cell right after it
+		for(int j = 0; j <= Math.min(characters.length, band + 1); j++){
+			rows[0][cell(0, j, band)] = j;
+		}
+		
+		int validRows = 0;
+		
+		for(int i = 0; i < this.indexes.length; i++){
+			
+			if((i & 0x3F) == 0x3F && System.nanoTime() - deadline > 0){
+				break;
+			}
+			
+			int keyOffset = this.keyOffsets[i];
+			int keyLength = this.keyOffsets[i + 1] - keyOffset;
+			
+			int row = Math.min(validRows, this.sharedPrefixes[i]);
+			boolean isTooFar = false;
+			
+			while(row < keyLength && !isTooFar){
+				
+				isTooFar = nextRow(characters, this.keys[keyOffset + row],
+						row + 1, threshold, band, rows[row],
+						rows[row + 1]) > threshold;
+				
+				row++;
+				
+			}
+			
+			validRows = row;
+			
+			if(isTooFar){
+				
+				// Every following choice sharing this prefix is too far
+				while(i + 1 < this.indexes.length
+						&& this.sharedPrefixes[i + 1] >= row){
+					i++;
+				}
+				
+				continue;
+				
+			}
+			
+			// The last cell is outside of the band if the lengths are too far
+			if(Math.abs(keyLength - characters.length) > threshold){
+				continue;
+			}
+			
+			int distance = rows[row][cell(row, characters.length, band)];
+			
+			if(distance > threshold){
+				continue;
+			}
+			
+			int index = this.indexes[i];
+			
+			int position = foundCount;
+			
+			while(position > 0
+					&& (foundDistances[position - 1] > distance
+							|| foundDistances[position - 1] == distance
+							&& foundIndexes[position - 1] > index)){
+				position--;
+			}
+			
+			if(position < limit){
+				
+				int moved = Math.min(foundCount, limit - 1) - position;
+				
+				System.arraycopy(foundIndexes, position, foundIndexes,
+						position + 1, moved);
+				System.arraycopy(foundDistances, position, foundDistances,
+						position + 1, moved);
+				
+				foundIndexes[position] = index;
+				foundDistances[position] = distance;
+				foundCount = Math.min(foundCount + 1, limit);
+				
+				if(foundCount == limit){
+					threshold = foundDistances[limit - 1];
+				}
+				
+			}
+			
+		}
+		
+		List<String> suggestions = new ArrayList<>(foundCount);
+		
+		for(int i = 0; i < foundCount; i++){
+			suggestions.add(this.choices.get(foundIndexes[i]));
+		}
+		
+		return suggestions;
+		
+	}
+	
+	/**
+	 * Computes the Levenshtein distance between two texts, giving up once it
+	 * is known to be over the given bound.
+	 * 
+	 * @param value
+	 *            The first text.
+	 * @param key
+	 *            The second text.
+	 * @param bound
+	 *            The distance over which the exact distance is not needed.
+	 * @return The distance, or any distance over {@code bound} if it is over
+	 *         the bound.
+	 */
+	private static void checkDistance(int maximumDistance)
+			throws IllegalArgumentException{
+		if(maximumDistance > MAXIMUM_DISTANCE){
+			throw new IllegalArgumentException("The maximum distance cannot be"
+					+ " higher than " + MAXIMUM_DISTANCE + "!");
+		}
+	}
+	
+	static int distance(String value, String key, int bound){
+		
+		if(Math.abs(value.length() - key.length()) > bound){
+			return bound + 1;
+		}
+		
+		char[] characters = value.toCharArray();
+		
+		int[] previous = new int[bandWidth(bound)];
+		int[] current = new int[bandWidth(bound)];
+		
+		for(int j = 0; j <= Math.min(value.length(), bound + 1); j++){
+			previous[cell(0, j, bound)] = j;
+		}
+		
+		for(int i = 0; i < key.length(); i++){
+			
+			if(nextRow(characters, key.charAt(i), i + 1, bound, bound,
+					previous, current) > bound){
+				return bound + 1;
+			}
+			
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+			
+		}
+		
+		return previous[cell(key.length(), value.length(), bound)];
+		
+	}
+	
+	/**
+	 * Computes the next row of the Levenshtein matrix, adding a char to the
+	 * second text. Only the cells within {@code bound} of the diagonal are
+	 * computed, the others being over the bound anyway : the cells next to
+	 * them are set to {@code bound + 1}. Rows only store the cells within
+	 * {@code band} of the diagonal, as placed by {@link #cell(int, int, int)}.
+	 * 
+	 * @return The minimum of the row, under which no distance between the
+	 *         value and a text starting with the chars of the row can be.
+	 */
+	private static int nextRow(char[] value, char character, int row,
+			int bound, int band, int[] previous, int[] current){
+		
+		int start = Math.max(1, row - bound);
+		int end = (int)Math.min(value.length, (long)row + bound);
+		
+		// In the row above, the cell of the same column is one further
+		int offset = band + 1 - row;
+		
+		current[start - 1 + offset] = start == 1 ? row : bound + 1;
+		
+		int minimum = current[start - 1 + offset];
+		
+		for(int j = start; j <= end; j++){
+			
+			int k = j + offset;
+			
+			int distance = previous[k] + (character == value[j - 1] ? 0 : 1);
+			int insertion = current[k - 1] + 1;
+			int deletion = previous[k + 1] + 1;
+			
+			if(insertion < distance){
+				distance = insertion;
+			}
+			
+			if(deletion < distance){
+				distance = deletion;
+			}
+			
+			current[k] = distance;
+			
+			if(distance < minimum){
+				minimum = distance;
+			}
+			
+		}
+		
+		if(end < value.length){
+			current[end + 1 + offset] = bound + 1;
+		}
+		
+		return minimum;
+		
+	}
+	
+	/**
+	 * @return The amount of cells stored per row for the given band : the
+	 *         cells within the band of the diagonal and one on each side.
+	 */
+	private static int bandWidth(int band){
+		return 2 * band + 3;
+	}
+	
+	/**
+	 * @return The position in its row of the cell of the given column.
+	 */
+	private static int cell(int row, int column, int band){
+		return column - row + band + 1;
+	}
+	
+	private static int sharedPrefix(String first, String second){
+		
+		int length = Math.min(first.length(), second.length());
+		int i = 0;
+		
+		while(i < length && first.charAt(i) == second.charAt(i)){
+			i++;
+		}
+		
+		return i;
+		
+	}
+	
+}
@@ -0,0 +1,431 @@
+package io.github.ved.jsanitizers.choices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Immutable, array-backed radix trie of choices. On top of the exact lookups
+ * of a {@link ChoiceSet}, it answers prefix queries (is the value the start
+ * of a choice, which choices start with a value, what is the longest choice
+ * at the start of a value) in a time proportional to the length of the value.
+ * <p>
+ * The choices are packed one after the other in a single {@code char[]}, and
+ * the edges of the trie are compressed : a node only exists where choices
+ * split or end, and its edge label is a range of that packed array rather
+ * than a copy. Nodes are numbered in breadth-first order so that the children
+ * of a node are contiguous, and each one only needs the range of its label,
+ * the position of its first child and the index of the choice ending on it.
+ * Since there are at most two nodes per choice, the trie costs about 36 bytes
+ * per choice plus 2 bytes per char, where a {@code HashSet} of the same
+ * Strings costs about 80 bytes per choice (its entry, table slot, String and
+ * array headers) plus the chars. The choices are not kept as Strings :
+ * {@link #get(int)} builds a new String from the packed chars on every call.
+ * 
+ * @see io.github.ved.jsanitizers.EnumSanitizer#extractEnumFromString(String)
+ */
+public final class ChoiceTrie implements ChoiceSet {
+	
+	private static final int NO_CHOICE = -1;
+	
+	private final char[] keys;
+	private final int[] keyStarts;
+	
+	private final int[] labelStarts;
+	private final int[] labelEnds;
+	private final int[] firstChild;
+	private final int[] choiceOfNode;
+	
+	private ChoiceTrie(char[] keys, int[] keyStarts, int[] labelStarts,
+			int[] labelEnds, int[] firstChild, int[] choiceOfNode){
+		this.keys = keys;
+		this.keyStarts = keyStarts;
+		this.labelStarts = labelStarts;
+		this.labelEnds = labelEnds;
+		this.firstChild = firstChild;
+		this.choiceOfNode = choiceOfNode;
+	}
+	
+	/**
+	 * Builds a trie containing the given choices. Duplicated choices are only
+	 * kept once, at the index of their first occurrence.
+	 * 
+	 * @param choices
+	 *            The choices to index, usually the return of
+	 *            {@link io.github.ved.jsanitizers.EnumSanitizer#extractEnumFromString(String)}.
+	 * @return The trie containing the choices.
+	 * @throws IllegalArgumentException
+	 *             Thrown if one of the choices is {@code null}.
+	 */
+	public static ChoiceTrie of(Collection<String> choices)
+			throws IllegalArgumentException{
+		
+		final String[] values = new LinkedHashSet<>(choices)
+				.toArray(new String[0]);
+		
+		Integer[] sortedChoices = new Integer[values.length];
+		int[] keyStarts = new int[values.length + 1];
+		
+		for(int i = 0; i < values.length; i++){
+			
+			if(values[i] == null){
+				throw new IllegalArgumentException("A choice cannot be null!");
+			}
+			
+			sortedChoices[i] = i;
+			keyStarts[i + 1] = keyStarts[i] + values[i].length();
+			
+		}
+		
+		char[] keys = new char[keyStarts[values.length]];
+		
+		for(int i = 0; i < values.length; i++){
+			values[i].getChars(0, values[i].length(), keys, keyStarts[i]);
+		}
+		
+		Arrays.sort(sortedChoices, (a, b) -> values[a].compareTo(values[b]));
+		
+		// Every node but the root ends a choice or splits choices, so there
+		// are at most two nodes per choice, plus the root
+		int maxNodes = 2 * values.length + 1;
+		
+		int[] labelStarts = new int[maxNodes];
+		int[] labelEnds = new int[maxNodes];
+		int[] firstChild = new int[maxNodes + 1];
+		int[] choiceOfNode = new int[maxNodes];
+		
+		// Each node covers the range of sorted choices sharing its prefix
+		int[] rangeStarts = new int[maxNodes];
+		int[] rangeEnds = new int[maxNodes];
+		int[] depths = new int[maxNodes];
+		
+		rangeEnds[0] = values.length;
+		
+		int nodeCount = 1;
+		
+		for(int node = 0; node < nodeCount; node++){
+			
+			firstChild[node] = nodeCount;
+			choiceOfNode[node] = NO_CHOICE;
+			
+			int depth = depths[node];
+			int end = rangeEnds[node];
+			int i = rangeStarts[node];
+			
+			// Sorting puts the choice ending on this node first in its range
+			if(i < end && values[sortedChoices[i]].length() == depth){
+				choiceOfNode[node] = sortedChoices[i];
+				i++;
+			}
+			
+			while(i < end){
+				
+				String first = values[sortedChoices[i]];
+				char label = first.charAt(depth);
+				
+				int j = i + 1;
+				
+				while(j < end
+						&& values[sortedChoices[j]].charAt(depth) == label){
+					j++;
+				}
+				
+				// Sorted, so the first and last choices of the range share
+				// the longest prefix common to the whole range
+				String last = values[sortedChoices[j - 1]];
+				
+				int childDepth = depth + 1;
+				int maxDepth = Math.min(first.length(), last.length());
+				
+				while(childDepth < maxDepth
+						&& first.charAt(childDepth) == last.charAt(childDepth)){
+					childDepth++;
+				}
+				
+				labelStarts[nodeCount] = keyStarts[sortedChoices[i]] + depth;
+				labelEnds[nodeCount] = keyStarts[sortedChoices[i]]
+						+ childDepth;
+				rangeStarts[nodeCount] = i;
+				rangeEnds[nodeCount] = j;
+				depths[nodeCount] = childDepth;
+				
+				nodeCount++;
+				
+				i = j;
+				
+			}
+			
+		}
+		
+		firstChild[nodeCount] = nodeCount;
+		
+		return new ChoiceTrie(keys, keyStarts, Arrays.copyOf(labelStarts,
+				nodeCount), Arrays.copyOf(labelEnds, nodeCount), Arrays.copyOf(
+				firstChild, nodeCount + 1), Arrays.copyOf(choiceOfNode,
+				nodeCount));
+		
+	}
+	
+	@Override
+	public int size(){
+		return this.keyStarts.length - 1;
+	}
+	
+	@Override
+	public int indexOf(CharSequence value){
+		
+		int node = 0;
+		int i = 0;
+		
+		while(i < value.length()){
+			
+			node = this.findChild(node, value.charAt(i));
+			
+			if(node == -1){
+				return NO_CHOICE;
+			}
+			
+			int labelLength = this.labelEnds[node] - this.labelStarts[node];
+			
+			if(i + labelLength > value.length()
+					|| !this.matchesLabel(node, value, i, labelLength)){
+				return NO_CHOICE;
+			}
+			
+			i += labelLength;
+			
+		}
+		
+		return this.choiceOfNode[node];
+		
+	}
+	
+	/**
+	 * Builds the choice at the given index from the packed chars of this trie.
+	 * 
+	 * @param index
+	 *            The index of the choice, as returned by
+	 *            {@link #indexOf(CharSequence)}.
+	 * @return A new String equal to the choice, since this trie does not keep
+	 *         the choices it was built from.
+	 * @throws IndexOutOfBoundsException
+	 *             Thrown if the index is not between {@code 0} and
+	 *             {@link #size()} (exclusive).
+	 */
+	@Override
+	public String get(int index){
+		
+		if(index < 0 || index >= this.size()){
+			throw new IndexOutOfBoundsException("Index " + index
+					+ " is not a choice of this trie!");
+		}
+		
+		return new String(this.keys, this.keyStarts[index],
+				this.keyStarts[index + 1] - this.keyStarts[index]);
+		
+	}
+	
+	/**
+	 * Tests if the given value is the start of at least one choice. A value
+	 * that is itself a choice is its own prefix.
+	 * 
+	 * @param value
+	 *            The prefix to test.
+	 * @return {@code true} if a choice starts with the given value,
+	 *         {@code false} otherwise.
+	 */
+	public boolean isPrefix(CharSequence value){
+		return this.findNode(value) != -1;
+	}
+	
+	/**
+	 * Finds the longest choice the given value starts with.
+	 * 
+	 * @param value
+	 *            The value to find a choice at the start of.
+	 * @return The index of the longest choice the value starts with, or
+	 *         {@code -1} if it does not start with any choice.
+	 */
+	public int longestPrefixOf(CharSequence value){
+		
+		int node = 0;
+		int longest = this.choiceOfNode[0];
+		int i = 0;
+		
+		while(i < value.length()){
+			
+			node = this.findChild(node, value.charAt(i));
+			
+			if(node == -1){
+				break;
+			}
+			
+			int labelLength = this.labelEnds[node] - this.labelStarts[node];
+			
+			if(i + labelLength > value.length()
+					|| !this.matchesLabel(node, value, i, labelLength)){
+				break;
+			}
+			
+			i += labelLength;
+			
+			if(this.choiceOfNode[node] != NO_CHOICE){
+				longest = this.choiceOfNode[node];
+			}
+			
+		}
+		
+		return longest;
+		
+	}
+	
+	/**
+	 * Lists the choices starting with the given prefix.
+	 * 
+	 * @param prefix
+	 *            The prefix the choices must start with.
+	 * @return The choices starting with the given prefix, in lexicographic
+	 *         order.
+	 * @see #startingWith(CharSequence, int)
+	 */
+	public List<String> startingWith(CharSequence prefix){
+		return this.startingWith(prefix, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Lists at most {@code limit} choices starting with the given prefix, which
+	 * keeps autocompletion cheap on large vocabularies.
+	 * 
+	 * @param prefix
+	 *            The prefix the choices must start with.
+	 * @param limit
+	 *            The maximum amount of choices to return.
+	 * @return The first choices (in lexicographic order) starting with the
+	 *         given prefix.
+	 */
+	public List<String> startingWith(CharSequence prefix, int limit){
+		
+		int node = this.findNode(prefix);
+		
+		if(node == -1 || limit <= 0){
+			return Collections.emptyList();
+		}
+		
+		List<String> choices = new ArrayList<>();
+		
+		this.collect(node, choices, limit);
+		
+		return choices;
+		
+	}
+	
+	private void collect(int node, List<String> choices, int limit){
+		
+		// Walked with an explicit stack so that deep tries cannot overflow
+		// the call stack. Children are pushed last first, so that they are
+		// popped in lexicographic order, after the choice of their parent
+		int[] nodes = new int[16];
+		
+		int size = 1;
+		nodes[0] = node;
+		
+		while(size > 0 && choices.size() < limit){
+			
+			int current = nodes[--size];
+			
+			if(this.choiceOfNode[current] != NO_CHOICE){
+				choices.add(this.get(this.choiceOfNode[current]));
+			}
+			
+			int first = this.firstChild[current];
+			int end = this.firstChild[current + 1];
+			
+			if(size + end - first > nodes.length){
+				nodes = Arrays.copyOf(nodes, Math.max(nodes.length * 2, size
+						+ end - first));
+			}
+			
+			for(int child = end - 1; child >= first; child--){
+				nodes[size++] = child;
+			}
+			
+		}
+		
+	}
+	
+	// Finds the node whose edge holds the end of the value, which may end in
+	// the middle of that edge
+	private int findNode(CharSequence value){
+		
+		int node = 0;
+		int i = 0;
+		
+		while(i < value.length()){
+			
+			node = this.findChild(node, value.charAt(i));
+			
+			if(node == -1){
+				return -1;
+			}
+			
+			int labelLength = Math.min(this.labelEnds[node]
+					- this.labelStarts[node], value.length() - i);
+			
+			if(!this.matchesLabel(node, value, i, labelLength)){
+				return -1;
+			}
+			
+			i += labelLength;
+			
+		}
+		
+		return node;
+		
+	}
+	
+	private boolean matchesLabel(int node, CharSequence value, int offset,
+			int length){
+		
+		// The first char was already matched by findChild
+		int labelStart = this.labelStarts[node];
+		
+		for(int i = 1; i < length; i++){
+			if(this.keys[labelStart + i] != value.charAt(offset + i)){
+				return false;
+			}
+		}
+		
+		return true;
+		
+	}
+	
+	private int findChild(int node, char label){
+		
+		int low = this.firstChild[node];
+		int high = this.firstChild[node + 1] - 1;
+		
+		while(low <= high){
+			
+			int middle = (low + high) >>> 1;
+			char middleLabel = this.keys[this.labelStarts[middle]];
+			
+			if(middleLabel < label){
+				low = middle + 1;
+			}
+			else if(middleLabel > label){
+				high = middle - 1;
+			}
+			else{
+				return middle;
+			}
+			
+		}
+		
+		return -1;
+		
+	}
+	
+}
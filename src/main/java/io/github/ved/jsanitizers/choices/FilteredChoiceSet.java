@@ -0,0 +1,234 @@
+package io.github.ved.jsanitizers.choices;
+
+/**
+ * Set of choices guarded by a Bloom filter, rejecting most values that are
+ * not choices before they reach the wrapped set. This pays off for big sets
+ * queried mostly with invalid values, where each rejection otherwise costs a
+ * full lookup.
+ * <p>
+ * The filter is blocked : all the bits of a value lie in the same block of
+ * 512 bits (one cache line), so testing a value reads a single block whatever
+ * the amount of hash functions. Values that pass the filter are looked up in
+ * the wrapped set, so the result of every query is exact.
+ */
+public final class FilteredChoiceSet implements ChoiceSet {
+	
+	private static final int BLOCK_BITS = 512;
+	private static final int WORDS_PER_BLOCK = BLOCK_BITS / 64;
+	
+	private static final int MAXIMUM_HASH_COUNT = 16;
+	
+	private final ChoiceSet choices;
+	private final ChoiceMatching matching;
+	private final long[] bits;
+	private final int blockMask;
+	private final int hashCount;
+	
+	private FilteredChoiceSet(ChoiceSet choices, ChoiceMatching matching,
+			long[] bits, int hashCount){
+		this.choices = choices;
+		this.matching = matching;
+		this.bits = bits;
+		this.blockMask = bits.length / WORDS_PER_BLOCK - 1;
+		this.hashCount = hashCount;
+	}
+	
+	/**
+	 * Builds a filter in front of the given set.
+	 * 
+	 * @param choices
+	 *            The set to filter values for.
+	 * @param falsePositiveRate
+	 *            The target proportion of values that are not choices but
+	 *            still pass the filter, for example {@code 0.01}.
+	 * @return The filtered set.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the false positive rate is not strictly between
+	 *             {@code 0} and {@code 1}.
+	 * @see #of(ChoiceSet, ChoiceMatching, double)
+	 */
+	public static FilteredChoiceSet of(ChoiceHashSet choices,
+			double falsePositiveRate) throws IllegalArgumentException{
+		return FilteredChoiceSet.of(choices, choices.getMatching(),
+				falsePositiveRate);
+	}
+	
+	/**
+	 * Builds a filter in front of the given set. The filter is sized from the
+	 * amount of choices so that about {@code falsePositiveRate} of the values
+	 * that are not choices pass it, using the usual optimal Bloom filter
+	 * parameters. The amount of blocks being rounded up to a power of 2, the
+	 * actual rate is usually lower, see {@link #getFalsePositiveRate()}.
+	 * 
+	 * @param choices
+	 *            The set to filter values for.
+	 * @param matching
+	 *            The matching mode of the set, so that values matching a
+	 *            choice always pass the filter.
+	 * @param falsePositiveRate
+	 *            The target proportion of values that are not choices but
+	 *            still pass the filter, for example {@code 0.01}.
+	 * @return The filtered set.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the false positive rate is not strictly between
+	 *             {@code 0} and {@code 1}.
+	 */
+	public static FilteredChoiceSet of(ChoiceSet choices,
+			ChoiceMatching matching, double falsePositiveRate)
+			throws IllegalArgumentException{
+		
+		if(!(falsePositiveRate > 0 && falsePositiveRate < 1)){
+			throw new IllegalArgumentException(
+					"The false positive rate must be between 0 and 1!");
+		}
+		
+		int size = Math.max(1, choices.size());
+		
+		double bitsPerChoice = -Math.log(falsePositiveRate)
+				/ (Math.log(2) * Math.log(2));
+		
+		long blockCount = 1;
+		
+		while(blockCount * BLOCK_BITS < bitsPerChoice * size
+				&& blockCount < 1 << 25){
+			blockCount <<= 1;
+		}
+		
+		int hashCount = (int)Math.max(1, Math.min(MAXIMUM_HASH_COUNT,
+				Math.round(bitsPerChoice * Math.log(2))));
+		
+		FilteredChoiceSet set = new FilteredChoiceSet(choices, matching,
+				new long[(int)blockCount * WORDS_PER_BLOCK], hashCount);
+		
+		for(int i = 0; i < choices.size(); i++){
+			set.add(matching.normalize(choices.get(i)));
+		}
+		
+		return set;
+		
+	}
+	
+	/**
+	 * @return The set this filter is in front of.
+	 */
+	public ChoiceSet getChoices(){
+		return this.choices;
+	}
+	
+	/**
+	 * @return The amount of bytes used by the filter, not counting the
+	 *         wrapped set.
+	 */
+	public long getMemoryUsage(){
+		return 8L * this.bits.length;
+	}
+	
+	/**
+	 * @return The amount of hash functions of the filter, which is the amount
+	 *         of bits tested per value.
+	 */
+	public int getHashCount(){
+		return this.hashCount;
+	}
+	
+	/**
+	 * Estimates the proportion of values that are not choices but still pass
+	 * the filter, from its size and the amount of choices. Blocking raises
+	 * the rate slightly above this estimate when the blocks are full.
+	 * 
+	 * @return The expected false positive rate of the filter.
+	 */
+	public double getFalsePositiveRate(){
+		
+		double bitCount = 64.0 * this.bits.length;
+		
+		return Math.pow(1 - Math.exp(-this.hashCount * this.choices.size()
+				/ bitCount), this.hashCount);
+		
+	}
+	
+	/**
+	 * Tests the value against the filter only.
+	 * 
+	 * @param value
+	 *            The value to test.
+	 * @return {@code false} if the value is definitely not a choice,
+	 *         {@code true} if it may be one.
+	 */
+	public boolean mightContain(CharSequence value){
+		return this.test(this.matching.normalize(value));
+	}
+	
+	@Override
+	public int size(){
+		return this.choices.size();
+	}
+	
+	@Override
+	public int indexOf(CharSequence value){
+		
+		if(!this.mightContain(value)){
+			return -1;
+		}
+		
+		return this.choices.indexOf(value);
+		
+	}
+	
+	@Override
+	public String get(int index){
+		return this.choices.get(index);
+	}
+	
+	private void add(CharSequence normalized){
+		
+		long hash = this.hash(normalized);
+		
+		int block = (int)(hash >>> 32) & this.blockMask;
+		int bit = (int)hash;
+		int step = (int)(hash >>> 23) | 1;
+		
+		for(int i = 0; i < this.hashCount; i++, bit += step){
+			this.bits[block * WORDS_PER_BLOCK
+					+ (bit >>> 6 & WORDS_PER_BLOCK - 1)] |= 1L << bit;
+		}
+		
+	}
+	
+	private boolean test(CharSequence normalized){
+		
+		long hash = this.hash(normalized);
+		
+		int block = (int)(hash >>> 32) & this.blockMask;
+		int bit = (int)hash;
+		int step = (int)(hash >>> 23) | 1;
+		
+		for(int i = 0; i < this.hashCount; i++, bit += step){
+			if((this.bits[block * WORDS_PER_BLOCK
+					+ (bit >>> 6 & WORDS_PER_BLOCK - 1)] & 1L << bit) == 0){
+				return false;
+			}
+		}
+		
+		return true;
+		
+	}
+	
+	private long hash(CharSequence normalized){
+		
+		// FNV-1a over the folded chars, then mixed so that all bits are used
+		long hash = 0xCBF29CE484222325L;
+		
+		for(int i = 0; i < normalized.length(); i++){
+			hash = (hash ^ this.matching.fold(normalized.charAt(i)))
+					* 0x100000001B3L;
+		}
+		
+		hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+		hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		
+		return hash ^ (hash >>> 33);
+		
+	}
+	
+}
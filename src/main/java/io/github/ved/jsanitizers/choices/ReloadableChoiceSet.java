@@ -0,0 +1,146 @@
+package io.github.ved.jsanitizers.choices;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Holder of a {@link ChoiceHashSet} that can be replaced while other threads
+ * are sanitizing values against it, for choices refreshed from a
+ * configuration. Sets being immutable, readers never lock : {@link #get()}
+ * is a single volatile read, and the set it returns stays consistent for as
+ * long as it is used, even if a new one is published meanwhile.
+ * <p>
+ * Each lookup should get the set once and use it for both its index and its
+ * choice, since indexes may change from one set to the next :
+ * 
+ * <pre>
+ * String choice = EnumSanitizer.sanitizeValue(value, reloadable.get());
+ * </pre>
+ * 
+ * Publishing is serialized between writers, so that concurrent changes are
+ * never lost.
+ */
+public final class ReloadableChoiceSet {
+	
+	private volatile ChoiceHashSet choices;
+	
+	private ReloadableChoiceSet(ChoiceHashSet choices){
+		this.choices = choices;
+	}
+	
+	/**
+	 * Builds a holder of the given set.
+	 * 
+	 * @param choices
+	 *            The set initially held.
+	 * @return The holder of the set.
+	 */
+	public static ReloadableChoiceSet of(ChoiceHashSet choices){
+		return new ReloadableChoiceSet(choices);
+	}
+	
+	/**
+	 * Builds a holder of a set of the given choices.
+	 * 
+	 * @param choices
+	 *            The choices initially held.
+	 * @param matching
+	 *            The way values are matched against the choices, kept for
+	 *            every reloaded set.
+	 * @return The holder of the set.
+	 * @throws IllegalArgumentException
+	 *             Thrown if one of the choices is {@code null}.
+	 */
+	public static ReloadableChoiceSet of(Collection<String> choices,
+			ChoiceMatching matching) throws IllegalArgumentException{
+		return new ReloadableChoiceSet(ChoiceHashSet.of(choices, matching));
+	}
+	
+	/**
+	 * @return The set currently held.
+	 */
+	public ChoiceHashSet get(){
+		return this.choices;
+	}
+	
+	/**
+	 * Replaces the held set with a set of the given choices, keeping the
+	 * matching mode. The new set is built before being published, so readers
+	 * keep using the previous one until then.
+	 * 
+	 * @param choices
+	 *            The new choices.
+	 * @return The published set.
+	 * @throws IllegalArgumentException
+	 *             Thrown if one of the choices is {@code null}, in which case
+	 *             the held set is not replaced.
+	 */
+	public synchronized ChoiceHashSet reload(Collection<String> choices)
+			throws IllegalArgumentException{
+		return this.choices = ChoiceHashSet.of(choices,
+				this.choices.getMatching());
+	}
+	
+	/**
+	 * Replaces the held set with the given set.
+	 * 
+	 * @param choices
+	 *            The new set.
+	 * @return The published set.
+	 */
+	public synchronized ChoiceHashSet reload(ChoiceHashSet choices){
+		return this.choices = choices;
+	}
+	
+	/**
+	 * Replaces the held set with a copy of it without the choices matching
+	 * the removed values and with the added choices at its end. Only the
+	 * added choices are folded and hashed, which makes small changes to big
+	 * sets cheap.
+	 * 
+	 * @param added
+	 *            The choices to add. Choices matching a kept choice are
+	 *            ignored.
+	 * @param removed
+	 *            The values matching the choices to remove. Values matching no
+	 *            choice are ignored.
+	 * @return The published set.
+	 * @throws IllegalArgumentException
+	 *             Thrown if one of the added choices is {@code null}, in which
+	 *             case the held set is not replaced.
+	 */
+	public synchronized ChoiceHashSet update(Collection<String> added,
+			Collection<String> removed) throws IllegalArgumentException{
+		return this.choices = this.choices.withChanges(added, removed);
+	}
+	
+	/**
+	 * Adds choices to the held set.
+	 * 
+	 * @param added
+	 *            The choices to add. Choices matching a choice already held
+	 *            are ignored.
+	 * @return The published set.
+	 * @throws IllegalArgumentException
+	 *             Thrown if one of the added choices is {@code null}, in which
+	 *             case the held set is not replaced.
+	 * @see #update(Collection, Collection)
+	 */
+	public ChoiceHashSet add(Collection<String> added)
+			throws IllegalArgumentException{
+		return this.update(added, Collections.emptyList());
+	}
+	
+	/**
+	 * Removes choices from the held set.
+	 * 
+	 * @param removed
+	 *            The values matching the choices to remove.
+	 * @return The published set.
+	 * @see #update(Collection, Collection)
+	 */
+	public ChoiceHashSet remove(Collection<String> removed){
+		return this.update(Collections.emptyList(), removed);
+	}
+	
+}
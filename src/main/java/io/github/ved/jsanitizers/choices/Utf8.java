@@ -0,0 +1,149 @@
+package io.github.ved.jsanitizers.choices;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compares texts with UTF-8 encoded bytes stored in buffers, encoding the
+ * text on the fly so that the bytes never have to be decoded.
+ */
+final class Utf8 {
+	
+	private Utf8(){}
+	
+	/**
+	 * Encodes a choice, which cannot contain unpaired surrogates since they
+	 * have no UTF-8 encoding.
+	 * 
+	 * @param text
+	 *            The text to encode.
+	 * @return The UTF-8 bytes of the text.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the text contains an unpaired surrogate.
+	 */
+	static byte[] encode(String text) throws IllegalArgumentException{
+		
+		for(int i = 0; i < text.length(); i++){
+			
+			char character = text.charAt(i);
+			
+			if(Character.isHighSurrogate(character) && i + 1 < text.length()
+					&& Character.isLowSurrogate(text.charAt(i + 1))){
+				i++;
+			}
+			else if(Character.isSurrogate(character)){
+				throw new IllegalArgumentException("The choice " + text
+						+ " contains an unpaired surrogate!");
+			}
+			
+		}
+		
+		return text.getBytes(StandardCharsets.UTF_8);
+		
+	}
+	
+	/**
+	 * Decodes UTF-8 bytes of a buffer, without moving its position.
+	 * 
+	 * @param buffer
+	 *            The buffer holding the bytes.
+	 * @param offset
+	 *            The index of the first byte.
+	 * @param length
+	 *            The amount of bytes.
+	 * @return The decoded text.
+	 */
+	static String decode(ByteBuffer buffer, int offset, int length){
+		
+		byte[] bytes = new byte[length];
+		
+		for(int i = 0; i < length; i++){
+			bytes[i] = buffer.get(offset + i);
+		}
+		
+		return new String(bytes, StandardCharsets.UTF_8);
+		
+	}
+	
+	/**
+	 * Tests if a value, folded character by character with the given
+	 * matching mode, is encoded as the given bytes.
+	 * 
+	 * @param value
+	 *            The value to compare, already normalized.
+	 * @param matching
+	 *            The mode folding the characters of the value.
+	 * @param buffer
+	 *            The buffer holding the bytes.
+	 * @param offset
+	 *            The index of the first byte.
+	 * @param length
+	 *            The amount of bytes.
+	 * @return {@code true} if the folded value is encoded as the bytes,
+	 *         {@code false} otherwise (including when the value contains an
+	 *         unpaired surrogate).
+	 */
+	static boolean matches(CharSequence value, ChoiceMatching matching,
+			ByteBuffer buffer, int offset, int length){
+		
+		// Every char takes at least one byte and at most three
+		if(value.length() > length || value.length() * 3 < length){
+			return false;
+		}
+		
+		int position = offset;
+		int end = offset + length;
+		
+		for(int i = 0; i < value.length(); i++){
+			
+			int codePoint = matching.fold(value.charAt(i));
+			
+			if(Character.isHighSurrogate((char)codePoint)
+					&& i + 1 < value.length()
+					&& Character.isLowSurrogate(value.charAt(i + 1))){
+				codePoint = Character.toCodePoint((char)codePoint,
+						value.charAt(++i));
+			}
+			else if(Character.isSurrogate((char)codePoint)){
+				return false;
+			}
+			
+			if(codePoint < 0x80){
+				
+				if(position >= end || buffer.get(position++) != codePoint){
+					return false;
+				}
+				
+				continue;
+				
+			}
+			
+			int byteCount = codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3
+					: 4;
+			
+			if(position + byteCount > end){
+				return false;
+			}
+			
+			// Leading byte, then 6 bits per continuation byte
+			int shift = 6 * (byteCount - 1);
+			int leading = (0xF00 >>> byteCount) & 0xFF | codePoint >>> shift;
+			
+			if(buffer.get(position++) != (byte)leading){
+				return false;
+			}
+			
+			for(shift -= 6; shift >= 0; shift -= 6){
+				if(buffer.get(position++) != (byte)(0x80 | (codePoint >>> shift)
+						& 0x3F)){
+					return false;
+				}
+			}
+			
+		}
+		
+		return position == end;
+		
+	}
+	
+}
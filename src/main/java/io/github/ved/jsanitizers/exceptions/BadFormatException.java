@@ -64,6 +64,24 @@ public class BadFormatException extends RuntimeException {
 		this.code = errorCode;
 	}
 	
+	/**
+	 * Builds a {@link BadFormatException} with the message, the error code
+	 * and the cause given as parameter.
+	 *
+	 * @param message
+	 *            The message of this exception.
+	 * @param errorCode
+	 *            The error code that will be used for identification
+	 *            purposes.
+	 * @param cause
+	 *            The exception that caused this one.
+	 */
+	public BadFormatException(String message, int errorCode, Throwable cause){
+		super(message, cause);
+		
+		this.code = errorCode;
+	}
+	
 	/**
 	 * @return The error code specified when this {@link BadFormatException} was
 	 *         created.
@@ -0,0 +1,42 @@
+package io.github.ved.jsanitizers.exceptions;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link BadFormatException} thrown when a value is not one of the accepted
+ * choices, carrying the choices closest to the value so that they can be
+ * suggested to the user.
+ */
+public class NotAChoiceException extends BadFormatException {
+	
+	private final List<String> suggestions;
+	
+	/**
+	 * Builds a {@link NotAChoiceException} with the message, the error code
+	 * and the suggested choices given as parameter.
+	 * 
+	 * @param message
+	 *            The message of this exception.
+	 * @param errorCode
+	 *            The error code that will be used for identification
+	 *            purposes.
+	 * @param suggestions
+	 *            The choices closest to the rejected value.
+	 */
+	public NotAChoiceException(String message, int errorCode,
+			List<String> suggestions){
+		super(message, errorCode);
+		
+		this.suggestions = Collections.unmodifiableList(suggestions);
+	}
+	
+	/**
+	 * @return The choices closest to the rejected value, the closest first.
+	 *         The list is empty if no choice was close enough.
+	 */
+	public List<String> getSuggestions(){
+		return this.suggestions;
+	}
+	
+}
@@ -0,0 +1,84 @@
+package io.github.ved.jsanitizers.exceptions;
+
+/**
+ * {@link BadFormatException} thrown when a record is rejected, naming either
+ * the field that could not be sanitized or the rule that is not met.
+ * <p>
+ * When a field is rejected, the exception keeps the error code of the
+ * field's sanitizer and has the exception of that sanitizer as its cause, so
+ * that subclasses such as {@link NotAChoiceException} and their details stay
+ * reachable.
+ */
+public class RecordFormatException extends BadFormatException {
+	
+	private final String fieldName;
+	private final String ruleDescription;
+	
+	/**
+	 * Builds a {@link RecordFormatException} for a field that could not be
+	 * sanitized.
+	 * 
+	 * @param fieldName
+	 *            The name of the rejected field.
+	 * @param cause
+	 *            The exception thrown by the field's sanitizer, whose error
+	 *            code is kept.
+	 * @return The exception naming the field.
+	 */
+	public static RecordFormatException ofField(String fieldName,
+			BadFormatException cause){
+		return new RecordFormatException("The field " + fieldName
+				+ " is invalid : " + cause.getMessage(), cause.getErrorCode(),
+				fieldName, null, cause);
+	}
+	
+	/**
+	 * Builds a {@link RecordFormatException} for a rule that is not met.
+	 * 
+	 * @param ruleDescription
+	 *            The description of the rule.
+	 * @param errorCode
+	 *            The error code that will be used for identification
+	 *            purposes.
+	 * @return The exception naming the rule.
+	 */
+	public static RecordFormatException ofRule(String ruleDescription,
+			int errorCode){
+		return new RecordFormatException("The rule " + ruleDescription
+				+ " is not met!", errorCode, null, ruleDescription, null);
+	}
+	
+	private RecordFormatException(String message, int errorCode,
+			String fieldName, String ruleDescription, BadFormatException cause){
+		super(message, errorCode, cause);
+		
+		this.fieldName = fieldName;
+		this.ruleDescription = ruleDescription;
+	}
+	
+	/**
+	 * @return The name of the field that could not be sanitized, or
+	 *         {@code null} if a rule is not met.
+	 */
+	public String getFieldName(){
+		return this.fieldName;
+	}
+	
+	/**
+	 * @return The description of the rule that is not met, or {@code null}
+	 *         if a field could not be sanitized.
+	 */
+	public String getRuleDescription(){
+		return this.ruleDescription;
+	}
+	
+	/**
+	 * @return The exception thrown by the sanitizer of the rejected field,
+	 *         or {@code null} if a rule is not met.
+	 */
+	@Override
+	public synchronized BadFormatException getCause(){
+		return (BadFormatException)super.getCause();
+	}
+	
+}
@@ -0,0 +1,54 @@
+package io.github.ved.jsanitizers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsciiTest {
+	
+	@Test
+	void isAscii(){
+		
+		assertTrue(Ascii.isAscii("", 0, 0));
+		assertTrue(Ascii.isAscii("Hello, world!", 0, 13));
+		assertFalse(Ascii.isAscii("Hello, wörld!", 0, 13));
+		assertFalse(Ascii.isAscii("abcé", 0, 4));
+		assertTrue(Ascii.isAscii("abcé", 0, 3));
+		
+	}
+	
+	@Test
+	void indexOfNonDigit(){
+		
+		assertEquals(10, Ascii.indexOfNonDigit("0123456789", 0, 10));
+		assertEquals(5, Ascii.indexOfNonDigit("01234/6789", 0, 10));
+		assertEquals(6, Ascii.indexOfNonDigit("012345:789", 0, 10));
+		assertEquals(4, Ascii.indexOfNonDigit("-123", 1, 4));
+		assertEquals(0, Ascii.indexOfNonDigit("-123", 0, 4));
+		assertEquals(2, Ascii.indexOfNonDigit("12٣456", 0, 6));
+		assertEquals(3, Ascii.indexOfNonDigit("123İ", 0, 4));
+		
+	}
+	
+	@Test
+	void indexOfNonDigitEveryLane(){
+		
+		for(int lane = 0; lane < 8; lane++){
+			
+			for(char character = 0; character < 0x100; character++){
+				
+				char[] chars = "12345678".toCharArray();
+				chars[lane] = character;
+				
+				int expected = character >= '0' && character <= '9' ? 8 : lane;
+				
+				assertEquals(expected,
+						Ascii.indexOfNonDigit(new String(chars), 0, 8));
+				
+			}
+			
+		}
+		
+	}
+	
+}
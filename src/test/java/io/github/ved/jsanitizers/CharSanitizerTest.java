@@ -108,4 +108,55 @@ public class CharSanitizerTest {
 		
 	}
 	
+	@Test
+	void characterValue(){
+		
+		assertEquals('x', CharSanitizer.sanitizeValue('x'));
+		
+		Executable shouldThrowBadFormatException = () -> CharSanitizer
+				.sanitizeValue(' ');
+		BadFormatException exception = assertThrows(BadFormatException.class,
+				shouldThrowBadFormatException);
+		assertEquals(CharSanitizer.FORMAT_LENGTH, exception.getErrorCode());
+		
+	}
+	
+	@Test
+	void emojiIsNotAChar(){
+		
+		Executable shouldThrowBadFormatException = () -> CharSanitizer
+				.sanitizeValue("\uD83D\uDE00");
+		BadFormatException exception = assertThrows(BadFormatException.class,
+				shouldThrowBadFormatException);
+		assertEquals(CharSanitizer.FORMAT_LENGTH, exception.getErrorCode());
+		
+	}
+	
+	@Test
+	void codePoint(){
+		
+		assertEquals('a', CharSanitizer.sanitizeCodePoint(" a "));
+		assertEquals(0x1F600, CharSanitizer.sanitizeCodePoint(" \uD83D\uDE00\n"));
+		assertEquals(0xD83D, CharSanitizer.sanitizeCodePoint("\uD83D"));
+		
+	}
+	
+	@Test
+	void codePointInvalidLength(){
+		
+		for(String value : new String[]
+		{
+			"", "  ", "ab", "\uD83D\uDE00a", "\uDE00\uD83D"
+		}){
+			
+			Executable shouldThrowBadFormatException = () -> CharSanitizer
+					.sanitizeCodePoint(value);
+			BadFormatException exception = assertThrows(
+					BadFormatException.class, shouldThrowBadFormatException);
+			assertEquals(CharSanitizer.FORMAT_LENGTH, exception.getErrorCode());
+			
+		}
+		
+	}
+	
 }
@@ -0,0 +1,224 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.choices.ChoiceHashSet;
+import io.github.ved.jsanitizers.choices.ChoiceMatching;
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComposedSanitizerTest {
+	
+	private static final ChoiceHashSet CODES = ChoiceHashSet.of(Arrays.asList(
+			"ABC123", "ZZZZZZ", "QWERTYUIOP"), ChoiceMatching.IGNORE_CASE);
+	
+	private static final Pattern FORMAT = Pattern.compile("[A-Z]{3}\\d{3}");
+	
+	private static ComposedSanitizer<String> codeSanitizer(int replanInterval){
+		return ComposedSanitizer
+				.<String>builder("choice",
+						value -> EnumSanitizer.sanitizeValue(value, CODES),
+						EnumSanitizer.COST)
+				.check("length",
+						value -> TextLengthSanitizer.sanitizeValue(value, 6),
+						TextLengthSanitizer.COST)
+				.check("format",
+						value -> TextRegexSanitizer.sanitizeValue(value,
+								FORMAT), TextRegexSanitizer.COST)
+				.replanInterval(replanInterval).build();
+	}
+	
+	@Test
+	void sanitize(){
+		
+		ComposedSanitizer<String> sanitizer = codeSanitizer(0);
+		
+		assertEquals("ABC123", sanitizer.sanitize(" ABC123 "));
+		
+		BadFormatException exception = assertThrows(BadFormatException.class,
+				() -> sanitizer.sanitize("QWERTYUIOP"));
+		
+		assertEquals(TextLengthSanitizer.FORMAT_MAX_LENGTH,
+				exception.getErrorCode());
+		
+		assertEquals(2, sanitizer.getRuns("length"));
+		assertEquals(1, sanitizer.getRejections("length"));
+		assertEquals(1, sanitizer.getRuns("format"));
+		assertEquals(0, sanitizer.getRejections("format"));
+		assertThrows(IllegalArgumentException.class,
+				() -> sanitizer.getRuns("unknown"));
+		
+	}
+	
+	@Test
+	void initialPlanFromCosts(){
+		assertEquals(Arrays.asList("length", "choice", "format"),
+				codeSanitizer(0).getPlan());
+	}
+	
+	@Test
+	void replanFromRejectRates(){
+		
+		ComposedSanitizer<String> sanitizer = codeSanitizer(0);
+		
+		for(int i = 0; i < 100; i++){
+			assertThrows(BadFormatException.class,
+					() -> sanitizer.sanitize("zzzzzz"));
+		}
+		
+		// Without replanning, the plan stays the same
+		assertEquals(Arrays.asList("length", "choice", "format"),
+				sanitizer.getPlan());
+		
+		sanitizer.replan();
+		
+		assertEquals(Arrays.asList("format", "length", "choice"),
+				sanitizer.getPlan());
+		assertEquals(1, sanitizer.getPlanCount());
+		
+		// The main check still gives the value when it does not run first
+		assertEquals("ABC123", sanitizer.sanitize(" ABC123"));
+		
+	}
+	
+	@Test
+	void automaticReplan(){
+		
+		ComposedSanitizer<String> sanitizer = codeSanitizer(10);
+		
+		for(int i = 0; i < 9; i++){
+			assertThrows(BadFormatException.class,
+					() -> sanitizer.sanitize("ZZZZZZ"));
+		}
+		
+		assertEquals(Arrays.asList("length", "choice", "format"),
+				sanitizer.getPlan());
+		
+		assertThrows(BadFormatException.class,
+				() -> sanitizer.sanitize("ZZZZZZ"));
+		
+		assertEquals(Arrays.asList("format", "length", "choice"),
+				sanitizer.getPlan());
+		
+	}
+	
+	@Test
+	void replanCountedAcrossThreads() throws InterruptedException{
+		
+		ComposedSanitizer<String> sanitizer = codeSanitizer(1000);
+		
+		Thread[] threads = new Thread[8];
+		
+		for(int i = 0; i < threads.length; i++){
+			
+			// No thread alone reaches the interval
+			threads[i] = new Thread(() -> {
+				for(int j = 0; j < 999; j++){
+					sanitizeOrCode(sanitizer, "ZZZZZZ");
+				}
+			});
+			
+			threads[i].start();
+			
+		}
+		
+		for(Thread thread : threads){
+			thread.join();
+		}
+		
+		// 7992 values, planned at most every 1000 values, and at most a few
+		// values late for each thread
+		assertTrue(sanitizer.getPlanCount() <= 7);
+		assertTrue(sanitizer.getPlanCount() >= 5);
+		assertEquals(Arrays.asList("format", "length", "choice"),
+				sanitizer.getPlan());
+		
+	}
+	
+	@Test
+	void oldStatisticsFade(){
+		
+		ComposedSanitizer<String> sanitizer = codeSanitizer(0);
+		
+		for(int i = 0; i < 100; i++){
+			sanitizeOrCode(sanitizer, "ZZZZZZ");
+		}
+		
+		sanitizer.replan();
+		
+		assertEquals(Arrays.asList("format", "length", "choice"),
+				sanitizer.getPlan());
+		
+		// Only the choice rejects these values from now on
+		for(int i = 0; i < 20; i++){
+			
+			for(int j = 0; j < 10; j++){
+				sanitizeOrCode(sanitizer, "XYZ999");
+			}
+			
+			sanitizer.replan();
+			
+		}
+		
+		// Counting every run since the start would keep the format before
+		// the length, from the rejections of the first values
+		assertEquals(Arrays.asList("choice", "length", "format"),
+				sanitizer.getPlan());
+		
+		// The counters themselves are never decayed
+		assertEquals(100, sanitizer.getRejections("format"));
+		assertEquals(300, sanitizer.getRuns("choice"));
+		assertEquals(200, sanitizer.getRejections("choice"));
+		
+	}
+	
+	@Test
+	void deterministic(){
+		
+		ComposedSanitizer<String> first = codeSanitizer(7);
+		ComposedSanitizer<String> second = codeSanitizer(7);
+		
+		String[] values = {
+			"ABC123", "ZZZZZZ", "abc", "QWERTYUIOP", "XYZ999", "abc123"
+		};
+		
+		for(int i = 0; i < 500; i++){
+			
+			String value = values[i * 7 % values.length];
+			
+			assertEquals(sanitizeOrCode(first, value),
+					sanitizeOrCode(second, value));
+			assertEquals(first.getPlan(), second.getPlan());
+			
+		}
+		
+	}
+	
+	@Test
+	void invalidChecks(){
+		
+		assertThrows(IllegalArgumentException.class, () -> ComposedSanitizer
+				.builder("a", TextSanitizer::sanitizeValue, 0));
+		assertThrows(IllegalArgumentException.class, () -> ComposedSanitizer
+				.builder("a", TextSanitizer::sanitizeValue, 1)
+				.check("a", TextSanitizer::sanitizeValue, 1));
+		assertThrows(IllegalArgumentException.class, () -> ComposedSanitizer
+				.builder("a", TextSanitizer::sanitizeValue, 1)
+				.replanInterval(-1));
+		
+	}
+	
+	private static Object sanitizeOrCode(ComposedSanitizer<String> sanitizer,
+			String value){
+		try{
+			return sanitizer.sanitize(value);
+		}
+		catch(BadFormatException e){
+			return e.getErrorCode();
+		}
+	}
+	
+}
@@ -0,0 +1,123 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.choices.ChoiceMatching;
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfusableSanitizerTest {
+	
+	@Test
+	void skeletonOfLookalikes(){
+		
+		// Cyrillic and Latin "paypal"
+		assertEquals(ConfusableSanitizer.skeleton("paypal"),
+				ConfusableSanitizer.skeleton("\u0440\u0430\u0443\u0440\u0430\u04CF"));
+		
+		// Greek capital letters
+		assertEquals(ConfusableSanitizer.skeleton("ABE"),
+				ConfusableSanitizer.skeleton("\u0391\u0392\u0395"));
+		
+		assertEquals(ConfusableSanitizer.skeleton("admin"),
+				ConfusableSanitizer.skeleton("\uFF41\uFF44\uFF4D\uFF49\uFF4E"));
+		assertEquals(ConfusableSanitizer.skeleton("GOOgle"),
+				ConfusableSanitizer.skeleton("G00g1e"));
+		assertEquals(ConfusableSanitizer.skeleton("bold"),
+				ConfusableSanitizer.skeleton("\uD835\uDC1B\uD835\uDC28\uD835\uDC25\uD835\uDC1D"));
+		
+	}
+	
+	@Test
+	void skeletonDecomposes(){
+		
+		assertEquals("e\u0301", ConfusableSanitizer.skeleton("\u00E9"));
+		assertEquals(ConfusableSanitizer.skeleton("\u00E9"),
+				ConfusableSanitizer.skeleton("\u0435\u0301"));
+		
+	}
+	
+	@Test
+	void skeletonOfDistinctTexts(){
+		
+		assertNotEquals(ConfusableSanitizer.skeleton("paypal"),
+				ConfusableSanitizer.skeleton("paypa1x"));
+		assertEquals("hello", ConfusableSanitizer.skeleton("hello"));
+		
+	}
+	
+	@Test
+	void mixedScript(){
+		
+		assertTrue(ConfusableSanitizer.isMixedScript("p\u0430ypal"));
+		assertTrue(ConfusableSanitizer.isMixedScript("\u0391lpha\u03B2"));
+		assertTrue(ConfusableSanitizer.isMixedScript("\u3042\uD55C"));
+		assertTrue(ConfusableSanitizer.isMixedScript("\u4E2D\u0430"));
+		
+		assertFalse(ConfusableSanitizer.isMixedScript("paypal_123"));
+		assertFalse(ConfusableSanitizer.isMixedScript("\u043F\u0440\u0438\u0432\u0435\u0442"));
+		assertFalse(ConfusableSanitizer.isMixedScript("\u6771\u4EAC\u3068\u30AB\u30BF\u30AB\u30CA abc"));
+		assertFalse(ConfusableSanitizer.isMixedScript("\uD55C\uAD6D\u8A9E"));
+		assertFalse(ConfusableSanitizer.isMixedScript("caf\u00E9"));
+		
+	}
+	
+	@Test
+	void sanitizeValueMixedScript(){
+		
+		BadFormatException e = assertThrows(BadFormatException.class,
+				() -> ConfusableSanitizer.sanitizeValue(" p\u0430ypal "));
+		
+		assertEquals(ConfusableSanitizer.FORMAT_MIXED_SCRIPT, e.getErrorCode());
+		
+	}
+	
+	@Test
+	void sanitizeValueWholeScriptConfusable(){
+		
+		BadFormatException e = assertThrows(BadFormatException.class,
+				() -> ConfusableSanitizer.sanitizeValue("\u0441\u043E\u0440"));
+		
+		assertEquals(ConfusableSanitizer.FORMAT_CONFUSABLE, e.getErrorCode());
+		
+	}
+	
+	@Test
+	void sanitizeValueValid(){
+		
+		assertEquals("paypal", ConfusableSanitizer.sanitizeValue(" paypal "));
+		assertEquals("\u043F\u0440\u0438\u0432\u0435\u0442",
+				ConfusableSanitizer.sanitizeValue("\u043F\u0440\u0438\u0432\u0435\u0442"));
+		
+	}
+	
+	@Test
+	void protectedValues(){
+		
+		ConfusableSanitizer sanitizer = ConfusableSanitizer.of(Arrays.asList(
+				"admin", "paypal"));
+		
+		BadFormatException e = assertThrows(BadFormatException.class,
+				() -> sanitizer.sanitize("\uFF41dmin"));
+		
+		assertEquals(ConfusableSanitizer.FORMAT_CONFUSABLE, e.getErrorCode());
+		
+		assertThrows(BadFormatException.class, () -> sanitizer.sanitize("paypa1"));
+		assertEquals("Paypal", sanitizer.sanitize("Paypal"));
+		assertEquals("someone", sanitizer.sanitize("someone"));
+		
+	}
+	
+	@Test
+	void protectedValuesIgnoringCase(){
+		
+		ConfusableSanitizer sanitizer = ConfusableSanitizer.of(
+				Arrays.asList("paypal"), ChoiceMatching.IGNORE_CASE);
+		
+		assertThrows(BadFormatException.class, () -> sanitizer.sanitize("PayPa1"));
+		
+	}
+	
+}
@@ -0,0 +1,160 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumDefinitionParserTest {
+	
+	private static List<String> parse(String definition, char separator)
+			throws IOException{
+		
+		List<String> values = new ArrayList<>();
+		
+		EnumDefinitionParser.parse(new StringReader(definition), separator,
+				values::add);
+		
+		return values;
+		
+	}
+	
+	@Test
+	void simpleValues() throws IOException{
+		
+		assertEquals(Arrays.asList("a", "b", "c"), parse(" a | b|c ", '|'));
+		assertEquals(Arrays.asList("Value | 1", "Value | 2"), parse(
+				"Value \\| 1 | Value \\| 2", '|'));
+		assertEquals(Arrays.asList("Value \\| 1"), parse("Value \\\\| 1", '|'));
+		
+	}
+	
+	@Test
+	void onlySeparators() throws IOException{
+		
+		assertEquals(Arrays.asList("|"), parse(" | ", '|'));
+		assertEquals(Arrays.asList("|||"), parse("|||", '|'));
+		assertEquals(Arrays.asList("\\|\\|"), parse("\\|\\|", '|'));
+		
+	}
+	
+	@Test
+	void duplicatesKept() throws IOException{
+		assertEquals(Arrays.asList("a", "b", "a"), parse("a|b|a", '|'));
+	}
+	
+	@Test
+	void badFormats(){
+		
+		for(String definition : new String[]
+		{
+			"", "   ", "| Startup pipes | are | evil",
+			"Same | with | ending pipes |", "a || b", "a\nb", "| |"
+		}){
+			
+			BadFormatException exception = assertThrows(
+					BadFormatException.class, () -> parse(definition, '|'),
+					definition);
+			
+			assertEquals(EnumSanitizer.FORMAT_NOT_ACCEPTED,
+					exception.getErrorCode());
+			
+		}
+		
+	}
+	
+	@Test
+	void backslashSeparator() throws IOException{
+		
+		assertEquals(EnumSanitizer.extractEnumFromString("a\\b\\\\c", '\\'),
+				parse("a\\b\\\\c", '\\'));
+		
+	}
+	
+	@Test
+	void longDefinitionAcrossBuffers() throws IOException{
+		
+		StringBuilder definition = new StringBuilder();
+		
+		for(int i = 0; i < 10000; i++){
+			definition.append(i == 0 ? "" : " | ").append("value ").append(i);
+		}
+		
+		List<String> values = parse(definition.toString(), '|');
+		
+		assertEquals(10000, values.size());
+		assertEquals("value 9999", values.get(9999));
+		
+	}
+	
+	@Test
+	void sameAsExtractEnumFromString() throws IOException{
+		
+		char[] alphabet =
+		{
+			'a', 'b', ' ', '\t', '\n', '\\', '|', '|', ',', '\u0001',
+			'\u0085'
+		};
+		
+		Random random = new Random(42);
+		int validCount = 0;
+		
+		for(int iteration = 0; iteration < 50000; iteration++){
+			
+			int length = random.nextInt(12);
+			char[] chars = new char[length];
+			
+			for(int i = 0; i < length; i++){
+				chars[i] = alphabet[random.nextInt(alphabet.length)];
+			}
+			
+			String definition = new String(chars);
+			
+			for(char separator : new char[]
+			{
+				'|', ','
+			}){
+				
+				List<String> expected;
+				
+				try{
+					expected = EnumSanitizer.extractEnumFromString(definition,
+							separator);
+				}
+				catch(BadFormatException e){
+					expected = null;
+				}
+				
+				List<String> actual;
+				
+				try{
+					actual = EnumSanitizer.extractEnumFromReader(
+							new StringReader(definition), separator);
+				}
+				catch(BadFormatException e){
+					actual = null;
+				}
+				
+				assertEquals(expected, actual, "Definition \""
+						+ definition.replace("\n", "\\n") + "\"");
+				
+				if(expected != null){
+					validCount++;
+				}
+				
+			}
+			
+		}
+		
+		assertTrue(validCount > 10000);
+		
+	}
+	
+}
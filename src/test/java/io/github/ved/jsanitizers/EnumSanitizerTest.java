@@ -1,15 +1,21 @@
 package io.github.ved.jsanitizers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import io.github.ved.jsanitizers.choices.ChoiceHashSet;
+import io.github.ved.jsanitizers.choices.ChoiceMatching;
+import io.github.ved.jsanitizers.choices.ChoiceSuggester;
 import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import io.github.ved.jsanitizers.exceptions.NotAChoiceException;
 
 class EnumSanitizerTest {
 	
@@ -118,6 +124,116 @@ class EnumSanitizerTest {
 		
 	}
 	
+	@Test
+	void sanitizeReturnsListInstance(){
+		
+		String choice = new String("test");
+		
+		List<String> validList = Arrays.asList("nope", choice);
+		
+		String result = EnumSanitizer.sanitizeValue(new StringBuilder("test"),
+				validList);
+		
+		assertSame(choice, result);
+		
+	}
+	
+	@Test
+	void sanitizeOrdinalWithList(){
+		
+		List<String> validList = Arrays.asList("nope", "yes", "test");
+		
+		assertEquals(2, EnumSanitizer.sanitizeOrdinal(" test ", validList));
+		
+		Executable shouldThrowBadFormatException = () -> EnumSanitizer
+				.sanitizeOrdinal("maybe", validList);
+		
+		BadFormatException exception = assertThrows(BadFormatException.class,
+				shouldThrowBadFormatException);
+		
+		assertEquals(EnumSanitizer.FORMAT_NOT_A_CHOICE,
+				exception.getErrorCode());
+		
+	}
+	
+	@Test
+	void sanitizeOrdinalWithInstance(){
+		
+		String choice = new String("Yes");
+		
+		EnumSanitizer sanitizer = EnumSanitizer.of(
+				Arrays.asList("No", choice), ChoiceMatching.IGNORE_CASE);
+		
+		assertEquals(1, sanitizer.sanitizeOrdinal("YES"));
+		assertSame(choice, sanitizer.sanitize("yes"));
+		
+	}
+	
+	@Test
+	void sanitizeWithInstanceIgnoringCase(){
+		
+		EnumSanitizer sanitizer = EnumSanitizer.of(
+				Arrays.asList("Active", "Inactive"), ChoiceMatching.IGNORE_CASE);
+		
+		assertEquals("Active", sanitizer.sanitize("  ACTIVE "));
+		assertEquals("Inactive", sanitizer.sanitize("inactive"));
+		
+		Executable shouldThrowBadFormatException = () -> sanitizer
+				.sanitize("pending");
+		
+		BadFormatException exception = assertThrows(BadFormatException.class,
+				shouldThrowBadFormatException);
+		
+		assertEquals(EnumSanitizer.FORMAT_NOT_A_CHOICE,
+				exception.getErrorCode());
+		
+	}
+	
+	@Test
+	void sanitizeWithSuggestions(){
+		
+		EnumSanitizer sanitizer = EnumSanitizer.of(ChoiceSuggester
+				.of(ChoiceHashSet.of(Arrays.asList("Active", "Inactive",
+						"Pending"), ChoiceMatching.IGNORE_CASE)));
+		
+		assertEquals("Pending", sanitizer.sanitize("pending"));
+		
+		NotAChoiceException exception = assertThrows(
+				NotAChoiceException.class, () -> sanitizer.sanitize("actve"));
+		
+		assertEquals(EnumSanitizer.FORMAT_NOT_A_CHOICE,
+				exception.getErrorCode());
+		assertEquals(Arrays.asList("Active"), exception.getSuggestions());
+		assertEquals(
+				"The value actve is not a choice in the set! Did you mean Active?",
+				exception.getMessage());
+		
+		exception = assertThrows(NotAChoiceException.class,
+				() -> sanitizer.sanitizeOrdinal("unknown"));
+		
+		assertEquals(Arrays.asList(), exception.getSuggestions());
+		
+		char[] hugeValue = new char[4_000_000];
+		Arrays.fill(hugeValue, 'a');
+		
+		exception = assertThrows(NotAChoiceException.class,
+				() -> sanitizer.sanitize(new String(hugeValue)));
+		
+		assertEquals(Arrays.asList(), exception.getSuggestions());
+		
+	}
+	
+	@Test
+	void sanitizeWithInstanceEmpty(){
+		
+		Executable shouldThrowIllegalArgumentException = () -> EnumSanitizer
+				.of(new ArrayList<>(), ChoiceMatching.EXACT);
+		
+		assertThrows(IllegalArgumentException.class,
+				shouldThrowIllegalArgumentException);
+		
+	}
+	
 	@Test
 	void singleValueNoSpace(){
 		
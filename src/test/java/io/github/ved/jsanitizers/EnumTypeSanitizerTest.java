@@ -0,0 +1,88 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.choices.ChoiceMatching;
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumTypeSanitizerTest {
+	
+	enum Status {
+		ACTIVE, INACTIVE, PENDING
+	}
+	
+	@Test
+	void exactNames(){
+		
+		EnumTypeSanitizer<Status> sanitizer = EnumTypeSanitizer
+				.of(Status.class);
+		
+		assertEquals(Status.ACTIVE, sanitizer.sanitize("ACTIVE"));
+		assertEquals(Status.PENDING, sanitizer.sanitize("  PENDING "));
+		assertEquals(1, sanitizer.sanitizeOrdinal("INACTIVE"));
+		assertEquals(Status.class, sanitizer.getType());
+		
+	}
+	
+	@Test
+	void notAName(){
+		
+		EnumTypeSanitizer<Status> sanitizer = EnumTypeSanitizer
+				.of(Status.class);
+		
+		Executable shouldThrowBadFormatException = () -> sanitizer
+				.sanitize("active");
+		
+		BadFormatException exception = assertThrows(BadFormatException.class,
+				shouldThrowBadFormatException);
+		
+		assertEquals(EnumTypeSanitizer.FORMAT_NOT_A_CHOICE,
+				exception.getErrorCode());
+		
+	}
+	
+	@Test
+	void ignoreCaseWithAliases(){
+		
+		Map<String, Status> aliases = new HashMap<>();
+		aliases.put("on", Status.ACTIVE);
+		aliases.put("off", Status.INACTIVE);
+		
+		EnumTypeSanitizer<Status> sanitizer = EnumTypeSanitizer.of(
+				Status.class, aliases, ChoiceMatching.IGNORE_CASE);
+		
+		assertEquals(Status.ACTIVE, sanitizer.sanitize("active"));
+		assertEquals(Status.ACTIVE, sanitizer.sanitize("ON"));
+		assertEquals(Status.INACTIVE, sanitizer.sanitize("Off"));
+		assertEquals(2, sanitizer.sanitizeOrdinal("pending"));
+		
+	}
+	
+	@Test
+	void conflictingAlias(){
+		
+		Map<String, Status> aliases = new HashMap<>();
+		aliases.put("active", Status.PENDING);
+		
+		Executable shouldThrowIllegalArgumentException = () -> EnumTypeSanitizer
+				.of(Status.class, aliases, ChoiceMatching.IGNORE_CASE);
+		
+		assertThrows(IllegalArgumentException.class,
+				shouldThrowIllegalArgumentException);
+		
+		aliases.clear();
+		aliases.put("Active", Status.ACTIVE);
+		
+		EnumTypeSanitizer<Status> sanitizer = EnumTypeSanitizer.of(
+				Status.class, aliases, ChoiceMatching.IGNORE_CASE);
+		
+		assertEquals(Status.ACTIVE, sanitizer.sanitize("Active"));
+		
+	}
+	
+}
@@ -398,4 +398,68 @@ public class IntegerSanitizerTest {
 		
 	}
 	
+	@Test
+	void integerBounds(){
+		
+		assertEquals(Integer.MAX_VALUE,
+				IntegerSanitizer.sanitizeValue("2147483647"));
+		assertEquals(Integer.MIN_VALUE,
+				IntegerSanitizer.sanitizeValue("-2147483648"));
+		assertEquals(7, IntegerSanitizer.sanitizeValue("+0000000007"));
+		
+	}
+	
+	@Test
+	void overflow(){
+		
+		String[] values = new String[]
+		{
+			"2147483648", "-2147483649", "99999999999999999999"
+		};
+		
+		for(String value : values){
+			
+			Executable shouldThrowBadFormatException = () -> IntegerSanitizer
+					.sanitizeValue(value);
+			
+			BadFormatException exception = assertThrows(
+					BadFormatException.class, shouldThrowBadFormatException);
+			
+			assertEquals(IntegerSanitizer.FORMAT_NOT_A_NUMBER,
+					exception.getErrorCode());
+			
+		}
+		
+	}
+	
+	@Test
+	void signsOnly(){
+		
+		String[] values = new String[]
+		{
+			"-", "+", "+ 1", "--1", "12a4"
+		};
+		
+		for(String value : values){
+			
+			Executable shouldThrowBadFormatException = () -> IntegerSanitizer
+					.sanitizeValue(value);
+			
+			BadFormatException exception = assertThrows(
+					BadFormatException.class, shouldThrowBadFormatException);
+			
+			assertEquals(IntegerSanitizer.FORMAT_NOT_A_NUMBER,
+					exception.getErrorCode());
+			
+		}
+		
+	}
+	
+	@Test
+	void nonAsciiDigits(){
+		
+		assertEquals(-42, IntegerSanitizer.sanitizeValue("-\u0664\u0662"));
+		
+	}
+	
 }
@@ -0,0 +1,154 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazySanitizedTest {
+	
+	@Test
+	void notSanitizedUntilRead(){
+		
+		AtomicInteger calls = new AtomicInteger();
+		
+		LazySanitized<Integer> holder = LazySanitized.of(" 12 ", value -> {
+			calls.incrementAndGet();
+			return IntegerSanitizer.sanitizeValue(value);
+		});
+		
+		assertFalse(holder.isSanitized());
+		assertEquals(0, calls.get());
+		assertEquals(" 12 ", holder.getRawValue());
+		
+		assertEquals(12, (int)holder.get());
+		assertEquals(12, (int)holder.get());
+		assertTrue(holder.isValid());
+		assertNull(holder.getError());
+		
+		assertTrue(holder.isSanitized());
+		assertEquals(1, calls.get());
+		
+		// Released once the result is published
+		assertNull(holder.getRawValue());
+		
+	}
+	
+	@Test
+	void errorMemoized(){
+		
+		AtomicInteger calls = new AtomicInteger();
+		
+		LazySanitized<Integer> holder = LazySanitized.of("abc", value -> {
+			calls.incrementAndGet();
+			return IntegerSanitizer.sanitizeValue(value);
+		});
+		
+		assertFalse(holder.isValid());
+		
+		BadFormatException exception = assertThrows(BadFormatException.class,
+				holder::get);
+		
+		assertEquals(IntegerSanitizer.FORMAT_NOT_A_NUMBER,
+				exception.getErrorCode());
+		assertSame(holder.getError(), exception.getCause());
+		
+		// Every access gets its own exception, sharing the memoized cause
+		BadFormatException other = assertThrows(BadFormatException.class,
+				holder::get);
+		
+		assertNotSame(exception, other);
+		assertSame(exception.getCause(), other.getCause());
+		assertEquals(1, calls.get());
+		
+	}
+	
+	@Test
+	void nullResult(){
+		
+		LazySanitized<String> holder = LazySanitized.of("x", value -> null);
+		
+		assertNull(holder.get());
+		assertTrue(holder.isSanitized());
+		
+	}
+	
+	@Test
+	void forceAll(){
+		
+		List<LazySanitized<Integer>> holders = Arrays.asList(
+				LazySanitized.of("1", IntegerSanitizer::sanitizeValue),
+				LazySanitized.of("", IntegerSanitizer::sanitizeValue),
+				LazySanitized.of("x", IntegerSanitizer::sanitizeValue));
+		
+		BadFormatException exception = assertThrows(BadFormatException.class,
+				() -> LazySanitized.forceAll(holders));
+		
+		assertEquals(IntegerSanitizer.FORMAT_EMPTY, exception.getErrorCode());
+		assertSame(holders.get(1).getError(), exception.getCause());
+		
+		for(LazySanitized<Integer> holder : holders){
+			assertTrue(holder.isSanitized());
+		}
+		
+		LazySanitized.forceAll(holders.subList(0, 1));
+		
+	}
+	
+	@Test
+	void racingThreadsGetSameResult() throws InterruptedException{
+		
+		LazySanitized<Object> holder = LazySanitized.of("value",
+				value -> new Object());
+		
+		int threadCount = 8;
+		
+		CountDownLatch start = new CountDownLatch(1);
+		List<Object> results = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		
+		for(int i = 0; i < threadCount; i++){
+			
+			Thread thread = new Thread(() -> {
+				
+				try{
+					start.await();
+				}
+				catch(InterruptedException e){
+					return;
+				}
+				
+				Object result = holder.get();
+				
+				synchronized(results){
+					results.add(result);
+				}
+				
+			});
+			
+			thread.start();
+			threads.add(thread);
+			
+		}
+		
+		start.countDown();
+		
+		for(Thread thread : threads){
+			thread.join();
+		}
+		
+		assertEquals(threadCount, results.size());
+		
+		for(Object result : results){
+			assertSame(holder.get(), result);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,115 @@
+package io.github.ved.jsanitizers;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LengthUnitTest {
+	
+	private static int measure(LengthUnit unit, String value){
+		return unit.measure(value, 0, value.length(), Integer.MAX_VALUE);
+	}
+	
+	@Test
+	void utf16Units(){
+		
+		assertEquals(0, measure(LengthUnit.UTF16_UNITS, ""));
+		assertEquals(5, measure(LengthUnit.UTF16_UNITS, "hello"));
+		assertEquals(2, measure(LengthUnit.UTF16_UNITS, "\uD83D\uDE00"));
+		
+	}
+	
+	@Test
+	void codePoints(){
+		
+		String[] values = new String[]
+		{
+			"", "hello", "\uD83D\uDE00", "a\uD83D\uDE00b", "\uD83D", "\uDE00a"
+		};
+		
+		for(String value : values){
+			assertEquals(value.codePointCount(0, value.length()),
+					measure(LengthUnit.CODE_POINTS, value));
+		}
+		
+	}
+	
+	@Test
+	void utf8Bytes(){
+		
+		String[] values = new String[]
+		{
+			"", "hello", "\u00e9t\u00e9", "\u20ac", "\uD83D\uDE00",
+			"a\uD83Db", "\uDE00"
+		};
+		
+		for(String value : values){
+			assertEquals(value.getBytes(StandardCharsets.UTF_8).length,
+					measure(LengthUnit.UTF8_BYTES, value));
+		}
+		
+	}
+	
+	@Test
+	void graphemes(){
+		
+		assertEquals(0, measure(LengthUnit.GRAPHEMES, ""));
+		assertEquals(5, measure(LengthUnit.GRAPHEMES, "hello"));
+		assertEquals(1, measure(LengthUnit.GRAPHEMES, "e\u0301"));
+		assertEquals(2, measure(LengthUnit.GRAPHEMES, "\r\n\n"));
+		// Thumbs up with a skin tone modifier
+		assertEquals(1, measure(LengthUnit.GRAPHEMES,
+				"\uD83D\uDC4D\uD83C\uDFFD"));
+		// Family emoji : man, zero width joiner, woman, zero width joiner, girl
+		assertEquals(1, measure(LengthUnit.GRAPHEMES,
+				"\uD83D\uDC68\u200d\uD83D\uDC69\u200d\uD83D\uDC67"));
+		// Two flags
+		assertEquals(2, measure(LengthUnit.GRAPHEMES,
+				"\uD83C\uDDE8\uD83C\uDDE6\uD83C\uDDEB\uD83C\uDDF7"));
+		// Hangul syllable written with jamos, followed by a precomposed one
+		assertEquals(2, measure(LengthUnit.GRAPHEMES,
+				"\u1112\u1161\u11ab\ud55c"));
+		// Woman with a skin tone, zero width joiner, laptop
+		assertEquals(1, measure(LengthUnit.GRAPHEMES,
+				"\uD83D\uDC69\uD83C\uDFFD\u200D\uD83D\uDCBB"));
+		
+	}
+	
+	@Test
+	void graphemesOnlyJoinPictographs(){
+		
+		assertEquals(2, measure(LengthUnit.GRAPHEMES, "a\u200Db"));
+		assertEquals(2, measure(LengthUnit.GRAPHEMES, "\uD83D\uDC68\u200Db"));
+		assertEquals(2, measure(LengthUnit.GRAPHEMES, "a\u200D\uD83D\uDC68"));
+		
+		StringBuilder value = new StringBuilder();
+		
+		for(int i = 0; i < 1000; i++){
+			value.append("a\u200D");
+		}
+		
+		assertEquals(1000, measure(LengthUnit.GRAPHEMES, value.toString()));
+		
+	}
+	
+	@Test
+	void measureStopsAfterLimit(){
+		
+		StringBuilder value = new StringBuilder();
+		
+		for(int i = 0; i < 1000; i++){
+			value.append("\u00e9");
+		}
+		
+		for(LengthUnit unit : LengthUnit.values()){
+			assertTrue(unit.measure(value, 0, value.length(), 10) > 10);
+		}
+		
+		assertEquals(11, LengthUnit.CODE_POINTS.measure(value, 0,
+				value.length(), 10));
+		
+	}
+	
+}
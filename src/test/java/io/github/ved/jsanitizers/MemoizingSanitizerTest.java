@@ -0,0 +1,231 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.choices.ChoiceHashSet;
+import io.github.ved.jsanitizers.choices.ChoiceSuggester;
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import io.github.ved.jsanitizers.exceptions.NotAChoiceException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoizingSanitizerTest {
+	
+	@Test
+	void repeatedValueSanitizedOnce(){
+		
+		AtomicInteger calls = new AtomicInteger();
+		
+		MemoizingSanitizer<Boolean> sanitizer = MemoizingSanitizer.of(
+				value -> {
+					calls.incrementAndGet();
+					return BooleanSanitizer.sanitizeValue(value);
+				}, 16);
+		
+		for(int i = 0; i < 10; i++){
+			assertTrue(sanitizer.sanitize("true"));
+			assertFalse(sanitizer.sanitize(" FALSE "));
+		}
+		
+		assertEquals(2, calls.get());
+		assertEquals(2, sanitizer.size());
+		assertEquals(18, sanitizer.getHitCount());
+		assertEquals(2, sanitizer.getMissCount());
+		
+	}
+	
+	@Test
+	void errorMemoized(){
+		
+		AtomicInteger calls = new AtomicInteger();
+		
+		MemoizingSanitizer<Integer> sanitizer = MemoizingSanitizer.of(
+				value -> {
+					calls.incrementAndGet();
+					return IntegerSanitizer.sanitizeValue(value);
+				}, 16);
+		
+		BadFormatException first = assertThrows(BadFormatException.class,
+				() -> sanitizer.sanitize("NaN"));
+		
+		for(int i = 0; i < 3; i++){
+			
+			BadFormatException exception = assertThrows(
+					BadFormatException.class, () -> sanitizer.sanitize("NaN"));
+			
+			assertEquals(IntegerSanitizer.FORMAT_NOT_A_NUMBER,
+					exception.getErrorCode());
+			assertEquals("Value is not a number!", exception.getMessage());
+			assertNotSame(first, exception);
+			assertSame(first, exception.getCause());
+			
+		}
+		
+		assertEquals(1, calls.get());
+		
+	}
+	
+	@Test
+	void errorTypeKept(){
+		
+		MemoizingSanitizer<String> sanitizer = MemoizingSanitizer.of(
+				EnumSanitizer.of(ChoiceSuggester.of(ChoiceHashSet.of(Arrays
+						.asList("green", "red", "blue"))))::sanitize, 16);
+		
+		// Not cached yet, the exception is thrown as it is
+		NotAChoiceException exception = assertThrows(
+				NotAChoiceException.class, () -> sanitizer.sanitize("gren"));
+		
+		assertEquals("green", exception.getSuggestions().get(0));
+		
+		// Cached, the exception holds the first one as its cause
+		BadFormatException memoized = assertThrows(BadFormatException.class,
+				() -> sanitizer.sanitize("gren"));
+		
+		assertEquals(EnumSanitizer.FORMAT_NOT_A_CHOICE,
+				memoized.getErrorCode());
+		assertSame(exception, memoized.getCause());
+		
+	}
+	
+	@Test
+	void nullValueAndResult(){
+		
+		AtomicInteger calls = new AtomicInteger();
+		
+		MemoizingSanitizer<String> sanitizer = MemoizingSanitizer.of(value -> {
+			calls.incrementAndGet();
+			return null;
+		}, 16);
+		
+		assertNull(sanitizer.sanitize(null));
+		assertNull(sanitizer.sanitize(null));
+		
+		assertEquals(1, calls.get());
+		
+	}
+	
+	@Test
+	void mutableValuesNotCached(){
+		
+		AtomicInteger calls = new AtomicInteger();
+		
+		MemoizingSanitizer<String> sanitizer = MemoizingSanitizer.of(value -> {
+			calls.incrementAndGet();
+			return TextSanitizer.sanitizeValue(value);
+		}, 16);
+		
+		StringBuilder builder = new StringBuilder("a");
+		
+		assertEquals("a", sanitizer.sanitize(builder));
+		
+		builder.append("b");
+		
+		assertEquals("ab", sanitizer.sanitize(builder));
+		assertEquals(2, calls.get());
+		assertEquals(0, sanitizer.size());
+		
+	}
+	
+	@Test
+	void boxedKeysAreDistinct(){
+		
+		MemoizingSanitizer<String> sanitizer = MemoizingSanitizer.of(
+				value -> value.getClass().getSimpleName(), 16);
+		
+		assertEquals("Integer", sanitizer.sanitize(1));
+		assertEquals("Long", sanitizer.sanitize(1L));
+		assertEquals("String", sanitizer.sanitize("1"));
+		
+	}
+	
+	@Test
+	void boundedSize(){
+		
+		MemoizingSanitizer<Integer> sanitizer = MemoizingSanitizer.of(
+				IntegerSanitizer::sanitizeValue, 100);
+		
+		for(int i = 0; i < 1000; i++){
+			
+			assertEquals(i, (int)sanitizer.sanitize(Integer.toString(i)));
+			
+			assertTrue(sanitizer.size() <= 100);
+			
+		}
+		
+		assertEquals(1000, sanitizer.getMissCount());
+		assertTrue(sanitizer.getEvictionCount() >= 900);
+		
+	}
+	
+	@Test
+	void referencedEntriesSurviveEviction(){
+		
+		MemoizingSanitizer<Integer> sanitizer = MemoizingSanitizer.of(
+				IntegerSanitizer::sanitizeValue, 8);
+		
+		for(int i = 0; i < 50; i++){
+			
+			sanitizer.sanitize("-1");
+			sanitizer.sanitize(Integer.toString(i));
+			
+		}
+		
+		long misses = sanitizer.getMissCount();
+		
+		sanitizer.sanitize("-1");
+		
+		assertEquals(misses, sanitizer.getMissCount());
+		
+	}
+	
+	@Test
+	void handResumesAcrossEvictions(){
+		
+		MemoizingSanitizer<Integer> sanitizer = MemoizingSanitizer.of(
+				IntegerSanitizer::sanitizeValue, 8);
+		
+		// Small integers are iterated in order : the first eviction removes
+		// 0 and 1, then the hand has to go on from 2 instead of evicting
+		// 0 and 1 again once they are put back
+		for(int i = 0; i <= 8; i++){
+			sanitizer.sanitize(i);
+		}
+		
+		sanitizer.sanitize(0);
+		sanitizer.sanitize(1);
+		
+		assertEquals(4, sanitizer.getEvictionCount());
+		
+		long misses = sanitizer.getMissCount();
+		
+		sanitizer.sanitize(0);
+		sanitizer.sanitize(1);
+		
+		assertEquals(misses, sanitizer.getMissCount());
+		
+	}
+	
+	@Test
+	void clear(){
+		
+		MemoizingSanitizer<Integer> sanitizer = MemoizingSanitizer.of(
+				IntegerSanitizer::sanitizeValue, 8);
+		
+		sanitizer.sanitize("1");
+		sanitizer.clear();
+		
+		assertEquals(0, sanitizer.size());
+		assertEquals(1, sanitizer.getMissCount());
+		
+	}
+	
+	@Test
+	void invalidMaximumSize(){
+		assertThrows(IllegalArgumentException.class,
+				() -> MemoizingSanitizer.of(TextSanitizer::sanitizeValue, 0));
+	}
+	
+}
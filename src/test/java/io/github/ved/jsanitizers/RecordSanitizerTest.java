@@ -0,0 +1,218 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.choices.ChoiceHashSet;
+import io.github.ved.jsanitizers.choices.ChoiceSuggester;
+import io.github.ved.jsanitizers.exceptions.NotAChoiceException;
+import io.github.ved.jsanitizers.exceptions.RecordFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordSanitizerTest {
+	
+	private static Map<String, Object> record(Object... entries){
+		
+		Map<String, Object> record = new HashMap<>();
+		
+		for(int i = 0; i < entries.length; i += 2){
+			record.put((String)entries[i], entries[i + 1]);
+		}
+		
+		return record;
+		
+	}
+	
+	private static RecordSanitizer conditionalAmount(AtomicInteger regexCalls){
+		
+		Pattern reference = Pattern.compile("[A-Z]{3}-\\d{4}");
+		
+		return RecordSanitizer.builder()
+				.field("reference", value -> {
+					regexCalls.incrementAndGet();
+					return TextRegexSanitizer.sanitizeValue(value, reference);
+				}, TextRegexSanitizer.COST)
+				.choiceField("type", ChoiceHashSet.of(Arrays.asList("X", "Y")))
+				.integerField("amount", 0, 1000)
+				.rule("amount of type", record -> "X".equals(record
+						.get("type")) ? record.<Integer>get("amount") >= 1
+						&& record.<Integer>get("amount") <= 100 : record
+						.<Integer>get("amount") == 0, "type", "amount")
+				.build();
+		
+	}
+	
+	@Test
+	void sanitize(){
+		
+		RecordSanitizer sanitizer = conditionalAmount(new AtomicInteger());
+		
+		RecordSanitizer.Record record = sanitizer.sanitize(record("type",
+				" X ", "amount", "50", "reference", "ABC-1234", "ignored", 1));
+		
+		assertEquals("X", record.get("type"));
+		assertEquals(Integer.valueOf(50), record.get("amount"));
+		assertEquals("ABC-1234", record.get("reference"));
+		assertEquals(Arrays.asList("reference", "type", "amount"),
+				Arrays.asList(record.toMap().keySet().toArray()));
+		
+		assertEquals(Integer.valueOf(0), sanitizer.sanitize(record("type",
+				"Y", "amount", 0, "reference", "ABC-1234")).get("amount"));
+		
+		assertThrows(IllegalArgumentException.class,
+				() -> record.get("unknown"));
+		
+	}
+	
+	@Test
+	void plan(){
+		
+		RecordSanitizer sanitizer = conditionalAmount(new AtomicInteger());
+		
+		assertEquals(Arrays.asList("field amount", "field type",
+				"rule amount of type", "field reference"), sanitizer.getPlan());
+		
+	}
+	
+	@Test
+	void shortCircuit(){
+		
+		AtomicInteger regexCalls = new AtomicInteger();
+		RecordSanitizer sanitizer = conditionalAmount(regexCalls);
+		
+		RecordFormatException exception = assertThrows(
+				RecordFormatException.class, () -> sanitizer.sanitize(record(
+						"type", "X", "amount", 500, "reference", "ABC-1234")));
+		
+		assertEquals(RecordSanitizer.FORMAT_RULE_NOT_MET,
+				exception.getErrorCode());
+		assertEquals("The rule amount of type is not met!",
+				exception.getMessage());
+		assertEquals("amount of type", exception.getRuleDescription());
+		assertNull(exception.getFieldName());
+		assertNull(exception.getCause());
+		
+		exception = assertThrows(RecordFormatException.class,
+				() -> sanitizer.sanitize(record("type", "Z", "amount", 5,
+						"reference", "ABC-1234")));
+		
+		assertEquals(EnumSanitizer.FORMAT_NOT_A_CHOICE,
+				exception.getErrorCode());
+		assertTrue(exception.getMessage().startsWith(
+				"The field type is invalid : "));
+		assertEquals("type", exception.getFieldName());
+		assertNull(exception.getRuleDescription());
+		assertEquals(EnumSanitizer.FORMAT_NOT_A_CHOICE,
+				exception.getCause().getErrorCode());
+		
+		assertEquals(0, regexCalls.get());
+		
+		exception = assertThrows(RecordFormatException.class,
+				() -> sanitizer.sanitize(record("type", "X", "amount", 5,
+						"reference", "abc")));
+		
+		assertEquals(TextRegexSanitizer.FORMAT_NOT_MATCHING_PATTERN,
+				exception.getErrorCode());
+		assertEquals(1, regexCalls.get());
+		
+	}
+	
+	@Test
+	void ruleCodeDistinctFromFields(){
+		
+		for(int code : new int[]{
+			CharSanitizer.FORMAT_LENGTH, BooleanSanitizer.FORMAT_NOT_BOOLEAN,
+			IntegerSanitizer.FORMAT_NOT_A_NUMBER,
+			IntegerSanitizer.FORMAT_LOWER_THAN_MIN,
+			IntegerSanitizer.FORMAT_HIGHER_THAN_MAX,
+			TextNotEmptySanitizer.FORMAT_EMPTY,
+			EnumSanitizer.FORMAT_NOT_A_CHOICE,
+			TextRegexSanitizer.FORMAT_NOT_MATCHING_PATTERN
+		}){
+			assertNotEquals(RecordSanitizer.FORMAT_RULE_NOT_MET, code);
+		}
+		
+	}
+	
+	@Test
+	void fieldCauseKept(){
+		
+		EnumSanitizer colors = EnumSanitizer.of(ChoiceSuggester.of(
+				ChoiceHashSet.of(Arrays.asList("green", "red", "blue"))));
+		
+		RecordSanitizer sanitizer = RecordSanitizer.builder()
+				.field("color", colors::sanitize, EnumSanitizer.COST)
+				.build();
+		
+		RecordFormatException exception = assertThrows(
+				RecordFormatException.class,
+				() -> sanitizer.sanitize(record("color", "gren")));
+		
+		assertEquals("color", exception.getFieldName());
+		assertEquals(EnumSanitizer.FORMAT_NOT_A_CHOICE,
+				exception.getErrorCode());
+		assertTrue(exception.getCause() instanceof NotAChoiceException);
+		assertEquals("green", ((NotAChoiceException)exception.getCause())
+				.getSuggestions().get(0));
+		
+	}
+	
+	@Test
+	void fieldsSanitizedOnce(){
+		
+		AtomicInteger calls = new AtomicInteger();
+		
+		RecordSanitizer sanitizer = RecordSanitizer.builder()
+				.rule("positive", record -> record.<Integer>get("n") > 0, "n")
+				.rule("even", record -> record.<Integer>get("n") % 2 == 0, "n")
+				.field("n", value -> {
+					calls.incrementAndGet();
+					return IntegerSanitizer.sanitizeValue(value);
+				}, IntegerSanitizer.COST).booleanField("flag")
+				.charField("letter").textField("name").build();
+		
+		assertEquals(Arrays.asList("field flag", "field letter", "field n",
+				"rule positive", "rule even", "field name"),
+				sanitizer.getPlan());
+		
+		RecordSanitizer.Record record = sanitizer.sanitize(record("n", "4",
+				"flag", "true", "letter", "a", "name", " Joe "));
+		
+		assertEquals(1, calls.get());
+		assertEquals(Boolean.TRUE, record.get("flag"));
+		assertEquals(Character.valueOf('a'), record.get("letter"));
+		assertEquals("Joe", record.get("name"));
+		
+	}
+	
+	@Test
+	void invalidDeclarations(){
+		
+		assertThrows(IllegalArgumentException.class, () -> RecordSanitizer
+				.builder().booleanField("a").charField("a"));
+		assertThrows(IllegalArgumentException.class, () -> RecordSanitizer
+				.builder().booleanField("a")
+				.rule("uses b", record -> true, "a", "b").build());
+		
+	}
+	
+	@Test
+	void unlistedField(){
+		
+		RecordSanitizer sanitizer = RecordSanitizer.builder()
+				.regexField("code", Pattern.compile("\\d+"))
+				.booleanField("flag")
+				.rule("code when flag", record -> record.get("code") != null,
+						"flag").build();
+		
+		assertThrows(IllegalStateException.class, () -> sanitizer
+				.sanitize(record("code", "12", "flag", true)));
+		
+	}
+	
+}
@@ -0,0 +1,271 @@
+package io.github.ved.jsanitizers;
+
+import io.github.ved.jsanitizers.choices.ChoiceHashSet;
+import io.github.ved.jsanitizers.choices.ChoiceMatching;
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SanitizeContextTest {
+	
+	@Test
+	void noError(){
+		
+		SanitizeContext context = new SanitizeContext();
+		
+		assertEquals(42, IntegerSanitizer.sanitizeValue(" 42 ", 0, 100, context));
+		assertTrue(BooleanSanitizer.sanitizeValue("TRUE", context));
+		assertEquals('c', CharSanitizer.sanitizeValue(" c", context));
+		assertEquals("text", TextNotEmptySanitizer.sanitizeValue("text ", context));
+		
+		assertFalse(context.hasError());
+		assertEquals(0, context.getErrorCode());
+		assertNull(context.getErrorMessage());
+		
+	}
+	
+	@Test
+	void errorRecorded(){
+		
+		SanitizeContext context = new SanitizeContext();
+		
+		assertEquals(0, IntegerSanitizer.sanitizeValue("abc", 0, 100, context));
+		
+		assertTrue(context.hasError());
+		assertEquals(IntegerSanitizer.FORMAT_NOT_A_NUMBER,
+				context.getErrorCode());
+		assertEquals("Value is not a number!", context.getErrorMessage());
+		
+	}
+	
+	@Test
+	void errorMessageArguments(){
+		
+		SanitizeContext context = new SanitizeContext();
+		
+		IntegerSanitizer.sanitizeValue(150, 0, 100, context);
+		
+		assertEquals(IntegerSanitizer.FORMAT_HIGHER_THAN_MAX,
+				context.getErrorCode());
+		assertEquals("Value (150) is higher than the maximum permitted (100)!",
+				context.getErrorMessage());
+		
+	}
+	
+	@Test
+	void lastErrorKept(){
+		
+		SanitizeContext context = new SanitizeContext();
+		
+		IntegerSanitizer.sanitizeValue("", 0, 100, context);
+		BooleanSanitizer.sanitizeValue("maybe", context);
+		
+		assertEquals(BooleanSanitizer.FORMAT_NOT_BOOLEAN,
+				context.getErrorCode());
+		
+	}
+	
+	@Test
+	void toException(){
+		
+		SanitizeContext context = new SanitizeContext();
+		
+		assertThrows(IllegalStateException.class, context::toException);
+		
+		CharSanitizer.sanitizeValue("ab", context);
+		
+		BadFormatException exception = context.toException();
+		
+		assertEquals(CharSanitizer.FORMAT_LENGTH, exception.getErrorCode());
+		assertEquals("Only one character is expected!", exception.getMessage());
+		
+	}
+	
+	@Test
+	void clear(){
+		
+		SanitizeContext context = new SanitizeContext();
+		
+		TextNotEmptySanitizer.sanitizeValue("  ", context);
+		
+		assertTrue(context.hasError());
+		
+		context.clear();
+		
+		assertFalse(context.hasError());
+		assertNull(context.getErrorMessage());
+		
+	}
+	
+	@Test
+	void primitiveWrappers(){
+		
+		SanitizeContext context = new SanitizeContext();
+		
+		assertEquals(-12, IntegerSanitizer.sanitizeValue(-12, -100, 100, context));
+		assertEquals(12, IntegerSanitizer.sanitizeValue((byte)12, 0, 100, context));
+		assertEquals(0, IntegerSanitizer.sanitizeValue(Long.MAX_VALUE,
+				Integer.MIN_VALUE, Integer.MAX_VALUE, context));
+		assertEquals(IntegerSanitizer.FORMAT_NOT_A_NUMBER,
+				context.getErrorCode());
+		
+		context.clear();
+		
+		assertEquals('7', CharSanitizer.sanitizeValue(7, context));
+		assertFalse(BooleanSanitizer.sanitizeValue(false, context));
+		assertFalse(context.hasError());
+		
+	}
+	
+	@Test
+	void whitespacePolicy(){
+		
+		SanitizeContext context = new SanitizeContext(WhitespacePolicy.UNICODE);
+		
+		assertSame(WhitespacePolicy.UNICODE, context.getWhitespacePolicy());
+		assertSame(WhitespacePolicy.JAVA_TRIM,
+				new SanitizeContext().getWhitespacePolicy());
+		
+		assertEquals(42, IntegerSanitizer.sanitizeValue("\u00A042\u3000", 0,
+				100, context));
+		assertTrue(BooleanSanitizer.sanitizeValue("\u00A0true", context));
+		assertEquals('c', CharSanitizer.sanitizeValue("c\u202F", context));
+		assertEquals(0x1F600, CharSanitizer.sanitizeCodePoint(
+				"\u00A0\uD83D\uDE00", context));
+		assertEquals("text", TextNotEmptySanitizer.sanitizeValue(
+				"\u2007text\u00A0", context));
+		assertFalse(context.hasError());
+		
+		CharSanitizer.sanitizeValue('\u00A0', context);
+		
+		assertEquals(CharSanitizer.FORMAT_LENGTH, context.getErrorCode());
+		
+		context.clear();
+		
+		assertEquals(0, CharSanitizer.sanitizeCodePoint("ab", context));
+		assertEquals(CharSanitizer.FORMAT_LENGTH, context.getErrorCode());
+		
+		assertEquals(IntegerSanitizer.FORMAT_NOT_A_NUMBER, assertThrows(
+				BadFormatException.class, () -> IntegerSanitizer.sanitizeValue(
+						"\u00A042", 0, 100)).getErrorCode());
+		
+	}
+	
+	@Test
+	void textSanitizers(){
+		
+		SanitizeContext context = new SanitizeContext();
+		
+		Pattern pattern = Pattern.compile("[A-Z]\\d");
+		
+		assertEquals("A1", TextRegexSanitizer.sanitizeValue(" A1 ", pattern,
+				context));
+		assertEquals("B2", TextRegexSanitizer.sanitizeValue(
+				new StringBuilder("B2\t"), pattern, context));
+		assertEquals("abc", TextLengthSanitizer.sanitizeValue(" abc", 1, 3,
+				LengthUnit.CODE_POINTS, context));
+		assertEquals("12", TextNotEmptySanitizer.sanitizeValue(12, context));
+		assertFalse(context.hasError());
+		
+		String value = "already trimmed";
+		
+		assertSame(value, TextNotEmptySanitizer.sanitizeValue(value, context));
+		assertSame(value, TextLengthSanitizer.sanitizeValue(value, 0, 20,
+				LengthUnit.UTF16_UNITS, context));
+		
+		assertNull(TextRegexSanitizer.sanitizeValue("A12", pattern, context));
+		assertEquals(TextRegexSanitizer.FORMAT_NOT_MATCHING_PATTERN,
+				context.getErrorCode());
+		
+		assertNull(TextLengthSanitizer.sanitizeValue("abcd", 1, 3,
+				LengthUnit.UTF8_BYTES, context));
+		assertEquals(TextLengthSanitizer.FORMAT_MAX_LENGTH,
+				context.getErrorCode());
+		assertEquals("The value cannot have more than 3 bytes!",
+				context.getErrorMessage());
+		
+	}
+	
+	@Test
+	void enumSanitizer(){
+		
+		SanitizeContext context = new SanitizeContext(WhitespacePolicy.UNICODE);
+		
+		EnumSanitizer sanitizer = EnumSanitizer.of(Arrays.asList("Red",
+				"Green"), ChoiceMatching.IGNORE_CASE);
+		
+		assertEquals(1, sanitizer.sanitizeOrdinal(" green\u00A0", context));
+		assertSame(sanitizer.getChoices().get(0), sanitizer.sanitize("RED",
+				context));
+		assertFalse(context.hasError());
+		
+		assertNull(sanitizer.sanitize("Blue", context));
+		assertEquals(EnumSanitizer.FORMAT_NOT_A_CHOICE, context.getErrorCode());
+		
+		context.clear();
+		
+		assertEquals(-1, EnumSanitizer.sanitizeOrdinal(" gre", sanitizer
+				.getChoices(), context));
+		assertEquals(EnumSanitizer.FORMAT_NOT_A_CHOICE, context.getErrorCode());
+		
+	}
+	
+	@Test
+	void lastValueReleased() throws ReflectiveOperationException{
+		
+		SanitizeContext context = new SanitizeContext();
+		
+		char[] chars = new char[1 << 20];
+		Arrays.fill(chars, 'a');
+		
+		String huge = " " + new String(chars) + " ";
+		
+		assertNull(TextRegexSanitizer.sanitizeValue(huge, Pattern
+				.compile("b+"), context));
+		assertEquals(-1, EnumSanitizer.sanitizeOrdinal(huge, ChoiceHashSet
+				.of(Arrays.asList("a", "b")), context));
+		
+		Field matcherField = SanitizeContext.class.getDeclaredField("matcher");
+		matcherField.setAccessible(true);
+		
+		assertEquals(0, ((Matcher)matcherField.get(context)).regionEnd());
+		
+		Field sliceField = SanitizeContext.class.getDeclaredField("slice");
+		sliceField.setAccessible(true);
+		
+		Object slice = sliceField.get(context);
+		
+		Field textField = slice.getClass().getDeclaredField("text");
+		textField.setAccessible(true);
+		
+		assertNull(textField.get(slice));
+		
+	}
+	
+	@Test
+	void currentPerThread() throws InterruptedException{
+		
+		SanitizeContext context = SanitizeContext.current();
+		
+		assertSame(context, SanitizeContext.current());
+		
+		AtomicReference<SanitizeContext> otherContext = new AtomicReference<>();
+		
+		Thread thread = new Thread(() -> otherContext.set(SanitizeContext
+				.current()));
+		thread.start();
+		thread.join();
+		
+		assertNotNull(otherContext.get());
+		assertNotSame(context, otherContext.get());
+		
+	}
+	
+}
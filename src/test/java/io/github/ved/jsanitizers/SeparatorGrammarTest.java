@@ -0,0 +1,37 @@
+package io.github.ved.jsanitizers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeparatorGrammarTest {
+	
+	@Test
+	void compiledOncePerSeparator(){
+		
+		assertSame(SeparatorGrammar.of('|'), SeparatorGrammar.of('|'));
+		assertSame(SeparatorGrammar.of('\u00A6'), SeparatorGrammar.of('\u00A6'));
+		assertNotSame(SeparatorGrammar.of('|'), SeparatorGrammar.of(','));
+		
+	}
+	
+	@Test
+	void nonAsciiSeparator(){
+		
+		assertEquals(Arrays.asList("a", "b\u00A6c", "d"),
+				EnumSanitizer.extractEnumFromString("a \u00A6 b\\\u00A6c\u00A6d",
+						'\u00A6'));
+		
+	}
+	
+	@Test
+	void replacementSeparator(){
+		
+		assertEquals(Arrays.asList("a$b", "c"),
+				EnumSanitizer.extractEnumFromString("a\\$b$c", '$'));
+		
+	}
+	
+}
@@ -0,0 +1,120 @@
+package io.github.ved.jsanitizers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextEscapeSanitizerTest {
+	
+	@Test
+	void html(){
+		
+		assertEquals("&lt;a href=&quot;x&quot;&gt;Tom &amp; Jerry&#39;s&lt;/a&gt;",
+				TextEscapeSanitizer.sanitizeValue(
+						"<a href=\"x\">Tom & Jerry's</a>", EscapeContext.HTML));
+		
+	}
+	
+	@Test
+	void htmlAttribute(){
+		
+		assertEquals("a&#x20;b&#x3D;c&#x60;d_e-f.g,h",
+				TextEscapeSanitizer.sanitizeValue("a b=c`d_e-f.g,h",
+						EscapeContext.HTML_ATTRIBUTE));
+		assertEquals("caf\u00E9", TextEscapeSanitizer.sanitizeValue(
+				"caf\u00E9", EscapeContext.HTML_ATTRIBUTE));
+		
+	}
+	
+	@Test
+	void javascriptString(){
+		
+		assertEquals("\\u003C\\/script\\u003E\\n\\\"it\\'s\\\\\\u0000\\u2028",
+				TextEscapeSanitizer.sanitizeValue(
+						"</script>\n\"it's\\\u0000\u2028",
+						EscapeContext.JAVASCRIPT_STRING));
+		
+	}
+	
+	@Test
+	void sqlLike(){
+		
+		assertEquals("100\\% of a\\_b\\\\c", TextEscapeSanitizer
+				.sanitizeValue("100% of a_b\\c", EscapeContext.SQL_LIKE));
+		assertEquals("it's", TextEscapeSanitizer.sanitizeValue("it's",
+				EscapeContext.SQL_LIKE));
+		
+	}
+	
+	@Test
+	void shellSingleQuoted(){
+		
+		assertEquals("it'\\''s $HOME", TextEscapeSanitizer.sanitizeValue(
+				"it's $HOME", EscapeContext.SHELL_SINGLE_QUOTED));
+		
+	}
+	
+	@Test
+	void nothingToEscapeNotCopied(){
+		
+		String value = "nothing to escape here";
+		
+		for(EscapeContext context : new EscapeContext[]
+		{
+			EscapeContext.HTML, EscapeContext.JAVASCRIPT_STRING,
+			EscapeContext.SQL_LIKE, EscapeContext.SHELL_SINGLE_QUOTED
+		}){
+			assertSame(value, TextEscapeSanitizer.sanitizeValue(value, context));
+		}
+		
+	}
+	
+	@Test
+	void notTrimmed(){
+		
+		assertEquals("  &lt; ",
+				TextEscapeSanitizer.sanitizeValue("  < ", EscapeContext.HTML));
+		assertEquals("", TextEscapeSanitizer.sanitizeValue(null,
+				EscapeContext.HTML));
+		
+	}
+	
+	@Test
+	void appendToBuilder(){
+		
+		StringBuilder builder = new StringBuilder("<p>");
+		
+		TextEscapeSanitizer.appendValue("1 < 2", EscapeContext.HTML, builder)
+				.append("</p>");
+		
+		assertEquals("<p>1 &lt; 2</p>", builder.toString());
+		
+	}
+	
+	@Test
+	void appendToWriter() throws IOException{
+		
+		StringWriter writer = new StringWriter();
+		
+		TextEscapeSanitizer.appendValue(new StringBuilder("a&b"),
+				EscapeContext.HTML, (Appendable)writer);
+		
+		assertEquals("a&amp;b", writer.toString());
+		
+	}
+	
+	@Test
+	void escapeLookup(){
+		
+		assertEquals("&amp;", EscapeContext.HTML.escape('&'));
+		assertNull(EscapeContext.HTML.escape('a'));
+		assertNull(EscapeContext.HTML.escape('\uFFFF'));
+		assertEquals(3, EscapeContext.SQL_LIKE.indexOfEscaped("abc"));
+		assertEquals(1, EscapeContext.SQL_LIKE.indexOfEscaped("a%c"));
+		
+	}
+	
+}
@@ -161,4 +161,112 @@ public class TextLengthSanitizerTest {
 		
 	}
 	
+	@Test
+	void emojiWithinBoundsByCodePoints(){
+		
+		String value = "ok \uD83D\uDC4D";
+		
+		Executable shouldThrowBadFormatException = () -> TextLengthSanitizer
+				.sanitizeValue(value, 0, 4);
+		
+		BadFormatException exception = assertThrows(BadFormatException.class,
+				shouldThrowBadFormatException);
+		
+		assertEquals(TextLengthSanitizer.FORMAT_MAX_LENGTH,
+				exception.getErrorCode());
+		
+		String result = TextLengthSanitizer.sanitizeValue(value, 0, 4,
+				LengthUnit.CODE_POINTS);
+		
+		assertEquals(value, result);
+		
+	}
+	
+	@Test
+	void stringAboveBoundsByUtf8Bytes(){
+		
+		String value = "\u00e9t\u00e9";
+		
+		assertEquals(value, TextLengthSanitizer.sanitizeValue(value, 0, 3));
+		
+		Executable shouldThrowBadFormatException = () -> TextLengthSanitizer
+				.sanitizeValue(value, 0, 4, LengthUnit.UTF8_BYTES);
+		
+		BadFormatException exception = assertThrows(BadFormatException.class,
+				shouldThrowBadFormatException);
+		
+		assertEquals(TextLengthSanitizer.FORMAT_MAX_LENGTH,
+				exception.getErrorCode());
+		
+	}
+	
+	@Test
+	void stringBelowBoundsByGraphemes(){
+		
+		String value = "e\u0301e\u0301";
+		
+		Executable shouldThrowBadFormatException = () -> TextLengthSanitizer
+				.sanitizeValue(value, 3, 10, LengthUnit.GRAPHEMES);
+		
+		BadFormatException exception = assertThrows(BadFormatException.class,
+				shouldThrowBadFormatException);
+		
+		assertEquals(TextLengthSanitizer.FORMAT_MIN_LENGTH,
+				exception.getErrorCode());
+		
+	}
+	
+	@Test
+	void hugeValueRejectedWithoutCopy(){
+		
+		// Behaves like 50 million 'a' surrounded by spaces, but cannot be
+		// copied
+		CharSequence value = new CharSequence(){
+			@Override
+			public int length(){
+				return 50_000_000;
+			}
+			
+			@Override
+			public char charAt(int index){
+				return index < 2 || index >= 49_999_998 ? ' ' : 'a';
+			}
+			
+			@Override
+			public CharSequence subSequence(int start, int end){
+				throw new UnsupportedOperationException();
+			}
+			
+			@Override
+			public String toString(){
+				throw new UnsupportedOperationException();
+			}
+		};
+		
+		for(LengthUnit unit : LengthUnit.values()){
+			
+			Executable shouldThrowBadFormatException = () -> TextLengthSanitizer
+					.sanitizeValue(value, 0, 32, unit);
+			
+			BadFormatException exception = assertThrows(
+					BadFormatException.class, shouldThrowBadFormatException);
+			
+			assertEquals(TextLengthSanitizer.FORMAT_MAX_LENGTH,
+					exception.getErrorCode());
+			
+		}
+		
+	}
+	
+	@Test
+	void builderValueTrimmed(){
+		
+		StringBuilder value = new StringBuilder("  hi there  ");
+		
+		String result = TextLengthSanitizer.sanitizeValue(value, 8);
+		
+		assertEquals("hi there", result);
+		
+	}
+	
 }
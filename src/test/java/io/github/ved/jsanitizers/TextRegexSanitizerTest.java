@@ -4,6 +4,7 @@ import io.github.ved.jsanitizers.exceptions.BadFormatException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -259,4 +260,20 @@ public class TextRegexSanitizerTest {
 		
 	}
 	
+	@Test
+	void precompiledPattern(){
+		
+		Pattern pattern = Pattern.compile("h[aeiou]");
+		
+		assertEquals("hi", TextRegexSanitizer.sanitizeValue(" hi ", pattern));
+		
+		Executable shouldThrowBadFormatException = () -> TextRegexSanitizer
+				.sanitizeValue("ho!", pattern);
+		BadFormatException exception = assertThrows(BadFormatException.class,
+				shouldThrowBadFormatException);
+		assertEquals(TextRegexSanitizer.FORMAT_NOT_MATCHING_PATTERN,
+				exception.getErrorCode());
+		
+	}
+	
 }
@@ -3,6 +3,7 @@ package io.github.ved.jsanitizers;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class TextSanitizerTest {
 	
@@ -110,4 +111,90 @@ public class TextSanitizerTest {
 		
 	}
 	
+	@Test
+	void policyValue(){
+		
+		String value = "\u00A0 hi\u3000";
+		
+		assertEquals("\u00A0 hi\u3000", TextSanitizer.sanitizeValue(value));
+		assertEquals("hi",
+				TextSanitizer.sanitizeValue(value, WhitespacePolicy.UNICODE));
+		
+	}
+	
+	@Test
+	void normalizeTrim(){
+		
+		assertEquals("a  b", TextSanitizer.normalizeValue("\u00A0 a  b\t\n",
+				TextSanitizer.TRIM, WhitespacePolicy.UNICODE));
+		assertEquals("", TextSanitizer.normalizeValue(null, TextSanitizer.TRIM,
+				WhitespacePolicy.UNICODE));
+		
+	}
+	
+	@Test
+	void normalizeCollapse(){
+		
+		assertEquals(" a b c ", TextSanitizer.normalizeValue("  a \t\nb\u3000c\n",
+				TextSanitizer.COLLAPSE_WHITESPACE, WhitespacePolicy.UNICODE));
+		assertEquals("a b c", TextSanitizer.normalizeValue("  a \t\nb\u3000c\n",
+				TextSanitizer.TRIM | TextSanitizer.COLLAPSE_WHITESPACE,
+				WhitespacePolicy.UNICODE));
+		
+	}
+	
+	@Test
+	void normalizeStripControls(){
+		
+		assertEquals("ab\tc", TextSanitizer.normalizeValue(
+				"\u0000a\u007Fb\tc\u0085\u009F", TextSanitizer.STRIP_CONTROLS
+						| TextSanitizer.TRIM, WhitespacePolicy.UNICODE));
+		assertEquals("a\u0001b", TextSanitizer.normalizeValue("a\u0001b",
+				TextSanitizer.TRIM, WhitespacePolicy.UNICODE));
+		
+	}
+	
+	@Test
+	void normalizeStripZeroWidth(){
+		
+		assertEquals("ab c", TextSanitizer.normalizeValue(
+				"\uFEFFa\u200Bb \u200D c\u2060", TextSanitizer.STRIP_ZERO_WIDTH
+						| TextSanitizer.TRIM | TextSanitizer.COLLAPSE_WHITESPACE,
+				WhitespacePolicy.UNICODE));
+		assertEquals("a \u200B b", TextSanitizer.normalizeValue("a \u200B b",
+				TextSanitizer.COLLAPSE_WHITESPACE, WhitespacePolicy.UNICODE));
+		
+	}
+	
+	@Test
+	void normalizeTrimKeepsStrippedRunInside(){
+		
+		assertEquals("a  b", TextSanitizer.normalizeValue("a \u200B b ",
+				TextSanitizer.TRIM | TextSanitizer.STRIP_ZERO_WIDTH,
+				WhitespacePolicy.UNICODE));
+		
+	}
+	
+	@Test
+	void normalizeCleanValueNotCopied(){
+		
+		String value = "already clean value";
+		
+		assertSame(value, TextSanitizer.normalizeValue(value,
+				TextSanitizer.TRIM | TextSanitizer.COLLAPSE_WHITESPACE
+						| TextSanitizer.STRIP_CONTROLS
+						| TextSanitizer.STRIP_ZERO_WIDTH,
+				WhitespacePolicy.UNICODE));
+		
+	}
+	
+	@Test
+	void normalizeWithPolicy(){
+		
+		assertEquals("a\u00A0b", TextSanitizer.normalizeValue(" a\u00A0b\u0001",
+				TextSanitizer.TRIM | TextSanitizer.COLLAPSE_WHITESPACE,
+				WhitespacePolicy.JAVA_TRIM));
+		
+	}
+	
 }
@@ -0,0 +1,90 @@
+package io.github.ved.jsanitizers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WhitespacePolicyTest {
+	
+	@Test
+	void javaTrimMatchesStringTrim(){
+		
+		for(char character = 0; character < 0x100; character++){
+			
+			String value = character + "a" + character;
+			
+			assertEquals(value.trim(), WhitespacePolicy.JAVA_TRIM.trim(value));
+			
+		}
+		
+	}
+	
+	@Test
+	void ascii(){
+		
+		assertEquals("a", WhitespacePolicy.ASCII.trim(" \t\na\r\n"));
+		assertEquals("\u0000a", WhitespacePolicy.ASCII.trim("\u0000a "));
+		assertEquals("\u00A0a", WhitespacePolicy.ASCII.trim("\u00A0a"));
+		
+	}
+	
+	@Test
+	void javaWhitespace(){
+		
+		assertEquals("a", WhitespacePolicy.JAVA_WHITESPACE.trim("\u2003a\u3000"));
+		assertEquals("\u00A0a", WhitespacePolicy.JAVA_WHITESPACE.trim("\u00A0a"));
+		assertEquals("\u0000a", WhitespacePolicy.JAVA_WHITESPACE.trim("\u0000a"));
+		
+	}
+	
+	@Test
+	void unicode(){
+		
+		assertEquals("a b", WhitespacePolicy.UNICODE
+				.trim("\u00A0\u202F a b\u2007\u3000\u0085"));
+		assertEquals("\u200Ba", WhitespacePolicy.UNICODE.trim("\u200Ba"));
+		
+	}
+	
+	@Test
+	void custom(){
+		
+		WhitespacePolicy policy = WhitespacePolicy.of("_-");
+		
+		assertEquals("a_b", policy.trim("-_a_b_-"));
+		assertEquals(" a ", policy.trim(" a "));
+		assertTrue(policy.isWhitespace('_'));
+		assertFalse(policy.isWhitespace(' '));
+		
+	}
+	
+	@Test
+	void onlyWhitespace(){
+		
+		assertEquals("", WhitespacePolicy.UNICODE.trim("\u00A0 \u3000"));
+		assertEquals("", WhitespacePolicy.UNICODE.trim(""));
+		
+	}
+	
+	@Test
+	void untrimmedStringNotCopied(){
+		
+		String value = "already trimmed";
+		
+		assertSame(value, WhitespacePolicy.UNICODE.trim(value));
+		
+	}
+	
+	@Test
+	void trimBounds(){
+		
+		String value = "\u00A0 ab \u00A0";
+		
+		int start = WhitespacePolicy.UNICODE.trimStart(value);
+		
+		assertEquals(2, start);
+		assertEquals(4, WhitespacePolicy.UNICODE.trimEnd(value, start));
+		
+	}
+	
+}
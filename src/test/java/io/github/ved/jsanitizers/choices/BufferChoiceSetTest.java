@@ -0,0 +1,357 @@
+package io.github.ved.jsanitizers.choices;
+
+import io.github.ved.jsanitizers.EnumSanitizer;
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferChoiceSetTest {
+	
+	private static BufferChoiceSet compile(ChoiceHashSet choices){
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		
+		try{
+			BufferChoiceSet.write(choices, out);
+		}
+		catch(IOException e){
+			throw new AssertionError(e);
+		}
+		
+		return BufferChoiceSet.wrap(ByteBuffer.wrap(out.toByteArray()));
+		
+	}
+	
+	@Test
+	void exactMatch(){
+		
+		BufferChoiceSet set = compile(ChoiceHashSet.of(Arrays.asList("nope",
+				"yes", "test")));
+		
+		assertEquals(ChoiceMatching.EXACT, set.getMatching());
+		assertEquals(3, set.size());
+		assertEquals(0, set.indexOf("nope"));
+		assertEquals(2, set.indexOf("test"));
+		assertEquals(-1, set.indexOf("Test"));
+		assertEquals(-1, set.indexOf("tes"));
+		assertEquals(-1, set.indexOf(""));
+		assertEquals("yes", set.get(1));
+		assertThrows(IndexOutOfBoundsException.class, () -> set.get(3));
+		
+	}
+	
+	@Test
+	void ignoreCase(){
+		
+		BufferChoiceSet set = compile(ChoiceHashSet.of(Arrays.asList("Active",
+				"INACTIVE", "Stra\u00dfe"), ChoiceMatching.IGNORE_CASE));
+		
+		assertEquals(0, set.indexOf("active"));
+		assertEquals(1, set.indexOf("Inactive"));
+		assertEquals(2, set.indexOf("STRA\u00dfE"));
+		assertEquals("Active", set.get(set.indexOf("aCTIVE")));
+		
+	}
+	
+	@Test
+	void normalized(){
+		
+		BufferChoiceSet set = compile(ChoiceHashSet.of(Arrays.asList(
+				"caf\u00e9"), ChoiceMatching.NORMALIZED));
+		
+		assertEquals(0, set.indexOf("cafe\u0301"));
+		assertEquals("caf\u00e9", set.get(0));
+		
+	}
+	
+	@Test
+	void multiByteChoices(){
+		
+		List<String> choices = Arrays.asList("\u00e9t\u00e9", "\u65e5\u672c",
+				"\ud83d\ude00", "a\ud83d\ude00b", "\u0800\u07ff\u007f");
+		
+		BufferChoiceSet set = compile(ChoiceHashSet.of(choices));
+		
+		for(int i = 0; i < choices.size(); i++){
+			assertEquals(i, set.indexOf(choices.get(i)));
+			assertEquals(choices.get(i), set.get(i));
+		}
+		
+		assertEquals(-1, set.indexOf("\ud83d"));
+		assertEquals(-1, set.indexOf("\ud83d\ude01"));
+		assertEquals(-1, set.indexOf("\u00e9t"));
+		
+	}
+	
+	@Test
+	void sameAsHashSet(){
+		
+		List<String> values = new ArrayList<>();
+		
+		for(int i = 0; i < 5000; i++){
+			values.add("Value" + Integer.toString(i * 7919, 36));
+		}
+		
+		ChoiceHashSet hashSet = ChoiceHashSet.of(values,
+				ChoiceMatching.IGNORE_CASE);
+		BufferChoiceSet set = compile(hashSet);
+		
+		assertEquals(hashSet.size(), set.size());
+		
+		for(int i = 0; i < 6000; i++){
+			
+			String value = "VALUE" + Integer.toString(i * 7919, 36);
+			
+			assertEquals(hashSet.indexOf(value), set.indexOf(value));
+			
+		}
+		
+	}
+	
+	@Test
+	void mappedFile() throws IOException{
+		
+		Path file = Files.createTempFile("choices", ".bin");
+		
+		try{
+			
+			try(OutputStream out = Files.newOutputStream(file)){
+				BufferChoiceSet.write(ChoiceHashSet.of(Arrays.asList("red",
+						"green", "blue")), out);
+			}
+			
+			EnumSanitizer sanitizer = EnumSanitizer.of(BufferChoiceSet
+					.map(file));
+			
+			assertEquals("green", sanitizer.sanitize(" green "));
+			assertThrows(BadFormatException.class,
+					() -> sanitizer.sanitize("pink"));
+			
+		}
+		finally{
+			file.toFile().deleteOnExit();
+		}
+		
+	}
+	
+	@Test
+	void unpairedSurrogate(){
+		assertThrows(IllegalArgumentException.class, () -> BufferChoiceSet
+				.write(ChoiceHashSet.of(Arrays.asList("a\ud83d")),
+						new ByteArrayOutputStream()));
+	}
+	
+	@Test
+	void invalidBuffer(){
+		
+		assertThrows(IllegalArgumentException.class, () -> BufferChoiceSet
+				.wrap(ByteBuffer.wrap(new byte[]{
+					1, 2, 3
+				})));
+		
+		ByteBuffer wrongMagic = ByteBuffer.allocate(64);
+		wrongMagic.putInt(0, 0x12345678);
+		
+		assertThrows(IllegalArgumentException.class,
+				() -> BufferChoiceSet.wrap(wrongMagic));
+		
+		ByteBuffer wrongVersion = ByteBuffer.allocate(64);
+		wrongVersion.putInt(0, BufferChoiceSet.MAGIC).putInt(4, 99);
+		
+		assertThrows(IllegalArgumentException.class,
+				() -> BufferChoiceSet.wrap(wrongVersion));
+		
+		ByteBuffer truncated = ByteBuffer.allocate(BufferChoiceSet.HEADER_SIZE);
+		truncated.putInt(BufferChoiceSet.MAGIC)
+				.putInt(BufferChoiceSet.VERSION).putInt(0).putInt(10)
+				.putInt(16);
+		
+		assertThrows(IllegalArgumentException.class,
+				() -> BufferChoiceSet.wrap(truncated));
+		
+	}
+	
+	@Test
+	void corruptedSections() throws IOException{
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		
+		BufferChoiceSet.write(ChoiceHashSet.of(Arrays.asList("red", "green",
+				"blue")), out);
+		
+		byte[] bytes = out.toByteArray();
+		
+		int slotCount = ByteBuffer.wrap(bytes).getInt(16);
+		int entriesStart = BufferChoiceSet.HEADER_SIZE + 4 * slotCount;
+		
+		ByteBuffer truncatedData = ByteBuffer.wrap(Arrays.copyOf(bytes,
+				bytes.length - 1));
+		
+		assertThrows(IllegalArgumentException.class,
+				() -> BufferChoiceSet.wrap(truncatedData));
+		
+		// Offset of the second choice
+		ByteBuffer wrongOffset = ByteBuffer.wrap(bytes.clone());
+		wrongOffset.putInt(entriesStart + BufferChoiceSet.ENTRY_SIZE + 4,
+				1 << 30);
+		
+		assertThrows(IllegalArgumentException.class,
+				() -> BufferChoiceSet.wrap(wrongOffset));
+		
+		// Length of the key of the third choice
+		ByteBuffer negativeLength = ByteBuffer.wrap(bytes.clone());
+		negativeLength.putInt(entriesStart + 2 * BufferChoiceSet.ENTRY_SIZE
+				+ 16, -1);
+		
+		assertThrows(IllegalArgumentException.class,
+				() -> BufferChoiceSet.wrap(negativeLength));
+		
+		ByteBuffer wrongSlot = ByteBuffer.wrap(bytes.clone());
+		wrongSlot.putInt(BufferChoiceSet.HEADER_SIZE, 4);
+		
+		assertThrows(IllegalArgumentException.class,
+				() -> BufferChoiceSet.wrap(wrongSlot));
+		
+		ByteBuffer fullSlots = ByteBuffer.wrap(bytes.clone());
+		
+		for(int slot = 0; slot < slotCount; slot++){
+			fullSlots.putInt(BufferChoiceSet.HEADER_SIZE + 4 * slot, 1);
+		}
+		
+		assertThrows(IllegalArgumentException.class,
+				() -> BufferChoiceSet.wrap(fullSlots));
+		
+		assertEquals(3, BufferChoiceSet.wrap(ByteBuffer.wrap(bytes)).size());
+		
+	}
+	
+	@Test
+	void getKeepsDecodedChoices(){
+		
+		BufferChoiceSet set = compile(ChoiceHashSet.of(Arrays.asList("yes",
+				"no"), ChoiceMatching.IGNORE_CASE));
+		
+		assertSame(set.get(1), set.get(1));
+		assertSame(set.get(0), EnumSanitizer.sanitizeValue(" YES ", set));
+		
+		BufferChoiceSet.Builder builder = BufferChoiceSet
+				.builder(ChoiceMatching.EXACT);
+		
+		for(int i = 0; i < 5000; i++){
+			builder.add(Integer.toString(i));
+		}
+		
+		BufferChoiceSet bigSet = builder.build();
+		
+		for(int i = 0; i < 5000; i++){
+			assertEquals(Integer.toString(i), bigSet.get(i));
+		}
+		
+		assertSame(bigSet.get(4999), bigSet.get(4999));
+		
+	}
+	
+	@Test
+	void builder(){
+		
+		BufferChoiceSet.Builder builder = BufferChoiceSet
+				.builder(ChoiceMatching.IGNORE_CASE);
+		
+		assertEquals(0, builder.add("Yes"));
+		assertEquals(1, builder.add("\u00c9t\u00e9"));
+		assertEquals(0, builder.add("YES"));
+		assertEquals(1, builder.add("\u00e9T\u00c9"));
+		assertEquals(2, builder.add("No"));
+		assertEquals(3, builder.size());
+		
+		BufferChoiceSet set = builder.build();
+		
+		assertEquals(3, set.size());
+		assertEquals("Yes", set.get(set.indexOf("yes")));
+		assertEquals("\u00c9t\u00e9", set.get(set.indexOf("\u00e9t\u00e9")));
+		assertEquals(-1, set.indexOf("Maybe"));
+		
+		assertEquals(3, builder.add("Maybe"));
+		assertEquals(-1, set.indexOf("Maybe"));
+		assertEquals(3, builder.build().indexOf("maybe"));
+		
+	}
+	
+	@Test
+	void builderMaximumSizeFits(){
+		
+		int maximumSize = BufferChoiceSet.Builder.MAXIMUM_SIZE;
+		
+		assertTrue(BufferChoiceSet.HEADER_SIZE + 4L
+				* ChoiceHashSet.tableSize(maximumSize)
+				+ (long)BufferChoiceSet.ENTRY_SIZE * maximumSize
+				<= Integer.MAX_VALUE);
+		assertTrue(BufferChoiceSet.HEADER_SIZE + 4L
+				* ChoiceHashSet.tableSize(maximumSize + 1)
+				+ (long)BufferChoiceSet.ENTRY_SIZE * (maximumSize + 1)
+				> Integer.MAX_VALUE);
+		
+	}
+	
+	@Test
+	void builderSameAsHashSet(){
+		
+		List<String> values = new ArrayList<>();
+		BufferChoiceSet.Builder builder = BufferChoiceSet
+				.builder(ChoiceMatching.EXACT);
+		
+		for(int i = 0; i < 20000; i++){
+			
+			String value = Integer.toString(i * 7919 % 15000, 36);
+			
+			values.add(value);
+			builder.add(value);
+			
+		}
+		
+		ChoiceHashSet hashSet = ChoiceHashSet.of(values);
+		BufferChoiceSet set = builder.build();
+		
+		assertEquals(hashSet.size(), set.size());
+		
+		for(int i = 0; i < 16000; i++){
+			
+			String value = Integer.toString(i, 36);
+			
+			assertEquals(hashSet.indexOf(value), set.indexOf(value));
+			
+		}
+		
+	}
+	
+	@Test
+	void builderFromDefinition() throws IOException{
+		
+		BufferChoiceSet.Builder builder = BufferChoiceSet
+				.builder(ChoiceMatching.EXACT);
+		
+		EnumSanitizer.extractEnumFromReader(new StringReader(
+				"H2X 1Y4,H3Z 2Y7,H2X 1Y4"), ',', builder::add);
+		
+		EnumSanitizer sanitizer = EnumSanitizer.of(builder.build());
+		
+		assertEquals(2, sanitizer.getChoices().size());
+		assertEquals("H3Z 2Y7", sanitizer.sanitize("H3Z 2Y7"));
+		assertThrows(BadFormatException.class,
+				() -> sanitizer.sanitize("H3Z 2Y8"));
+		
+	}
+	
+}
@@ -0,0 +1,106 @@
+package io.github.ved.jsanitizers.choices;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChoiceHashSetTest {
+	
+	@Test
+	void exactMatch(){
+		
+		ChoiceHashSet set = ChoiceHashSet.of(Arrays.asList("nope", "yes",
+				"test"));
+		
+		assertEquals(3, set.size());
+		assertEquals(0, set.indexOf("nope"));
+		assertEquals(2, set.indexOf("test"));
+		assertEquals(-1, set.indexOf("Test"));
+		assertEquals(-1, set.indexOf("tes"));
+		assertEquals("yes", set.get(1));
+		
+	}
+	
+	@Test
+	void ignoreCase(){
+		
+		ChoiceHashSet set = ChoiceHashSet.of(Arrays.asList("Active",
+				"INACTIVE", "Pending"), ChoiceMatching.IGNORE_CASE);
+		
+		assertEquals(0, set.indexOf("active"));
+		assertEquals(1, set.indexOf("Inactive"));
+		assertEquals(2, set.indexOf("PENDING"));
+		assertEquals(-1, set.indexOf("pendin"));
+		assertEquals("Active", set.get(set.indexOf("aCTIVE")));
+		
+	}
+	
+	@Test
+	void ignoreCaseDuplicates(){
+		
+		ChoiceHashSet set = ChoiceHashSet.of(Arrays.asList("Yes", "yes", "No"),
+				ChoiceMatching.IGNORE_CASE);
+		
+		assertEquals(2, set.size());
+		assertEquals("Yes", set.get(set.indexOf("YES")));
+		assertEquals(1, set.indexOf("no"));
+		
+	}
+	
+	@Test
+	void normalized(){
+		
+		String composed = "caf\u00e9";
+		String decomposed = "cafe\u0301";
+		
+		ChoiceHashSet exact = ChoiceHashSet.of(Arrays.asList(composed));
+		
+		assertEquals(-1, exact.indexOf(decomposed));
+		
+		ChoiceHashSet normalized = ChoiceHashSet.of(Arrays.asList(decomposed),
+				ChoiceMatching.NORMALIZED);
+		
+		assertEquals(0, normalized.indexOf(composed));
+		assertEquals(0, normalized.indexOf(decomposed));
+		assertEquals(decomposed, normalized.get(0));
+		
+		ChoiceHashSet normalizedIgnoringCase = ChoiceHashSet.of(Arrays
+				.asList(composed), ChoiceMatching.NORMALIZED_IGNORE_CASE);
+		
+		assertEquals(0, normalizedIgnoringCase.indexOf("CAF\u00c9"));
+		
+	}
+	
+	@Test
+	void manyChoices(){
+		
+		List<String> choices = new ArrayList<>();
+		
+		for(int i = 0; i < 1000; i++){
+			choices.add("Choice" + i);
+		}
+		
+		ChoiceHashSet set = ChoiceHashSet.of(choices,
+				ChoiceMatching.IGNORE_CASE);
+		
+		for(int i = 0; i < 1000; i++){
+			assertEquals(i, set.indexOf("choice" + i));
+		}
+		
+		assertFalse(set.contains("choice1000"));
+		
+	}
+	
+	@Test
+	void nullChoice(){
+		
+		assertThrows(IllegalArgumentException.class, () -> ChoiceHashSet
+				.of(Arrays.asList("a", null)));
+		
+	}
+	
+}
@@ -0,0 +1,127 @@
+package io.github.ved.jsanitizers.choices;
+
+import io.github.ved.jsanitizers.EnumSanitizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChoiceSortedSetTest {
+	
+	@Test
+	void exactMatch(){
+		
+		ChoiceSortedSet set = ChoiceSortedSet.of(Arrays.asList("nope", "yes",
+				"test", "a", ""));
+		
+		assertEquals(5, set.size());
+		assertEquals(0, set.indexOf("nope"));
+		assertEquals(1, set.indexOf("yes"));
+		assertEquals(2, set.indexOf("test"));
+		assertEquals(3, set.indexOf("a"));
+		assertEquals(4, set.indexOf(""));
+		assertEquals(-1, set.indexOf("Test"));
+		assertEquals(-1, set.indexOf("tes"));
+		assertEquals(-1, set.indexOf("tests"));
+		assertEquals(-1, set.indexOf("a much longer value"));
+		assertEquals("yes", set.get(1));
+		
+	}
+	
+	@Test
+	void ignoreCase(){
+		
+		String choice = new String("Active");
+		
+		ChoiceSortedSet set = ChoiceSortedSet.of(Arrays.asList(choice,
+				"INACTIVE", "Pending", "active"), ChoiceMatching.IGNORE_CASE);
+		
+		assertEquals(3, set.size());
+		assertEquals(0, set.indexOf("aCTIVE"));
+		assertEquals(1, set.indexOf("Inactive"));
+		assertEquals(2, set.indexOf("PENDING"));
+		assertSame(choice, set.get(set.indexOf("active")));
+		
+	}
+	
+	@Test
+	void normalized(){
+		
+		ChoiceSortedSet set = ChoiceSortedSet.of(Arrays.asList("caf\u00e9"),
+				ChoiceMatching.NORMALIZED);
+		
+		assertEquals(0, set.indexOf("cafe\u0301"));
+		assertEquals(-1, ChoiceSortedSet.of(Arrays.asList("caf\u00e9"))
+				.indexOf("cafe\u0301"));
+		
+	}
+	
+	@Test
+	void empty(){
+		
+		ChoiceSortedSet set = ChoiceSortedSet.of(Collections.emptyList());
+		
+		assertEquals(0, set.size());
+		assertEquals(-1, set.indexOf(""));
+		assertEquals(-1, set.indexOf("a"));
+		
+	}
+	
+	@Test
+	void nullChoice(){
+		assertThrows(IllegalArgumentException.class,
+				() -> ChoiceSortedSet.of(Arrays.asList("a", null)));
+	}
+	
+	@Test
+	void sameAsHashSet(){
+		
+		Random random = new Random(46);
+		List<String> values = new ArrayList<>();
+		
+		for(int i = 0; i < 300; i++){
+			
+			char[] value = new char[random.nextInt(8)];
+			
+			for(int j = 0; j < value.length; j++){
+				value[j] = (char)('A' + random.nextInt(6) + (random
+						.nextBoolean() ? 32 : 0));
+			}
+			
+			values.add(new String(value));
+			
+		}
+		
+		for(ChoiceMatching matching : ChoiceMatching.values()){
+			
+			ChoiceHashSet hashSet = ChoiceHashSet.of(values.subList(0, 150),
+					matching);
+			ChoiceSortedSet set = ChoiceSortedSet.of(values.subList(0, 150),
+					matching);
+			
+			assertEquals(hashSet.size(), set.size());
+			
+			for(String value : values){
+				assertEquals(hashSet.indexOf(value), set.indexOf(value));
+			}
+			
+		}
+		
+	}
+	
+	@Test
+	void withEnumSanitizer(){
+		
+		EnumSanitizer sanitizer = EnumSanitizer.of(ChoiceSortedSet.of(Arrays
+				.asList("Low", "Medium", "High"), ChoiceMatching.IGNORE_CASE));
+		
+		assertEquals("Medium", sanitizer.sanitize(" medium "));
+		
+	}
+	
+}
@@ -0,0 +1,270 @@
+package io.github.ved.jsanitizers.choices;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChoiceSuggesterTest {
+	
+	@Test
+	void distance(){
+		
+		assertEquals(3, distance("kitten", "sitting", 10));
+		assertEquals(0, distance("same", "same", 10));
+		assertEquals(4, distance("", "four", 10));
+		assertEquals(2, distance("flaw", "lawn", 10));
+		assertTrue(distance("kitten", "sitting", 1) > 1);
+		assertTrue(distance("a", "abcdef", 2) > 2);
+		
+	}
+	
+	@Test
+	void suggestions(){
+		
+		ChoiceSuggester suggester = ChoiceSuggester.of(ChoiceHashSet
+				.of(Arrays.asList("apple", "apply", "ample", "maple",
+						"banana", "applesauce")));
+		
+		assertEquals(Arrays.asList("apple", "apply", "ample"),
+				suggester.suggest("appl"));
+		assertEquals(Arrays.asList("apple"),
+				suggester.suggest("appel", 2, 1, Long.MAX_VALUE));
+		assertEquals(Arrays.asList("banana"), suggester.suggest("bananas"));
+		assertEquals(Collections.emptyList(), suggester.suggest("cherry"));
+		
+	}
+	
+	@Test
+	void ignoringCase(){
+		
+		ChoiceSuggester suggester = ChoiceSuggester.of(ChoiceHashSet.of(
+				Arrays.asList("Montreal", "Toronto"),
+				ChoiceMatching.IGNORE_CASE));
+		
+		assertEquals(Arrays.asList("Montreal"),
+				suggester.suggest("MONTREL"));
+		
+	}
+	
+	@Test
+	void withLimits(){
+		
+		ChoiceSuggester suggester = ChoiceSuggester.of(
+				ChoiceHashSet.of(Arrays.asList("abcd", "abce", "abcf", "xbcd")))
+				.withLimits(1, 10, Long.MAX_VALUE);
+		
+		assertEquals(Arrays.asList("abcd", "abce", "abcf", "xbcd"),
+				suggester.suggest("abcd"));
+		assertEquals(Arrays.asList("abcd", "abce", "abcf"),
+				suggester.suggest("abc"));
+		
+		assertThrows(IllegalArgumentException.class,
+				() -> suggester.withLimits(1, 0, 0));
+		assertThrows(IllegalArgumentException.class,
+				() -> suggester.withLimits(-1, 1, 0));
+		
+	}
+	
+	@Test
+	void emptySet(){
+		assertEquals(Collections.emptyList(),
+				ChoiceSuggester.of(ChoiceHashSet.of(new ArrayList<>()))
+						.suggest("value"));
+	}
+	
+	@Test
+	void sameAsLinearScan(){
+		
+		Random random = new Random(47);
+		List<String> choices = new ArrayList<>();
+		
+		for(int i = 0; i < 2000; i++){
+			choices.add(randomWord(random));
+		}
+		
+		ChoiceHashSet set = ChoiceHashSet.of(choices);
+		ChoiceSuggester suggester = ChoiceSuggester.of(set);
+		
+		for(int i = 0; i < 200; i++){
+			
+			String value = randomWord(random);
+			
+			List<String> expected = new ArrayList<>();
+			
+			for(int distance = 0; distance <= 2; distance++){
+				for(int index = 0; index < set.size(); index++){
+					if(expected.size() < 5
+							&& distance(value, set.get(index), 10) == distance){
+						expected.add(set.get(index));
+					}
+				}
+			}
+			
+			assertEquals(expected,
+					suggester.suggest(value, 2, 5, Long.MAX_VALUE));
+			
+		}
+		
+	}
+	
+	@Test
+	void largeSet(){
+		
+		Random random = new Random(100);
+		List<String> choices = new ArrayList<>();
+		
+		for(int i = 0; i < 100000; i++){
+			choices.add(Integer.toString(random.nextInt(Integer.MAX_VALUE), 36));
+		}
+		
+		ChoiceSuggester suggester = ChoiceSuggester.of(ChoiceHashSet
+				.of(choices));
+		
+		String choice = choices.get(1234);
+		String typo = choice.substring(1);
+		
+		assertTrue(suggester.suggest(typo, 1, 3, Long.MAX_VALUE).contains(
+				choice));
+		
+		// A search out of time still returns what it found
+		assertNotNull(suggester.suggest(typo, 2, 3, 0));
+		
+	}
+	
+	@Test
+	void bandedDistanceSameAsFullMatrix(){
+		
+		Random random = new Random(3);
+		
+		for(int i = 0; i < 2000; i++){
+			
+			String first = randomWord(random);
+			String second = randomWord(random);
+			
+			int expected = fullDistance(first, second);
+			
+			for(int bound = 0; bound <= 4; bound++){
+				
+				int distance = distance(first, second, bound);
+				
+				if(expected <= bound){
+					assertEquals(expected, distance);
+				}
+				else{
+					assertTrue(distance > bound);
+				}
+				
+			}
+			
+		}
+		
+	}
+	
+	@Test
+	void hugeValue(){
+		
+		ChoiceSuggester suggester = ChoiceSuggester.of(ChoiceHashSet.of(Arrays
+				.asList("red", "green", "blue")));
+		
+		char[] value = new char[4_000_000];
+		Arrays.fill(value, 'e');
+		
+		assertEquals(Collections.emptyList(), suggester.suggest(new String(
+				value)));
+		assertEquals(Collections.emptyList(), suggester.suggest("greenish"));
+		assertEquals(Arrays.asList("green"), suggester.suggest("greeny"));
+		
+	}
+	
+	@Test
+	void longChoices(){
+		
+		char[] chars = new char[50000];
+		Arrays.fill(chars, 'a');
+		
+		String choice = new String(chars);
+		
+		chars[25000] = 'b';
+		
+		String typo = new String(chars);
+		
+		// A full matrix would need 50001 rows of 50001 ints
+		ChoiceSuggester suggester = ChoiceSuggester.of(ChoiceHashSet.of(Arrays
+				.asList(choice, "a")));
+		
+		assertEquals(Arrays.asList(choice), suggester.suggest(typo, 2, 3,
+				Long.MAX_VALUE));
+		assertEquals(Arrays.asList(choice), suggester.suggest(typo, 2,
+				Integer.MAX_VALUE, Long.MAX_VALUE));
+		assertEquals(Arrays.asList(choice), suggester.withLimits(
+				ChoiceSuggester.MAXIMUM_DISTANCE, 3, Long.MAX_VALUE).suggest(
+				typo));
+		
+	}
+	
+	@Test
+	void distanceBounded(){
+		
+		ChoiceSuggester suggester = ChoiceSuggester.of(ChoiceHashSet.of(Arrays
+				.asList("green", "red")));
+		
+		// A band this wide over a long choice would need gigabytes
+		assertThrows(IllegalArgumentException.class,
+				() -> suggester.withLimits(50000, 3, Long.MAX_VALUE));
+		assertThrows(IllegalArgumentException.class,
+				() -> suggester.suggest("gren",
+						ChoiceSuggester.MAXIMUM_DISTANCE + 1, 3,
+						Long.MAX_VALUE));
+		
+		assertEquals(Arrays.asList("green", "red"), suggester.suggest("gren",
+				ChoiceSuggester.MAXIMUM_DISTANCE, 3, Long.MAX_VALUE));
+		
+	}
+	
+	private static int fullDistance(String first, String second){
+		
+		int[][] matrix = new int[first.length() + 1][second.length() + 1];
+		
+		for(int i = 0; i <= first.length(); i++){
+			for(int j = 0; j <= second.length(); j++){
+				
+				if(i == 0 || j == 0){
+					matrix[i][j] = i + j;
+				}
+				else{
+					matrix[i][j] = Math.min(Math.min(matrix[i - 1][j] + 1,
+							matrix[i][j - 1] + 1), matrix[i - 1][j - 1]
+							+ (first.charAt(i - 1) == second.charAt(j - 1) ? 0
+									: 1));
+				}
+				
+			}
+		}
+		
+		return matrix[first.length()][second.length()];
+		
+	}
+	
+	private static int distance(String first, String second, int bound){
+		return ChoiceSuggester.distance(first, second, bound);
+	}
+	
+	private static String randomWord(Random random){
+		
+		char[] word = new char[2 + random.nextInt(5)];
+		
+		for(int i = 0; i < word.length; i++){
+			word[i] = (char)('a' + random.nextInt(4));
+		}
+		
+		return new String(word);
+		
+	}
+	
+}
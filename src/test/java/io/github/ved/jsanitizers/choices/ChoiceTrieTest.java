@@ -0,0 +1,178 @@
+package io.github.ved.jsanitizers.choices;
+
+import io.github.ved.jsanitizers.EnumSanitizer;
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChoiceTrieTest {
+	
+	@Test
+	void exactMatch(){
+		
+		ChoiceTrie trie = ChoiceTrie.of(EnumSanitizer
+				.extractEnumFromString("car | cart | carbon | dog"));
+		
+		assertEquals(4, trie.size());
+		assertEquals(0, trie.indexOf("car"));
+		assertEquals(1, trie.indexOf("cart"));
+		assertEquals(2, trie.indexOf("carbon"));
+		assertEquals(3, trie.indexOf("dog"));
+		assertEquals(-1, trie.indexOf("ca"));
+		assertEquals(-1, trie.indexOf("cars"));
+		assertEquals(-1, trie.indexOf(""));
+		
+	}
+	
+	@Test
+	void getRebuildsChoices(){
+		
+		List<String> choices = Arrays.asList("b", "ab", "abc", "a", "zz");
+		
+		ChoiceTrie trie = ChoiceTrie.of(choices);
+		
+		for(int i = 0; i < choices.size(); i++){
+			assertEquals(choices.get(i), trie.get(i));
+		}
+		
+		assertEquals("abc", EnumSanitizer.sanitizeValue(" abc ", trie));
+		
+		assertThrows(IndexOutOfBoundsException.class, () -> trie.get(5));
+		
+	}
+	
+	@Test
+	void duplicatesKeepFirstIndex(){
+		
+		ChoiceTrie trie = ChoiceTrie.of(Arrays.asList("a", "b", "a", "c"));
+		
+		assertEquals(3, trie.size());
+		assertEquals(0, trie.indexOf("a"));
+		assertEquals(2, trie.indexOf("c"));
+		
+	}
+	
+	@Test
+	void prefix(){
+		
+		ChoiceTrie trie = ChoiceTrie.of(Arrays.asList("car", "cart", "dog"));
+		
+		assertTrue(trie.isPrefix(""));
+		assertTrue(trie.isPrefix("ca"));
+		assertTrue(trie.isPrefix("car"));
+		assertTrue(trie.isPrefix("cart"));
+		assertFalse(trie.isPrefix("carts"));
+		assertFalse(trie.isPrefix("x"));
+		
+	}
+	
+	@Test
+	void longestPrefix(){
+		
+		ChoiceTrie trie = ChoiceTrie.of(Arrays.asList("car", "cart", "dog"));
+		
+		assertEquals(1, trie.longestPrefixOf("cartography"));
+		assertEquals(0, trie.longestPrefixOf("carbon"));
+		assertEquals(2, trie.longestPrefixOf("dog"));
+		assertEquals(-1, trie.longestPrefixOf("ca"));
+		assertEquals(-1, trie.longestPrefixOf("bird"));
+		
+	}
+	
+	@Test
+	void startingWith(){
+		
+		ChoiceTrie trie = ChoiceTrie.of(Arrays.asList("cart", "dog", "car",
+				"carbon"));
+		
+		assertEquals(Arrays.asList("car", "carbon", "cart"),
+				trie.startingWith("car"));
+		assertEquals(Arrays.asList("car", "carbon"), trie.startingWith("c", 2));
+		assertEquals(Collections.emptyList(), trie.startingWith("x"));
+		
+	}
+	
+	@Test
+	void compressedEdges(){
+		
+		ChoiceTrie trie = ChoiceTrie.of(Arrays.asList("international",
+				"internet", "interval", "in", "", "x"));
+		
+		assertEquals(4, trie.indexOf(""));
+		assertEquals(3, trie.indexOf("in"));
+		assertEquals(1, trie.indexOf("internet"));
+		assertEquals(-1, trie.indexOf("inter"));
+		assertEquals(-1, trie.indexOf("internets"));
+		assertEquals(-1, trie.indexOf("interned"));
+		
+		assertTrue(trie.isPrefix("inte"));
+		assertTrue(trie.isPrefix("internat"));
+		assertFalse(trie.isPrefix("intex"));
+		
+		assertEquals(1, trie.longestPrefixOf("internetwork"));
+		assertEquals(3, trie.longestPrefixOf("interns"));
+		assertEquals(4, trie.longestPrefixOf("y"));
+		
+		assertEquals(Arrays.asList("international", "internet"),
+				trie.startingWith("intern"));
+		assertEquals(Arrays.asList("in", "international", "internet",
+				"interval"), trie.startingWith("i"));
+		assertEquals(Arrays.asList("", "in"), trie.startingWith("", 2));
+		
+	}
+	
+	@Test
+	void startingWithLongChoices(){
+		
+		char[] chars = new char[100000];
+		Arrays.fill(chars, 'a');
+		
+		String longChoice = new String(chars);
+		
+		ChoiceTrie trie = ChoiceTrie.of(Arrays.asList(longChoice, "a", "ab"));
+		
+		assertEquals(Arrays.asList("a", longChoice, "ab"),
+				trie.startingWith("a"));
+		assertEquals(Arrays.asList("a", longChoice), trie.startingWith("a", 2));
+		
+	}
+	
+	@Test
+	void nullChoice(){
+		
+		Executable shouldThrowIllegalArgumentException = () -> ChoiceTrie
+				.of(Arrays.asList("a", null));
+		
+		assertThrows(IllegalArgumentException.class,
+				shouldThrowIllegalArgumentException);
+		
+	}
+	
+	@Test
+	void sanitizeWithTrie(){
+		
+		ChoiceTrie trie = ChoiceTrie.of(Arrays.asList("nope", "yes", "test"));
+		
+		assertEquals("test", EnumSanitizer.sanitizeValue("  test ", trie));
+		
+		Executable shouldThrowBadFormatException = () -> EnumSanitizer
+				.sanitizeValue("tes", trie);
+		
+		BadFormatException exception = assertThrows(BadFormatException.class,
+				shouldThrowBadFormatException);
+		
+		assertEquals(EnumSanitizer.FORMAT_NOT_A_CHOICE,
+				exception.getErrorCode());
+		
+		assertThrows(IllegalArgumentException.class, () -> EnumSanitizer
+				.sanitizeValue("test", ChoiceTrie.of(Collections.emptyList())));
+		
+	}
+	
+}
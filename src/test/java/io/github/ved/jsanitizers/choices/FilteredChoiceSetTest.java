@@ -0,0 +1,128 @@
+package io.github.ved.jsanitizers.choices;
+
+import io.github.ved.jsanitizers.EnumSanitizer;
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilteredChoiceSetTest {
+	
+	@Test
+	void lookups(){
+		
+		FilteredChoiceSet set = FilteredChoiceSet.of(ChoiceHashSet.of(Arrays
+				.asList("red", "green", "blue")), 0.01);
+		
+		assertEquals(3, set.size());
+		assertEquals(1, set.indexOf("green"));
+		assertEquals(-1, set.indexOf("Green"));
+		assertEquals(-1, set.indexOf("pink"));
+		assertEquals("blue", set.get(2));
+		assertTrue(set.mightContain("red"));
+		
+	}
+	
+	@Test
+	void matchingModes(){
+		
+		FilteredChoiceSet set = FilteredChoiceSet.of(ChoiceHashSet.of(Arrays
+				.asList("Caf\u00e9", "STRASSE"),
+				ChoiceMatching.NORMALIZED_IGNORE_CASE), 0.001);
+		
+		assertEquals(0, set.indexOf("cafe\u0301"));
+		assertEquals(0, set.indexOf("CAF\u00c9"));
+		assertEquals(1, set.indexOf("strasse"));
+		
+	}
+	
+	@Test
+	void noFalseNegatives(){
+		
+		List<String> values = new ArrayList<>();
+		
+		for(int i = 0; i < 50000; i++){
+			values.add("ID-" + Integer.toString(i * 7919, 36));
+		}
+		
+		FilteredChoiceSet set = FilteredChoiceSet.of(ChoiceHashSet.of(values),
+				0.01);
+		
+		for(int i = 0; i < values.size(); i++){
+			assertTrue(set.mightContain(values.get(i)));
+			assertEquals(i, set.indexOf(values.get(i)));
+		}
+		
+	}
+	
+	@Test
+	void falsePositiveRate(){
+		
+		List<String> values = new ArrayList<>();
+		
+		for(int i = 0; i < 100000; i++){
+			values.add("A" + i);
+		}
+		
+		FilteredChoiceSet set = FilteredChoiceSet.of(ChoiceHashSet.of(values),
+				0.01);
+		
+		int falsePositives = 0;
+		
+		for(int i = 0; i < 100000; i++){
+			if(set.mightContain("B" + i)){
+				falsePositives++;
+			}
+		}
+		
+		assertTrue(set.getFalsePositiveRate() <= 0.01);
+		assertTrue(falsePositives < 2000, falsePositives + " false positives");
+		
+		assertEquals(7, set.getHashCount());
+		assertTrue(set.getMemoryUsage() >= 100000 * 9.58 / 8);
+		assertTrue(set.getMemoryUsage() < 2 * 100000 * 9.59 / 8 + 64);
+		
+	}
+	
+	@Test
+	void emptySet(){
+		
+		FilteredChoiceSet set = FilteredChoiceSet.of(ChoiceHashSet
+				.of(new ArrayList<>()), 0.5);
+		
+		assertEquals(0, set.size());
+		assertFalse(set.mightContain("anything"));
+		assertEquals(64, set.getMemoryUsage());
+		
+	}
+	
+	@Test
+	void invalidRate(){
+		
+		ChoiceHashSet choices = ChoiceHashSet.of(Arrays.asList("a"));
+		
+		assertThrows(IllegalArgumentException.class,
+				() -> FilteredChoiceSet.of(choices, 0));
+		assertThrows(IllegalArgumentException.class,
+				() -> FilteredChoiceSet.of(choices, 1));
+		assertThrows(IllegalArgumentException.class,
+				() -> FilteredChoiceSet.of(choices, Double.NaN));
+		
+	}
+	
+	@Test
+	void withEnumSanitizer(){
+		
+		EnumSanitizer sanitizer = EnumSanitizer.of(FilteredChoiceSet.of(
+				ChoiceHashSet.of(Arrays.asList("on", "off")), 0.01));
+		
+		assertEquals("off", sanitizer.sanitize("off"));
+		assertThrows(BadFormatException.class, () -> sanitizer.sanitize("of"));
+		
+	}
+	
+}
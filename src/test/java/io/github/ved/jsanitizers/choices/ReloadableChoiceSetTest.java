@@ -0,0 +1,178 @@
+package io.github.ved.jsanitizers.choices;
+
+import io.github.ved.jsanitizers.EnumSanitizer;
+import io.github.ved.jsanitizers.exceptions.BadFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReloadableChoiceSetTest {
+	
+	@Test
+	void reload(){
+		
+		ReloadableChoiceSet reloadable = ReloadableChoiceSet.of(
+				Arrays.asList("red", "green"), ChoiceMatching.IGNORE_CASE);
+		
+		ChoiceHashSet before = reloadable.get();
+		
+		ChoiceHashSet after = reloadable.reload(Arrays.asList("Blue", "red"));
+		
+		assertSame(after, reloadable.get());
+		assertEquals(ChoiceMatching.IGNORE_CASE, after.getMatching());
+		assertEquals(0, after.indexOf("BLUE"));
+		assertEquals(-1, after.indexOf("green"));
+		
+		// Sets already taken are not affected
+		assertEquals(1, before.indexOf("green"));
+		
+		ChoiceHashSet replacement = ChoiceHashSet.of(Arrays.asList("x"));
+		
+		assertSame(replacement, reloadable.reload(replacement));
+		
+	}
+	
+	@Test
+	void update(){
+		
+		String red = new String("Red");
+		
+		ReloadableChoiceSet reloadable = ReloadableChoiceSet.of(
+				Arrays.asList(red, "Green", "Blue", "Black"),
+				ChoiceMatching.IGNORE_CASE);
+		
+		ChoiceHashSet set = reloadable.update(Arrays.asList("Pink", "RED",
+				"White", "pink"), Arrays.asList("green", "black", "purple"));
+		
+		assertEquals(4, set.size());
+		assertEquals(Arrays.asList("Red", "Blue", "Pink", "White"),
+				choicesOf(set));
+		assertSame(red, set.get(set.indexOf("red")));
+		assertEquals(-1, set.indexOf("Green"));
+		assertEquals(2, set.indexOf("PINK"));
+		
+		assertEquals(Arrays.asList("Red", "Pink", "White"),
+				choicesOf(reloadable.remove(Arrays.asList("blue"))));
+		assertEquals(Arrays.asList("Red", "Pink", "White", "Blue"),
+				choicesOf(reloadable.add(Arrays.asList("Blue"))));
+		
+	}
+	
+	@Test
+	void updateSameAsRebuild(){
+		
+		List<String> values = new ArrayList<>();
+		
+		for(int i = 0; i < 1000; i++){
+			values.add("V" + i);
+		}
+		
+		ReloadableChoiceSet reloadable = ReloadableChoiceSet.of(values,
+				ChoiceMatching.EXACT);
+		
+		List<String> removed = values.subList(100, 400);
+		List<String> added = Arrays.asList("A", "B", "V10");
+		
+		ChoiceHashSet updated = reloadable.update(added, removed);
+		
+		List<String> expected = new ArrayList<>(values);
+		expected.removeAll(removed);
+		expected.add("A");
+		expected.add("B");
+		
+		ChoiceHashSet rebuilt = ChoiceHashSet.of(expected);
+		
+		assertEquals(choicesOf(rebuilt), choicesOf(updated));
+		
+		for(String value : values){
+			assertEquals(rebuilt.indexOf(value), updated.indexOf(value));
+		}
+		
+	}
+	
+	@Test
+	void failedUpdateKeepsSet(){
+		
+		ReloadableChoiceSet reloadable = ReloadableChoiceSet.of(
+				Arrays.asList("a"), ChoiceMatching.EXACT);
+		
+		ChoiceHashSet set = reloadable.get();
+		
+		assertThrows(IllegalArgumentException.class,
+				() -> reloadable.add(Arrays.asList("b", null)));
+		assertThrows(IllegalArgumentException.class,
+				() -> reloadable.reload(Collections.singletonList(null)));
+		
+		assertSame(set, reloadable.get());
+		
+	}
+	
+	@Test
+	void concurrentReaders() throws InterruptedException{
+		
+		ReloadableChoiceSet reloadable = ReloadableChoiceSet.of(
+				Arrays.asList("stable", "old"), ChoiceMatching.EXACT);
+		
+		AtomicBoolean isRunning = new AtomicBoolean(true);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		
+		List<Thread> readers = new ArrayList<>();
+		
+		for(int i = 0; i < 4; i++){
+			
+			Thread reader = new Thread(() -> {
+				try{
+					while(isRunning.get()){
+						assertEquals("stable", EnumSanitizer.sanitizeValue(
+								"stable", reloadable.get()));
+					}
+				}
+				catch(Throwable e){
+					failure.set(e);
+				}
+			});
+			
+			reader.start();
+			readers.add(reader);
+			
+		}
+		
+		for(int i = 0; i < 1000; i++){
+			reloadable.update(Arrays.asList("new" + i),
+					Arrays.asList("old", "new" + (i - 1)));
+		}
+		
+		isRunning.set(false);
+		
+		for(Thread reader : readers){
+			reader.join();
+		}
+		
+		assertNull(failure.get());
+		assertEquals(Arrays.asList("stable", "new999"),
+				choicesOf(reloadable.get()));
+		assertThrows(BadFormatException.class, () -> EnumSanitizer
+				.sanitizeValue("old", reloadable.get()));
+		
+	}
+	
+	private static List<String> choicesOf(ChoiceSet set){
+		
+		List<String> choices = new ArrayList<>();
+		
+		for(int i = 0; i < set.size(); i++){
+			choices.add(set.get(i));
+		}
+		
+		return choices;
+		
+	}
+	
+}
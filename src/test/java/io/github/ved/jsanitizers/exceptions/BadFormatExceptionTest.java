@@ -2,6 +2,7 @@ package io.github.ved.jsanitizers.exceptions;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class BadFormatExceptionTest {
 	
@@ -45,4 +46,17 @@ public class BadFormatExceptionTest {
 		
 	}
 	
+	@Test
+	void testConstructorWithMessageCodeAndCause(){
+		
+		IllegalStateException cause = new IllegalStateException();
+		BadFormatException e = new BadFormatException(
+				"This is an error message", 1, cause);
+		
+		assertEquals("This is an error message", e.getMessage());
+		assertEquals(1, e.getErrorCode());
+		assertSame(cause, e.getCause());
+		
+	}
+	
 }